@@ -1,5 +1,18 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * ArraySet.java.
@@ -24,6 +37,33 @@ public class ArraySet<T extends Comparable<? super T>> implements Set<T> {
    T[] elements;
    int size;
 
+   // Orders the elements; null means their natural ordering.
+   Comparator<? super T> comparator;
+
+   // Sum of Set.fingerprintOf over the hash codes of the elements.
+   long fingerprint;
+
+   // Number of changes to the elements, checked by fail-fast iterators.
+   int modCount;
+
+   // True once a snapshot iterator or a frozen set holds the current
+   // array. The next change that would write into the array in place
+   // copies it first.
+   private boolean shared;
+
+   // Decides when the backing array grows and shrinks.
+   private CapacityPolicy policy = DEFAULT_POLICY;
+
+   // Size ratio at which intersection switches from a linear merge
+   // to galloping through the larger set.
+   static final int GALLOP_RATIO = 32;
+
+   // The largest set whose power set can be enumerated with a long mask.
+   static final int MAX_POWER_SET_SIZE = 62;
+
+   // Number of subsets below which a SubsetTask stops splitting.
+   private static final long SUBSET_TASK_SIZE = 1L << 12;
+
    ////////////////////////////////////
    // DO NOT CHANGE THIS CONSTRUCTOR //
    ////////////////////////////////////
@@ -36,6 +76,85 @@ public class ArraySet<T extends Comparable<? super T>> implements Set<T> {
       size = 0;
    }
 
+   /**
+    * Instantiates an empty set ordered by comparator instead of by
+    * the natural ordering of its elements. A null comparator means
+    * natural ordering.
+    *
+    * @param  comparator  the order in which to keep the elements
+    */
+   public ArraySet(Comparator<? super T> comparator) {
+      this();
+      this.comparator = comparator;
+   }
+
+   /**
+    * Instantiates a set containing the given values. The values are
+    * sorted and deduplicated in one pass instead of being inserted one
+    * at a time. Null values are ignored. The array is not changed.
+    *
+    * @param  values  the values to be placed in this set
+    */
+   public ArraySet(T[] values) {
+      this();
+      Comparable[] incoming = new Comparable[values.length];
+      System.arraycopy(values, 0, incoming, 0, values.length);
+      bulkAdd(incoming, incoming.length);
+   }
+
+   /**
+    * Instantiates a set containing the given values. The values are
+    * sorted and deduplicated in one pass instead of being inserted one
+    * at a time. Null values are ignored.
+    *
+    * @param  values  the values to be placed in this set
+    */
+   public ArraySet(Iterable<? extends T> values) {
+      this();
+      addAll(values);
+   }
+
+   /**
+    * Instantiates a set containing the given values, ordered by
+    * comparator. A null comparator means natural ordering.
+    *
+    * @param  values      the values to be placed in this set
+    * @param  comparator  the order in which to keep the elements
+    */
+   public ArraySet(Iterable<? extends T> values, Comparator<? super T> comparator) {
+      this(comparator);
+      addAll(values);
+   }
+
+   /**
+    * Instantiates a set that takes ownership of an array whose first
+    * size slots are already sorted and free of duplicates.
+    */
+   ArraySet(T[] sorted, int size) {
+      this(sorted, size, null);
+   }
+
+   /**
+    * Instantiates a set that takes ownership of an array whose first
+    * size slots are already sorted by comparator and free of duplicates.
+    */
+   ArraySet(T[] sorted, int size, Comparator<? super T> comparator) {
+      elements = sorted;
+      this.size = size;
+      this.comparator = comparator;
+      fingerprint = fingerprintOf(sorted, size);
+   }
+
+   /**
+    * Returns the comparator that orders this set, or null if it uses
+    * the natural ordering of its elements.
+    *
+    * @return  the comparator of this set, or null
+    */
+   public Comparator<? super T> comparator() {
+      return comparator;
+   }
+
    ///////////////////////////////////
    // DO NOT CHANGE THE SIZE METHOD //
    ///////////////////////////////////
@@ -96,35 +215,57 @@ public class ArraySet<T extends Comparable<? super T>> implements Set<T> {
     */
    @Override
    public boolean add(T element) {
-      
-      if (size == elements.length) {
-         resizer();
-      }
-      
       if (element == null) {
          return false;
       }
       
-      if (locate(element) != -1) {
+      int i = ceilingIndex(element);
+      if (i < size && compare(comparator, elements[i], element) == 0) {
          return false;
       }
       
-      int i = 0;
-      while (i <= size() || size == 0) {
-         if (elements[i] == null || element.compareTo(elements[i]) < 0) {
-            move(i);
-            
-            elements[i] = element;
-            
-            size++;
-            
-            return true;
+      modCount++;
+      if (size == elements.length) {
+         resizer(size + 1);
+      }
+      else {
+         unshare();
+      }
+      
+      move(i);
+      elements[i] = element;
+      size++;
+      fingerprint += Set.fingerprintOf(element.hashCode());
+      return true;
+   }
+
+   /**
+    * Ensures the collection contains all of the specified elements.
+    * The new elements are collected, sorted, deduplicated and merged
+    * with the current contents in O((n + m) log m) time rather than
+    * being added one at a time. Null values are ignored.
+    *
+    * @param  values  The elements whose presence is to be ensured.
+    * @return true if collection is changed, false otherwise.
+    */
+   public boolean addAll(Iterable<? extends T> values) {
+      Comparable[] incoming;
+      int count = 0;
+      if (values instanceof Collection) {
+         incoming = ((Collection<? extends T>) values).toArray(new Comparable[0]);
+         count = incoming.length;
+      }
+      else {
+         incoming = new Comparable[16];
+         for (T value : values) {
+            if (count == incoming.length) {
+               incoming = Arrays.copyOf(incoming, count * 2);
+            }
+            incoming[count] = value;
+            count++;
          }
-         
-         i++;
       }
-            
-      return false;
+      return bulkAdd(incoming, count);
    }
 
    /**
@@ -138,33 +279,116 @@ public class ArraySet<T extends Comparable<? super T>> implements Set<T> {
     */
    @Override
    public boolean remove(T element) {
-      if (isEmpty()) {
-         return false;
-      }
-      
-      if (locate(element) == -1) {
+      if (isEmpty() || element == null) {
          return false;
       }
       
       int search = locate(element);
-      
-      while (search <= size() && !((search + 1) > size())) {
-         elements[search] = elements[search + 1];
-         search++;
+      if (search == -1) {
+         return false;
       }
       
+      modCount++;
+      unshare();
+      fingerprint -= Set.fingerprintOf(elements[search].hashCode());
+      System.arraycopy(elements, search + 1, elements, search, size - search - 1);
       elements[size - 1] = null;
       size--;
       
-      if (size() < elements.length * .25) {
-         T[] temp = (T[]) new Comparable[(elements.length / 2)];
-         System.arraycopy(elements, 0, temp, 0, (elements.length / 2));
-         elements = temp;
+      int capacity = policy.shrink(elements.length, size);
+      if (capacity < elements.length) {
+         elements = Arrays.copyOf(elements, Math.max(Math.max(1, size), capacity));
       }
       
       return true;
    }
 
+   /**
+    * Ensures the backing array can hold at least minCapacity elements
+    * without growing again.
+    *
+    * @param  minCapacity  the desired minimum capacity
+    */
+   public void ensureCapacity(int minCapacity) {
+      if (minCapacity > elements.length) {
+         elements = Arrays.copyOf(elements, minCapacity);
+      }
+   }
+
+   /**
+    * Shrinks the backing array so its capacity is exactly the
+    * current size of this set (but never less than one).
+    */
+   public void trimToSize() {
+      if (elements.length > Math.max(1, size)) {
+         elements = Arrays.copyOf(elements, Math.max(1, size));
+      }
+   }
+
+   /**
+    * Returns an immutable set holding the elements this set holds now.
+    * The backing array is trimmed and then shared with the frozen set
+    * rather than copied; the next change to this set copies the array
+    * before writing, so the frozen set never sees it.
+    *
+    * @return  a frozen copy of this set
+    */
+   public FrozenArraySet<T> freeze() {
+      trimToSize();
+      shared = true;
+      return new FrozenArraySet<T>(elements, size, comparator, fingerprint);
+   }
+
+   /**
+    * Sets the policy this set uses to grow and shrink its backing array.
+    *
+    * @param  policy  the capacity policy to use from now on
+    */
+   public void setCapacityPolicy(CapacityPolicy policy) {
+      if (policy == null) {
+         throw new IllegalArgumentException();
+      }
+      this.policy = policy;
+   }
+
+   /**
+    * Decides how the backing array of an ArraySet grows and shrinks.
+    * Leaving a gap between the fill level that triggers growth and the
+    * fill level that triggers shrinking keeps a set whose size swings
+    * back and forth across one boundary from reallocating every time.
+    */
+   public interface CapacityPolicy {
+   
+      /**
+       * Returns the new capacity for a full array that must hold at
+       * least required elements. Must be at least required.
+       */
+      int grow(int capacity, int required);
+   
+      /**
+       * Returns the capacity to shrink to after a removal leaves size
+       * elements, or capacity itself to keep the current array.
+       */
+      int shrink(int capacity, int size);
+   }
+
+   /**
+    * The default capacity policy: grow by doubling, and halve only once
+    * the array falls below a quarter full. After either change the
+    * array is at most half full, so it takes a swing of at least a
+    * quarter of the capacity to trigger the next one.
+    */
+   public static final CapacityPolicy DEFAULT_POLICY =
+      new CapacityPolicy() {
+         public int grow(int capacity, int required) {
+            return Math.max(required, capacity * 2);
+         }
+      
+         public int shrink(int capacity, int size) {
+            return (size < capacity / 4) ? capacity / 2 : capacity;
+         }
+      };
+
    /**
     * Searches for specified element in this collection.
     *
@@ -189,190 +413,274 @@ public class ArraySet<T extends Comparable<? super T>> implements Set<T> {
    /**
     * Tests for equality between this set and the parameter set.
     * Returns true if this set contains exactly the same elements
-    * as the parameter set, regardless of order.
+    * as the parameter set, regardless of order. Sets whose sizes
+    * differ are rejected at once, and so are sets whose fingerprints
+    * differ when fingerprintsDecide says that is safe.
     *
     * @return  true if this set contains exactly the same elements
     *               as the parameter set, false otherwise
     */
    @Override
    public boolean equals(Set<T> s) {
-      if (size() != s.size()) {
+      if (size() != s.size() || (fingerprintsDecide() && fingerprint != s.fingerprint())) {
          return false;
       }
       
-      int counter = 0;
-      Iterator<T> search = s.iterator();
-      while (search.hasNext()) {
-         T temp = search.next();
-         if (contains(temp)) {
-            counter++;
-         }
+      Slice<T> other = sliceOf(s);
+      if (other != null && sameOrder(comparator, other.comparator)) {
+         return sameElements(whole(), other);
       }
-      if (counter == size()) {
-         return true;
+      for (T element : s) {
+         if (!contains(element)) {
+            return false;
+         }
       }
-      
       return true;
    }
 
    /**
     * Tests for equality between this set and the parameter set.
     * Returns true if this set contains exactly the same elements
-    * as the parameter set, regardless of order.
+    * as the parameter set, regardless of order. Sets whose sizes
+    * differ, or whose fingerprints differ when fingerprintsDecide
+    * says that is safe, are rejected at once; otherwise the two
+    * sorted arrays are compared in a single pass.
     *
     * @return  true if this set contains exactly the same elements
     *               as the parameter set, false otherwise
     */
    public boolean equals(ArraySet<T> s) {
-      if (size() != s.size()) {
+      if (size != s.size || (fingerprintsDecide() && fingerprint != s.fingerprint)) {
          return false;
       }
-      
-      int counter = 0;
-      Iterator<T> search = s.iterator();
-      while (search.hasNext()) {
-         T temp = search.next();
-         if (contains(temp)) {
-            counter++;
-         }
-      }
-      if (counter == size()) {
-         return true;
+      if (!sameOrder(comparator, s.comparator)) {
+         return equals((Set<T>) s);
       }
-      
-      return true;
+      return sameElements(whole(), s.whole());
+   }
+
+   /**
+    * Tests whether a set whose fingerprint differs from this set's
+    * can be rejected as unequal. Fingerprints are built from hashCode
+    * but membership is decided by the order of this set, and the two
+    * only agree when that order is the natural ordering of a class
+    * whose compareTo is consistent with equals. A case-insensitive
+    * comparator, or BigDecimal, where 1.0 and 1.00 compare equal but
+    * hash differently, would otherwise make equal sets unequal.
+    */
+   private boolean fingerprintsDecide() {
+      return comparator == null && size > 0 && hashConsistent(elements[0]);
+   }
+
+   /**
+    * Returns the fingerprint of this set, which is kept up to date by
+    * add and remove rather than recomputed.
+    *
+    * @return  the fingerprint of this set
+    */
+   @Override
+   public long fingerprint() {
+      return fingerprint;
    }
 
    /**
     * Returns a set that is the union of this set and the parameter set.
+    * ArraySets and their range views are merged in a single linear
+    * pass.
     *
     * @return  a set that contains all the elements of this set and
     *            the parameter set
     */
    @Override
    public Set<T> union(Set<T> s) {
-      ArraySet<T> union = new ArraySet<T>();
-      
-      for (int i = 0; i < size(); i++) {
-         union.add(elements[i]);
-      }
-      
-      Iterator<T> search = s.iterator();
-      
-      while (search.hasNext()) {
-         union.add(search.next());
-      }
-      
-      return union;
+      return union(whole(), s);
    }
 
    /**
     * Returns a set that is the union of this set and the parameter set.
+    * When both sets share a comparator, the sorted arrays are merged
+    * in a single linear pass.
     *
     * @return  a set that contains all the elements of this set and
     *            the parameter set
     */
    public Set<T> union(ArraySet<T> s) {
-      ArraySet<T> union = new ArraySet<T>();
-      
-      for (int i = 0; i < size(); i++) {
-         union.add(elements[i]);
-      }
-      
-      Iterator<T> search = s.iterator();
-      
-      while (search.hasNext()) {
-         union.add(search.next());
-      }
-      
-      return union;
+      return union(whole(), (Set<T>) s);
    }
 
 
    /**
     * Returns a set that is the intersection of this set
-    * and the parameter set.
+    * and the parameter set. ArraySets and their range views are
+    * handled as in intersection(ArraySet).
     *
     * @return  a set that contains elements that are in both
     *            this set and the parameter set
     */
    @Override
    public Set<T> intersection(Set<T> s) {
-      ArraySet<T> intersect = new ArraySet<T>();
-      
-      Iterator<T> search = s.iterator();
-      
-      while (search.hasNext()) {
-         T temp = search.next();
-         if (contains(temp)) {
-            intersect.add(temp);
-         }
-      }
-      
-      return intersect;
+      return intersection(whole(), s);
    }
 
    /**
     * Returns a set that is the intersection of this set and
-    * the parameter set.
+    * the parameter set. Sets of similar size that share a comparator
+    * are merged in a single linear pass. When one set is at least GALLOP_RATIO times larger
+    * than the other, each element of the smaller set is found in the
+    * larger one by exponential search from the previous match instead.
     *
     * @return  a set that contains elements that are in both
     *            this set and the parameter set
     */
    public Set<T> intersection(ArraySet<T> s) {
-      ArraySet<T> intersect = new ArraySet<T>();
-      
-      Iterator<T> search = s.iterator();
-      
-      while (search.hasNext()) {
-         T temp = search.next();
-         if (contains(temp)) {
-            intersect.add(temp);
-         }
-      }
-      
-      return intersect;
+      return intersection(whole(), (Set<T>) s);
    }
 
    /**
     * Returns a set that is the complement of this set and
-    * the parameter set.
+    * the parameter set. ArraySets and their range views are merged
+    * in a single linear pass.
     *
     * @return  a set that contains elements that are in this
     *            set but not the parameter set
     */
    @Override
    public Set<T> complement(Set<T> s) {
-      ArraySet<T> complemenT = new ArraySet<T>();
-      
-      for (int i = 0; i < size(); i++) {
-         T temp = elements[i];
-         if (!s.contains(temp)) {
-            complemenT.add(temp);
-         }
-      }
-      
-      return complemenT;
+      return complement(whole(), s);
    }
 
    /**
     * Returns a set that is the complement of this set and
-    * the parameter set.
+    * the parameter set. When both sets share a comparator, the sorted
+    * arrays are merged in a single linear pass.
     *
     * @return  a set that contains elements that are in this
     *            set but not the parameter set
     */
    public Set<T> complement(ArraySet<T> s) {
-      ArraySet<T> complemenT = new ArraySet<T>();
-      
-      for (int i = 0; i < size(); i++) {
-         T temp = elements[i];
-         if (!s.contains(temp)) {
-            complemenT.add(temp);
-         }
+      return complement(whole(), (Set<T>) s);
+   }
+
+   /**
+    * Returns the greatest element in this set less than or equal to
+    * the given element, or null if there is no such element.
+    *
+    * @param   element  the value to match
+    * @return  the greatest element <= element, or null
+    */
+   public T floor(T element) {
+      int i = higherIndex(element) - 1;
+      return (i >= 0) ? elements[i] : null;
+   }
+
+   /**
+    * Returns the least element in this set greater than or equal to
+    * the given element, or null if there is no such element.
+    *
+    * @param   element  the value to match
+    * @return  the least element >= element, or null
+    */
+   public T ceiling(T element) {
+      int i = ceilingIndex(element);
+      return (i < size) ? elements[i] : null;
+   }
+
+   /**
+    * Returns the greatest element in this set strictly less than the
+    * given element, or null if there is no such element.
+    *
+    * @param   element  the value to match
+    * @return  the greatest element < element, or null
+    */
+   public T lower(T element) {
+      int i = ceilingIndex(element) - 1;
+      return (i >= 0) ? elements[i] : null;
+   }
+
+   /**
+    * Returns the least element in this set strictly greater than the
+    * given element, or null if there is no such element.
+    *
+    * @param   element  the value to match
+    * @return  the least element > element, or null
+    */
+   public T higher(T element) {
+      int i = higherIndex(element);
+      return (i < size) ? elements[i] : null;
+   }
+
+   /**
+    * Returns the number of elements in this set that are strictly
+    * less than the given element. The element does not have to be
+    * in the set.
+    *
+    * @param   element  the value to rank
+    * @return  the number of elements < element
+    */
+   public int rank(T element) {
+      return ceilingIndex(element);
+   }
+
+   /**
+    * Returns the element of the given rank, that is, the element with
+    * exactly k smaller elements in this set. This method throws an
+    * IllegalArgumentException if k < 0 or k >= size().
+    *
+    * @param   k  the rank of the element to return
+    * @return  the element of rank k
+    */
+   public T select(int k) {
+      if (k < 0 || k >= size) {
+         throw new IllegalArgumentException();
       }
-      
-      return complemenT;
+      return elements[k];
+   }
+
+   /**
+    * Returns a view of the elements of this set from fromElement,
+    * inclusive, to toElement, exclusive. The view shares this set's
+    * array, so it costs nothing to create and always reflects the
+    * current contents of this set. Adding an element outside the
+    * range through the view throws an IllegalArgumentException.
+    *
+    * @param   fromElement  the low endpoint (inclusive) of the view
+    * @param   toElement    the high endpoint (exclusive) of the view
+    * @return  a view of the elements in [fromElement..toElement)
+    */
+   public Set<T> subSet(T fromElement, T toElement) {
+      if (fromElement == null || toElement == null
+            || compare(comparator, fromElement, toElement) > 0) {
+         throw new IllegalArgumentException();
+      }
+      return new RangeView(fromElement, toElement);
+   }
+
+   /**
+    * Returns a view of the elements of this set strictly less than
+    * toElement. See subSet.
+    *
+    * @param   toElement  the high endpoint (exclusive) of the view
+    * @return  a view of the elements less than toElement
+    */
+   public Set<T> headSet(T toElement) {
+      if (toElement == null) {
+         throw new IllegalArgumentException();
+      }
+      return new RangeView(null, toElement);
+   }
+
+   /**
+    * Returns a view of the elements of this set greater than or equal
+    * to fromElement. See subSet.
+    *
+    * @param   fromElement  the low endpoint (inclusive) of the view
+    * @return  a view of the elements greater than or equal to fromElement
+    */
+   public Set<T> tailSet(T fromElement) {
+      if (fromElement == null) {
+         throw new IllegalArgumentException();
+      }
+      return new RangeView(fromElement, null);
    }
 
 
@@ -390,33 +698,105 @@ public class ArraySet<T extends Comparable<? super T>> implements Set<T> {
       // HINT: JUST USE THE SAME CODE/STRATEGY AS THE ARRAYBAG CLASS
       // FROM LECTURE. THE ONLY DIFFERENCE IS THAT YOU'LL NEED THE
       // ARRAYITERATOR CLASS TO BE NESTED, NOT TOP-LEVEL.
-      return new ArrayIterator(elements, size);
+      return new ArrayIterator();
    }
    
-   private class ArrayIterator<T> implements Iterator<T> {
-      private T[] items;
-      private int counter;
+   /**
+   * Iterates over the live array. Any add or remove made after the
+   * iterator was created, other than through the iterator, makes the
+   * next call to next or forEachRemaining throw
+   * ConcurrentModificationException.
+   */
+   private class ArrayIterator implements Iterator<T> {
       private int current;
+      private int expectedModCount;
       
-      public ArrayIterator(T[] elements, int size) {
-         items = elements;
-         counter = size;
+      public ArrayIterator() {
          current = 0;
+         expectedModCount = modCount;
       }
       
       @Override public boolean hasNext() {
-         return ( current < counter);
+         return ( current < size);
       }
       
       @Override public T next() {
+         if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+         }
          if (!hasNext()) {
             throw new NoSuchElementException();
          }
-         T end = items[current];
+         T end = elements[current];
          current ++;
          return end;
       }
       
+      @Override public void forEachRemaining(Consumer<? super T> action) {
+         T[] items = elements;
+         int end = size;
+         int i = current;
+         for (; i < end && modCount == expectedModCount; i++) {
+            action.accept(items[i]);
+         }
+         current = i;
+         if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+         }
+      }
+      
+      @Override public void remove() {
+         throw new UnsupportedOperationException();
+      }
+   }
+
+   /**
+    * Returns an iterator over the elements this ArraySet holds now, in
+    * ascending order. Later changes to the set are not seen and do not
+    * disturb the iterator. Creating it costs O(1); the first change to
+    * the set after that copies the backing array once.
+    *
+    * @return  an iterator over a snapshot of this ArraySet
+    */
+   public Iterator<T> snapshotIterator() {
+      shared = true;
+      return new SnapshotIterator(elements, size);
+   }
+   
+   /**
+   * Iterates over an array that the set no longer writes into.
+   */
+   private final class SnapshotIterator implements Iterator<T> {
+      private final T[] items;
+      private final int end;
+      private int current;
+      
+      SnapshotIterator(T[] items, int end) {
+         this.items = items;
+         this.end = end;
+      }
+      
+      @Override public boolean hasNext() {
+         return current < end;
+      }
+      
+      @Override public T next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         T element = items[current];
+         current++;
+         return element;
+      }
+      
+      @Override public void forEachRemaining(Consumer<? super T> action) {
+         int i = current;
+         current = end;
+         for (; i < end; i++) {
+            action.accept(items[i]);
+         }
+      }
+      
       @Override public void remove() {
          throw new UnsupportedOperationException();
       }
@@ -424,23 +804,45 @@ public class ArraySet<T extends Comparable<? super T>> implements Set<T> {
 
    /**
     * Returns an iterator over the elements in this ArraySet.
-    * The elements are returned in descending order.
+    * The elements are returned in descending order. Like iterator(),
+    * it reads the live array and is fail-fast.
     *
     * @return  an iterator over the elements in this ArraySet
     */
    public Iterator<T> descendingIterator() {
       Iterator<T> bIter = 
          new Iterator<T>() {
-            private int count = size();
+            private int count = size;
+            private final int expectedModCount = modCount;
          
             @Override
             public boolean hasNext() {
-               return count > 0 && elements[count] != null;
+               return count > 0;
             }
          
             @Override
             public T next() {
-               return elements[count - 1];
+               if (modCount != expectedModCount) {
+                  throw new ConcurrentModificationException();
+               }
+               if (!hasNext()) {
+                  throw new NoSuchElementException();
+               }
+               count--;
+               return elements[count];
+            }
+         
+            @Override
+            public void forEachRemaining(Consumer<? super T> action) {
+               T[] items = elements;
+               int i = count;
+               for (; i > 0 && modCount == expectedModCount; i--) {
+                  action.accept(items[i - 1]);
+               }
+               count = i;
+               if (modCount != expectedModCount) {
+                  throw new ConcurrentModificationException();
+               }
             }
          
             @Override
@@ -453,27 +855,1131 @@ public class ArraySet<T extends Comparable<? super T>> implements Set<T> {
    }
 
    /**
-    * Returns an iterator over the members of the power set
-    * of this ArraySet. No specific order can be assumed.
+    * Returns a spliterator over the elements in this ArraySet in
+    * ascending order. It runs over the backing array without copying,
+    * splits it by index ranges and reports SIZED, SUBSIZED, ORDERED,
+    * DISTINCT, SORTED and NONNULL, so stream() and parallelStream()
+    * run at array speed.
     *
-    * @return  an iterator over members of the power set
+    * @return  a spliterator over this ArraySet
     */
-   public Iterator<Set<T>> powerSetIterator() {
-      return null;
+   @Override
+   public Spliterator<T> spliterator() {
+      return new ArraySpliterator(0, size, false);
    }
-   
-   
+
    /**
-   * Private method make sure all spaces are filled.
-   */
-   private boolean isFull() {
-      return size == elements.length;
+    * Returns a spliterator over the elements in this ArraySet in
+    * descending order. It runs over the backing array without copying
+    * and splits it by index ranges.
+    *
+    * @return  a descending spliterator over this ArraySet
+    */
+   public Spliterator<T> descendingSpliterator() {
+      return new ArraySpliterator(0, size, true);
+   }
+
+   /**
+    * Returns a sequential stream over the elements in this ArraySet in
+    * descending order. Call parallel() on it to split the work across
+    * the common fork-join pool.
+    *
+    * @return  a descending stream over this ArraySet
+    */
+   public Stream<T> descendingStream() {
+      return StreamSupport.stream(descendingSpliterator(), false);
+   }
+
+   /**
+   * Traverses elements[lo, hi) in ascending or descending order. A split
+   * hands the first half in encounter order to the new spliterator.
+   * Changes to the set during traversal throw
+   * ConcurrentModificationException once the traversal ends.
+   */
+   private final class ArraySpliterator implements Spliterator<T> {
+      private final T[] items;
+      private int lo;
+      private int hi;
+      private final boolean descending;
+      private final int expectedModCount;
+   
+      ArraySpliterator(int lo, int hi, boolean descending) {
+         this(elements, lo, hi, descending, modCount);
+      }
+   
+      private ArraySpliterator(T[] items, int lo, int hi, boolean descending,
+            int expectedModCount) {
+         this.items = items;
+         this.lo = lo;
+         this.hi = hi;
+         this.descending = descending;
+         this.expectedModCount = expectedModCount;
+      }
+   
+      @Override
+      public boolean tryAdvance(Consumer<? super T> action) {
+         if (lo >= hi) {
+            return false;
+         }
+         T element;
+         if (descending) {
+            hi--;
+            element = items[hi];
+         }
+         else {
+            element = items[lo];
+            lo++;
+         }
+         action.accept(element);
+         if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+         }
+         return true;
+      }
+   
+      @Override
+      public void forEachRemaining(Consumer<? super T> action) {
+         int from = lo;
+         int to = hi;
+         lo = hi;
+         if (descending) {
+            for (int i = to - 1; i >= from; i--) {
+               action.accept(items[i]);
+            }
+         }
+         else {
+            for (int i = from; i < to; i++) {
+               action.accept(items[i]);
+            }
+         }
+         if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+         }
+      }
+   
+      @Override
+      public Spliterator<T> trySplit() {
+         int mid = (lo + hi) >>> 1;
+         if (mid <= lo) {
+            return null;
+         }
+         Spliterator<T> prefix;
+         if (descending) {
+            prefix = new ArraySpliterator(items, mid, hi, true, expectedModCount);
+            hi = mid;
+         }
+         else {
+            prefix = new ArraySpliterator(items, lo, mid, false, expectedModCount);
+            lo = mid;
+         }
+         return prefix;
+      }
+   
+      @Override
+      public long estimateSize() {
+         return hi - lo;
+      }
+   
+      @Override
+      public int characteristics() {
+         return ORDERED | DISTINCT | SORTED | SIZED | SUBSIZED | NONNULL;
+      }
+   
+      @Override
+      public Comparator<? super T> getComparator() {
+         return descending ? Collections.reverseOrder(comparator) : comparator;
+      }
+   }
+
+   /**
+    * Returns an iterator over the members of the power set
+    * of this ArraySet. Subsets are produced lazily in Gray-code
+    * order, so each subset differs from the one before it by exactly
+    * one element. Each subset is a read-only view over a single copy
+    * of this set's elements and a 64-bit membership mask, so no
+    * element array is built per subset. Later changes to this set
+    * are not reflected in the subsets.
+    *
+    * @return  an iterator over members of the power set
+    * @throws  IllegalStateException if this set has more than
+    *            MAX_POWER_SET_SIZE elements
+    */
+   public Iterator<Set<T>> powerSetIterator() {
+      final T[] items = powerSetItems();
+      final long total = 1L << items.length;
+      return
+         new Iterator<Set<T>>() {
+            private long index = 0;
+         
+            @Override
+            public boolean hasNext() {
+               return index < total;
+            }
+         
+            @Override
+            public Set<T> next() {
+               if (!hasNext()) {
+                  throw new NoSuchElementException();
+               }
+               Set<T> subset = new Subset<T>(items, comparator, gray(index));
+               index++;
+               return subset;
+            }
+         
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+   }
+
+   /**
+    * Returns a Spliterator over the members of the power set of this
+    * ArraySet, in the same Gray-code order as powerSetIterator.
+    * The Spliterator splits its range of subset numbers in half, so
+    * a large power set can be consumed in parallel through
+    * StreamSupport.stream(powerSetSpliterator(), true).
+    *
+    * @return  a Spliterator over members of the power set
+    * @throws  IllegalStateException if this set has more than
+    *            MAX_POWER_SET_SIZE elements
+    */
+   public Spliterator<Set<T>> powerSetSpliterator() {
+      T[] items = powerSetItems();
+      return new PowerSetSpliterator<T>(items, comparator, 0, 1L << items.length);
+   }
+
+   /**
+    * Passes every member of the power set of this ArraySet to visitor,
+    * splitting the 2^n subsets into ranges that run in parallel on the
+    * common ForkJoinPool. Each worker reuses one subset view whose
+    * mask it advances, so no object is allocated per subset. The
+    * visitor must therefore be thread-safe and must not keep a
+    * reference to the subset it is given. No order can be assumed.
+    *
+    * @param  visitor  the action to apply to each subset
+    * @throws IllegalStateException if this set has more than
+    *           MAX_POWER_SET_SIZE elements
+    */
+   public void forEachSubset(final Consumer<? super Set<T>> visitor) {
+      reduceSubsets(ForkJoinPool.commonPool(), null,
+         new BiFunction<Object, Set<T>, Object>() {
+            public Object apply(Object ignored, Set<T> subset) {
+               visitor.accept(subset);
+               return null;
+            }
+         },
+         new BinaryOperator<Object>() {
+            public Object apply(Object left, Object right) {
+               return null;
+            }
+         });
+   }
+
+   /**
+    * Folds every member of the power set of this ArraySet into a single
+    * result in parallel on the common ForkJoinPool. Each range of
+    * subsets starts from identity and is folded with accumulator, and
+    * the results of neighbouring ranges are joined with combiner. The
+    * same rules about reused subset views apply as in forEachSubset.
+    *
+    * @param  identity     the starting value of every range
+    * @param  accumulator  folds one subset into a partial result
+    * @param  combiner     joins two partial results
+    * @return the combined result over all 2^n subsets
+    * @throws IllegalStateException if this set has more than
+    *           MAX_POWER_SET_SIZE elements
+    */
+   public <R> R reduceSubsets(R identity, BiFunction<R, ? super Set<T>, R> accumulator,
+         BinaryOperator<R> combiner) {
+      return reduceSubsets(ForkJoinPool.commonPool(), identity, accumulator, combiner);
+   }
+
+   /**
+    * Folds every member of the power set of this ArraySet into a single
+    * result in parallel on the given pool. See reduceSubsets above.
+    *
+    * @param  pool         the pool to run on
+    * @param  identity     the starting value of every range
+    * @param  accumulator  folds one subset into a partial result
+    * @param  combiner     joins two partial results
+    * @return the combined result over all 2^n subsets
+    */
+   public <R> R reduceSubsets(ForkJoinPool pool, R identity,
+         BiFunction<R, ? super Set<T>, R> accumulator, BinaryOperator<R> combiner) {
+      T[] items = powerSetItems();
+      return pool.invoke(new SubsetTask<T, R>(items, comparator, 0, 1L << items.length,
+         identity, accumulator, combiner));
+   }
+
+   /**
+   * Folds the subsets whose masks are in [lo..hi), splitting the range
+   * in half until it is at most SUBSET_TASK_SIZE long.
+   */
+   private static final class SubsetTask<E extends Comparable<? super E>, R>
+         extends RecursiveTask<R> {
+      private static final long serialVersionUID = 1L;
+
+      private final E[] items;
+      private final Comparator<? super E> comparator;
+      private final long lo;
+      private final long hi;
+      private final R identity;
+      private final BiFunction<R, ? super Set<E>, R> accumulator;
+      private final BinaryOperator<R> combiner;
+   
+      SubsetTask(E[] items, Comparator<? super E> comparator, long lo, long hi, R identity,
+            BiFunction<R, ? super Set<E>, R> accumulator, BinaryOperator<R> combiner) {
+         this.items = items;
+         this.comparator = comparator;
+         this.lo = lo;
+         this.hi = hi;
+         this.identity = identity;
+         this.accumulator = accumulator;
+         this.combiner = combiner;
+      }
+   
+      @Override
+      protected R compute() {
+         if (hi - lo <= SUBSET_TASK_SIZE) {
+            Subset<E> subset = new Subset<E>(items, comparator, lo);
+            R result = identity;
+            for (long mask = lo; mask < hi; mask++) {
+               subset.mask = mask;
+               result = accumulator.apply(result, subset);
+            }
+            return result;
+         }
+         long mid = (lo + hi) >>> 1;
+         SubsetTask<E, R> left = new SubsetTask<E, R>(items, comparator, lo, mid,
+            identity, accumulator, combiner);
+         SubsetTask<E, R> right = new SubsetTask<E, R>(items, comparator, mid, hi,
+            identity, accumulator, combiner);
+         left.fork();
+         R rightResult = right.compute();
+         return combiner.apply(left.join(), rightResult);
+      }
+   }
+
+   /**
+   * Returns a trimmed copy of the elements for power set enumeration.
+   */
+   private T[] powerSetItems() {
+      if (size > MAX_POWER_SET_SIZE) {
+         throw new IllegalStateException();
+      }
+      return Arrays.copyOf(elements, size);
+   }
+
+   /**
+   * Returns the ith Gray code, which differs from the (i-1)th in one bit.
+   */
+   static long gray(long i) {
+      return i ^ (i >>> 1);
+   }
+
+   /**
+   * Splits the Gray-code subset numbers [index..end) for parallel use.
+   */
+   private static final class PowerSetSpliterator<E extends Comparable<? super E>>
+         implements Spliterator<Set<E>> {
+      private final E[] items;
+      private final Comparator<? super E> comparator;
+      private long index;
+      private final long end;
+   
+      PowerSetSpliterator(E[] items, Comparator<? super E> comparator, long index, long end) {
+         this.items = items;
+         this.comparator = comparator;
+         this.index = index;
+         this.end = end;
+      }
+   
+      @Override
+      public boolean tryAdvance(Consumer<? super Set<E>> action) {
+         if (index >= end) {
+            return false;
+         }
+         action.accept(new Subset<E>(items, comparator, gray(index)));
+         index++;
+         return true;
+      }
+   
+      @Override
+      public void forEachRemaining(Consumer<? super Set<E>> action) {
+         long i = index;
+         index = end;
+         for (; i < end; i++) {
+            action.accept(new Subset<E>(items, comparator, gray(i)));
+         }
+      }
+   
+      @Override
+      public Spliterator<Set<E>> trySplit() {
+         long mid = (index + end) >>> 1;
+         if (mid <= index) {
+            return null;
+         }
+         Spliterator<Set<E>> prefix = new PowerSetSpliterator<E>(items, comparator, index, mid);
+         index = mid;
+         return prefix;
+      }
+   
+      @Override
+      public long estimateSize() {
+         return end - index;
+      }
+   
+      @Override
+      public int characteristics() {
+         return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+      }
+   }
+
+   /**
+   * A read-only subset of a fixed, sorted array of at most 64 elements.
+   * Bit i of mask is set when items[i] is a member. Set algebra between
+   * subsets of the same array is done on the masks.
+   */
+   static final class Subset<E extends Comparable<? super E>> implements Set<E> {
+      final E[] items;
+      final Comparator<? super E> comparator;
+      long mask;
+   
+      Subset(E[] items, Comparator<? super E> comparator, long mask) {
+         this.items = items;
+         this.comparator = comparator;
+         this.mask = mask;
+      }
+   
+      @Override
+      public boolean add(E element) {
+         throw new UnsupportedOperationException();
+      }
+   
+      @Override
+      public boolean remove(E element) {
+         throw new UnsupportedOperationException();
+      }
+   
+      @Override
+      public boolean contains(E element) {
+         if (element == null) {
+            return false;
+         }
+         int i = Arrays.binarySearch(items, element, comparator);
+         return i >= 0 && (mask & (1L << i)) != 0;
+      }
+   
+      @Override
+      public int size() {
+         return Long.bitCount(mask);
+      }
+   
+      @Override
+      public boolean isEmpty() {
+         return mask == 0;
+      }
+   
+      @Override
+      public boolean equals(Set<E> s) {
+         if (s instanceof Subset && ((Subset<E>) s).items == items) {
+            return ((Subset<E>) s).mask == mask;
+         }
+         return toArraySet().equals(s);
+      }
+   
+      @Override
+      public Set<E> union(Set<E> s) {
+         if (s instanceof Subset && ((Subset<E>) s).items == items) {
+            return new Subset<E>(items, comparator, mask | ((Subset<E>) s).mask);
+         }
+         return toArraySet().union(s);
+      }
+   
+      @Override
+      public Set<E> intersection(Set<E> s) {
+         if (s instanceof Subset && ((Subset<E>) s).items == items) {
+            return new Subset<E>(items, comparator, mask & ((Subset<E>) s).mask);
+         }
+         return toArraySet().intersection(s);
+      }
+   
+      @Override
+      public Set<E> complement(Set<E> s) {
+         if (s instanceof Subset && ((Subset<E>) s).items == items) {
+            return new Subset<E>(items, comparator, mask & ~((Subset<E>) s).mask);
+         }
+         return toArraySet().complement(s);
+      }
+   
+      @Override
+      public Iterator<E> iterator() {
+         final long bits = mask;
+         return
+            new Iterator<E>() {
+               private long remaining = bits;
+            
+               @Override
+               public boolean hasNext() {
+                  return remaining != 0;
+               }
+            
+               @Override
+               public E next() {
+                  if (remaining == 0) {
+                     throw new NoSuchElementException();
+                  }
+                  E element = items[Long.numberOfTrailingZeros(remaining)];
+                  remaining &= remaining - 1;
+                  return element;
+               }
+            
+               @Override
+               public void remove() {
+                  throw new UnsupportedOperationException();
+               }
+            };
+      }
+   
+      /** Returns this subset copied into a new ArraySet. */
+      ArraySet<E> toArraySet() {
+         E[] result = newArray(size());
+         int k = 0;
+         for (long bits = mask; bits != 0; bits &= bits - 1) {
+            result[k] = items[Long.numberOfTrailingZeros(bits)];
+            k++;
+         }
+         return new ArraySet<E>(result, k, comparator);
+      }
+   
+      @Override
+      public String toString() {
+         StringBuilder result = new StringBuilder("[");
+         for (long bits = mask; bits != 0; bits &= bits - 1) {
+            result.append(items[Long.numberOfTrailingZeros(bits)]);
+            if ((bits & (bits - 1)) != 0) {
+               result.append(", ");
+            }
+         }
+         return result.append("]").toString();
+      }
+   }
+
+   /**
+   * Sorts, deduplicates and merges the first count values of incoming
+   * into this set. The incoming array is used as scratch space.
+   */
+   @SuppressWarnings("unchecked")
+   boolean bulkAdd(Comparable[] incoming, int count) {
+      int n = 0;
+      for (int i = 0; i < count; i++) {
+         if (incoming[i] != null) {
+            incoming[n] = incoming[i];
+            n++;
+         }
+      }
+      if (n == 0) {
+         return false;
+      }
+      T[] sorted = (T[]) incoming;
+      Arrays.sort(sorted, 0, n, comparator);
+      int distinct = 1;
+      for (int i = 1; i < n; i++) {
+         if (compare(comparator, sorted[i], sorted[distinct - 1]) != 0) {
+            incoming[distinct] = incoming[i];
+            distinct++;
+         }
+      }
+   
+      T[] result = newArray(size + distinct);
+      int k = unionInto(elements, 0, size, sorted, 0, distinct, result, comparator);
+      if (k == size) {
+         return false;
+      }
+      modCount++;
+      elements = result;
+      size = k;
+      fingerprint = fingerprintOf(result, k);
+      return true;
+   }
+
+   /**
+   * Returns the index of the first element >= element, or size.
+   */
+   private int ceilingIndex(T element) {
+      if (comparator != null) {
+         return ceilingIndex(element, comparator);
+      }
+      int min = 0;
+      int max = size;
+      while (min < max) {
+         int mid = (min + max) >>> 1;
+         if (elements[mid].compareTo(element) < 0) {
+            min = mid + 1;
+         }
+         else {
+            max = mid;
+         }
+      }
+      return min;
+   }
+
+   /**
+   * Returns the index of the first element >= element by comparator,
+   * or size. Kept apart from the natural-order loop, as locate is.
+   */
+   private int ceilingIndex(T element, Comparator<? super T> c) {
+      int min = 0;
+      int max = size;
+      while (min < max) {
+         int mid = (min + max) >>> 1;
+         if (c.compare(elements[mid], element) < 0) {
+            min = mid + 1;
+         }
+         else {
+            max = mid;
+         }
+      }
+      return min;
+   }
+
+   /**
+   * Returns the index of the first element > element, or size.
+   */
+   private int higherIndex(T element) {
+      if (comparator != null) {
+         return higherIndex(element, comparator);
+      }
+      int min = 0;
+      int max = size;
+      while (min < max) {
+         int mid = (min + max) >>> 1;
+         if (elements[mid].compareTo(element) <= 0) {
+            min = mid + 1;
+         }
+         else {
+            max = mid;
+         }
+      }
+      return min;
+   }
+
+   /**
+   * Returns the index of the first element > element by comparator,
+   * or size. Kept apart from the natural-order loop, as locate is.
+   */
+   private int higherIndex(T element, Comparator<? super T> c) {
+      int min = 0;
+      int max = size;
+      while (min < max) {
+         int mid = (min + max) >>> 1;
+         if (c.compare(elements[mid], element) <= 0) {
+            min = mid + 1;
+         }
+         else {
+            max = mid;
+         }
+      }
+      return min;
+   }
+
+   /**
+   * Returns the sum of the fingerprints of items[0..count).
+   */
+   private static long fingerprintOf(Object[] items, int count) {
+      long fingerprint = 0;
+      for (int i = 0; i < count; i++) {
+         fingerprint += Set.fingerprintOf(items[i].hashCode());
+      }
+      return fingerprint;
+   }
+
+   /**
+   * Tests whether two slices hold the same elements, in one pass.
+   */
+   private static <E extends Comparable<? super E>> boolean sameElements(Slice<E> a,
+         Slice<E> b) {
+      if (a.size() != b.size()) {
+         return false;
+      }
+      for (int i = a.lo, j = b.lo; i < a.hi; i++, j++) {
+         if (compare(a.comparator, a.items[i], b.items[j]) != 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+   * Returns all of this set as a slice.
+   */
+   private Slice<T> whole() {
+      return new Slice<T>(elements, 0, size, comparator);
+   }
+
+   /**
+   * Returns s as a slice if it is backed by a sorted array, or null.
+   */
+   @SuppressWarnings("unchecked")
+   static <E extends Comparable<? super E>> Slice<E> sliceOf(Set<E> s) {
+      if (s instanceof ArraySet) {
+         return ((ArraySet<E>) s).whole();
+      }
+      if (s instanceof ArraySet.RangeView) {
+         return ((ArraySet<E>.RangeView) s).slice();
+      }
+      return null;
+   }
+
+   /**
+   * Returns the union of a slice and any set.
+   */
+   private static <E extends Comparable<? super E>> ArraySet<E> union(Slice<E> a, Set<E> s) {
+      Slice<E> b = sliceOf(s);
+      if (b != null && sameOrder(a.comparator, b.comparator)) {
+         return union(a, b);
+      }
+      Comparable[] incoming = new Comparable[Math.max(16, s.size())];
+      int count = 0;
+      for (E element : s) {
+         if (count == incoming.length) {
+            incoming = Arrays.copyOf(incoming, count * 2);
+         }
+         incoming[count] = element;
+         count++;
+      }
+      ArraySet<E> union = new ArraySet<E>(Arrays.copyOfRange(a.items, a.lo, a.hi), a.size(),
+         a.comparator);
+      union.bulkAdd(incoming, count);
+      return union;
+   }
+
+   /**
+   * Returns the union of two slices.
+   */
+   private static <E extends Comparable<? super E>> ArraySet<E> union(Slice<E> a, Slice<E> b) {
+      E[] result = newArray(a.size() + b.size());
+      int count = unionInto(a.items, a.lo, a.hi, b.items, b.lo, b.hi, result, a.comparator);
+      return new ArraySet<E>(result, count, a.comparator);
+   }
+
+   /**
+   * Returns the intersection of a slice and any set.
+   */
+   private static <E extends Comparable<? super E>> ArraySet<E> intersection(Slice<E> a,
+         Set<E> s) {
+      Slice<E> b = sliceOf(s);
+      if (b != null && sameOrder(a.comparator, b.comparator)) {
+         return intersection(a, b);
+      }
+      E[] result = newArray(a.size());
+      int count = 0;
+      for (int i = a.lo; i < a.hi; i++) {
+         if (s.contains(a.items[i])) {
+            result[count] = a.items[i];
+            count++;
+         }
+      }
+      return new ArraySet<E>(result, count, a.comparator);
+   }
+
+   /**
+   * Returns the intersection of two slices, galloping when their
+   * sizes differ by GALLOP_RATIO or more.
+   */
+   private static <E extends Comparable<? super E>> ArraySet<E> intersection(Slice<E> a,
+         Slice<E> b) {
+      E[] result = newArray(Math.min(a.size(), b.size()));
+      int count;
+      if ((long) a.size() * GALLOP_RATIO <= b.size()) {
+         count = gallopInto(a.items, a.lo, a.hi, b.items, b.lo, b.hi, result, a.comparator);
+      }
+      else if ((long) b.size() * GALLOP_RATIO <= a.size()) {
+         count = gallopInto(b.items, b.lo, b.hi, a.items, a.lo, a.hi, result, a.comparator);
+      }
+      else {
+         count = intersectInto(a.items, a.lo, a.hi, b.items, b.lo, b.hi, result, a.comparator);
+      }
+      return new ArraySet<E>(result, count, a.comparator);
+   }
+
+   /**
+   * Returns the elements of a slice that are not in any set.
+   */
+   private static <E extends Comparable<? super E>> ArraySet<E> complement(Slice<E> a,
+         Set<E> s) {
+      Slice<E> b = sliceOf(s);
+      if (b != null && sameOrder(a.comparator, b.comparator)) {
+         return complement(a, b);
+      }
+      E[] result = newArray(a.size());
+      int count = 0;
+      for (int i = a.lo; i < a.hi; i++) {
+         if (!s.contains(a.items[i])) {
+            result[count] = a.items[i];
+            count++;
+         }
+      }
+      return new ArraySet<E>(result, count, a.comparator);
+   }
+
+   /**
+   * Returns the elements of slice a that are not in slice b.
+   */
+   private static <E extends Comparable<? super E>> ArraySet<E> complement(Slice<E> a,
+         Slice<E> b) {
+      E[] result = newArray(a.size());
+      int count = complementInto(a.items, a.lo, a.hi, b.items, b.lo, b.hi, result,
+         a.comparator);
+      return new ArraySet<E>(result, count, a.comparator);
+   }
+
+   /**
+   * A sorted, duplicate-free range items[lo..hi) of some backing array.
+   */
+   static final class Slice<E> {
+      final E[] items;
+      final int lo;
+      final int hi;
+      final Comparator<? super E> comparator;
+   
+      Slice(E[] items, int lo, int hi, Comparator<? super E> comparator) {
+         this.items = items;
+         this.lo = lo;
+         this.hi = hi;
+         this.comparator = comparator;
+      }
+   
+      int size() {
+         return hi - lo;
+      }
+   }
+
+   /**
+   * A live view of the elements of this set in [low..high). A null
+   * bound means the view is unbounded on that side. The index range
+   * is found by binary search on every call, so the view stays
+   * correct as this set changes.
+   */
+   private final class RangeView implements Set<T> {
+      private final T low;
+      private final T high;
+   
+      RangeView(T low, T high) {
+         this.low = low;
+         this.high = high;
+      }
+   
+      /** Returns the part of the parent array this view covers. */
+      Slice<T> slice() {
+         int lo = (low == null) ? 0 : ceilingIndex(low);
+         int hi = (high == null) ? size : ceilingIndex(high);
+         return new Slice<T>(elements, lo, Math.max(lo, hi), comparator);
+      }
+   
+      /** Tests whether element lies within the bounds of this view. */
+      private boolean inRange(T element) {
+         return (low == null || compare(comparator, element, low) >= 0)
+            && (high == null || compare(comparator, element, high) < 0);
+      }
+   
+      @Override
+      public boolean add(T element) {
+         if (element == null) {
+            return false;
+         }
+         if (!inRange(element)) {
+            throw new IllegalArgumentException();
+         }
+         return ArraySet.this.add(element);
+      }
+   
+      @Override
+      public boolean remove(T element) {
+         return element != null && inRange(element) && ArraySet.this.remove(element);
+      }
+   
+      @Override
+      public boolean contains(T element) {
+         return element != null && inRange(element) && ArraySet.this.contains(element);
+      }
+   
+      @Override
+      public int size() {
+         return slice().size();
+      }
+   
+      @Override
+      public boolean isEmpty() {
+         return size() == 0;
+      }
+   
+      @Override
+      public boolean equals(Set<T> s) {
+         if (size() != s.size()) {
+            return false;
+         }
+         for (T element : s) {
+            if (!contains(element)) {
+               return false;
+            }
+         }
+         return true;
+      }
+   
+      @Override
+      public Set<T> union(Set<T> s) {
+         return ArraySet.union(slice(), s);
+      }
+   
+      @Override
+      public Set<T> intersection(Set<T> s) {
+         return ArraySet.intersection(slice(), s);
+      }
+   
+      @Override
+      public Set<T> complement(Set<T> s) {
+         return ArraySet.complement(slice(), s);
+      }
+   
+      @Override
+      public Spliterator<T> spliterator() {
+         Slice<T> range = slice();
+         return new ArraySpliterator(range.lo, range.hi, false);
+      }
+   
+      @Override
+      public Iterator<T> iterator() {
+         final Slice<T> range = slice();
+         final int expectedModCount = modCount;
+         return
+            new Iterator<T>() {
+               private int current = range.lo;
+            
+               @Override
+               public boolean hasNext() {
+                  return current < range.hi;
+               }
+            
+               @Override
+               public T next() {
+                  if (modCount != expectedModCount) {
+                     throw new ConcurrentModificationException();
+                  }
+                  if (!hasNext()) {
+                     throw new NoSuchElementException();
+                  }
+                  T element = range.items[current];
+                  current++;
+                  return element;
+               }
+            
+               @Override
+               public void remove() {
+                  throw new UnsupportedOperationException();
+               }
+            };
+      }
+   
+      @Override
+      public String toString() {
+         if (isEmpty()) {
+            return "[]";
+         }
+         StringBuilder result = new StringBuilder();
+         result.append("[");
+         for (T element : this) {
+            result.append(element + ", ");
+         }
+         result.delete(result.length() - 2, result.length());
+         result.append("]");
+         return result.toString();
+      }
+   }
+
+   /**
+   * Compares x and y by c, or by their natural ordering if c is null.
+   */
+   static <E extends Comparable<? super E>> int compare(Comparator<? super E> c, E x, E y) {
+      return (c == null) ? x.compareTo(y) : c.compare(x, y);
+   }
+
+   /**
+   * Tests whether the natural ordering of element's class is known to
+   * be consistent with equals, so that elements that compare equal
+   * also have equal hash codes and so equal fingerprints.
+   */
+   static boolean hashConsistent(Object element) {
+      Class<?> c = element.getClass();
+      return c == Integer.class || c == Long.class || c == String.class
+         || c == Short.class || c == Byte.class || c == Character.class;
+   }
+
+   /**
+   * Tests whether two comparators define the same order, so that
+   * arrays sorted by one can be merged with arrays sorted by the other.
+   */
+   static boolean sameOrder(Comparator<?> a, Comparator<?> b) {
+      return (a == null) ? b == null : a.equals(b);
+   }
+
+   /**
+   * Returns a new backing array with room for at least one element.
+   */
+   @SuppressWarnings("unchecked")
+   static <E> E[] newArray(int capacity) {
+      return (E[]) new Comparable[Math.max(1, capacity)];
+   }
+
+   /**
+   * Merges the sorted ranges a[aLo..aHi) and b[bLo..bHi) into out,
+   * keeping one copy of common values. Returns the number written.
+   */
+   private static <E extends Comparable<? super E>> int unionInto(E[] a, int aLo,
+         int aHi, E[] b, int bLo, int bHi, E[] out,
+         Comparator<? super E> c) {
+      int i = aLo;
+      int j = bLo;
+      int k = 0;
+      while (i < aHi && j < bHi) {
+         int comp = compare(c, a[i], b[j]);
+         if (comp <= 0) {
+            out[k] = a[i];
+            i++;
+            if (comp == 0) {
+               j++;
+            }
+         }
+         else {
+            out[k] = b[j];
+            j++;
+         }
+         k++;
+      }
+      System.arraycopy(a, i, out, k, aHi - i);
+      k += aHi - i;
+      System.arraycopy(b, j, out, k, bHi - j);
+      k += bHi - j;
+      return k;
+   }
+
+   /**
+   * Writes the values common to the sorted ranges a[aLo..aHi) and
+   * b[bLo..bHi) into out. Returns the number written.
+   */
+   static <E extends Comparable<? super E>> int intersectInto(E[] a, int aLo,
+         int aHi, E[] b, int bLo, int bHi, E[] out,
+         Comparator<? super E> c) {
+      int i = aLo;
+      int j = bLo;
+      int k = 0;
+      while (i < aHi && j < bHi) {
+         int comp = compare(c, a[i], b[j]);
+         if (comp < 0) {
+            i++;
+         }
+         else if (comp > 0) {
+            j++;
+         }
+         else {
+            out[k] = a[i];
+            k++;
+            i++;
+            j++;
+         }
+      }
+      return k;
+   }
+
+   /**
+   * Writes the values common to the short sorted range small[sLo..sHi)
+   * and the long sorted range large[lLo..lHi) into out. Each value of
+   * small is located in large by doubling the step from the previous
+   * match and then binary searching the last step, so the cost is
+   * O(m log(n / m)) rather than O(n + m). Returns the number written.
+   */
+   static <E extends Comparable<? super E>> int gallopInto(E[] small, int sLo,
+         int sHi, E[] large, int lLo, int lHi, E[] out, Comparator<? super E> c) {
+      int k = 0;
+      int lo = lLo;
+      for (int i = sLo; i < sHi && lo < lHi; i++) {
+         E target = small[i];
+         int step = 1;
+         int hi = lo;
+         while (hi < lHi && compare(c, large[hi], target) < 0) {
+            lo = hi + 1;
+            // Clamped so that lo + step cannot overflow near Integer.MAX_VALUE.
+            hi = (step > lHi - lo) ? lHi : lo + step;
+            if (step <= (lHi - lLo) / 2) {
+               step = step * 2;
+            }
+         }
+         hi = Math.min(hi, lHi - 1);
+         while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int comp = compare(c, large[mid], target);
+            if (comp < 0) {
+               lo = mid + 1;
+            }
+            else if (comp > 0) {
+               hi = mid - 1;
+            }
+            else {
+               out[k] = target;
+               k++;
+               lo = mid + 1;
+               break;
+            }
+         }
+      }
+      return k;
+   }
+
+   /**
+   * Writes the values of the sorted range a[aLo..aHi) that are not in
+   * the sorted range b[bLo..bHi) into out. Returns the number written.
+   */
+   private static <E extends Comparable<? super E>> int complementInto(E[] a, int aLo,
+         int aHi, E[] b, int bLo, int bHi, E[] out,
+         Comparator<? super E> c) {
+      int i = aLo;
+      int j = bLo;
+      int k = 0;
+      while (i < aHi && j < bHi) {
+         int comp = compare(c, a[i], b[j]);
+         if (comp < 0) {
+            out[k] = a[i];
+            k++;
+            i++;
+         }
+         else if (comp > 0) {
+            j++;
+         }
+         else {
+            i++;
+            j++;
+         }
+      }
+      System.arraycopy(a, i, out, k, aHi - i);
+      k += aHi - i;
+      return k;
+   }
+
+   /**
+   * Private method make sure all spaces are filled.
+   */
+   private boolean isFull() {
+      return size == elements.length;
    }
 
    /**
    * Finds value and returns location.
    */
    private int locate(T element) {
+      if (comparator != null) {
+         return locate(element, comparator);
+      }
       int min = 0;
       int mid = 0;
       int max = size - 1;
@@ -501,23 +2007,49 @@ public class ArraySet<T extends Comparable<? super T>> implements Set<T> {
       return -1;*/
    }
    
+   /**
+   * Finds value by comparator and returns location. Kept apart from
+   * the natural-order loop so that each loop has one kind of call.
+   */
+   private int locate(T element, Comparator<? super T> c) {
+      int min = 0;
+      int max = size - 1;
+      while (min <= max) {
+         int mid = (min + max) >>> 1;
+         int comp = c.compare(elements[mid], element);
+         if (comp < 0) {
+            min = mid + 1;
+         }
+         else if (comp > 0) {
+            max = mid - 1;
+         }
+         else {
+            return mid;
+         }
+      }
+      return -1;
+   }
+   
    //Moves elements
    private void move(int number) {
-      int i = size();
-      while (i > number) {
-         elements[i] = elements[i - 1];
-         i--;
-      }
+      System.arraycopy(elements, number, elements, number + 1, size - number);
    }
    
    /**
    *Resizes the Array.
    */
-   private void resizer() {
-      T[] newArray = (T[]) (new Comparable[elements.length * 2]);
-      for (int i = 0; i < elements.length; i++) {
-         newArray[i] = elements[i];
+   private void resizer(int required) {
+      elements = Arrays.copyOf(elements, policy.grow(elements.length, required));
+      shared = false;
+   }
+   
+   /**
+   *Copies the array if a snapshot iterator may still be reading it.
+   */
+   private void unshare() {
+      if (shared) {
+         elements = elements.clone();
+         shared = false;
       }
-      elements = newArray;
    }
 }
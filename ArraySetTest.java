@@ -0,0 +1,921 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Provides JUnit test cases for the ArraySet class.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class ArraySetTest {
+
+   // Bulk loading: constructors and addAll.
+
+   @Test
+   public void testArrayConstructorSortsAndDeduplicates() {
+      Integer[] a = {5, 3, 5, 1, 3};
+      ArraySet<Integer> set = new ArraySet<Integer>(a);
+      assertEquals(3, set.size());
+      assertEquals("[1, 3, 5]", set.toString());
+   }
+
+   @Test
+   public void testArrayConstructorEmpty() {
+      ArraySet<Integer> set = new ArraySet<Integer>(new Integer[0]);
+      assertTrue(set.isEmpty());
+      assertEquals("[]", set.toString());
+   }
+
+   @Test
+   public void testArrayConstructorIgnoresNulls() {
+      Integer[] a = {null, 2, null, 1};
+      ArraySet<Integer> set = new ArraySet<Integer>(a);
+      assertEquals("[1, 2]", set.toString());
+   }
+
+   @Test
+   public void testArrayConstructorExtremes() {
+      Integer[] a = {Integer.MAX_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE};
+      ArraySet<Integer> set = new ArraySet<Integer>(a);
+      assertEquals("[" + Integer.MIN_VALUE + ", 0, " + Integer.MAX_VALUE + "]", set.toString());
+   }
+
+   @Test
+   public void testArrayConstructorLeavesArrayAlone() {
+      Integer[] a = {3, 1, 2, 1};
+      new ArraySet<Integer>(a);
+      assertArrayEquals(new Integer[] {3, 1, 2, 1}, a);
+   }
+
+   @Test
+   public void testAddAllMergesWithContents() {
+      ArraySet<Integer> set = setOf(2, 4, 6);
+      assertTrue(set.addAll(Arrays.asList(5, 4, 1, 5)));
+      assertEquals("[1, 2, 4, 5, 6]", set.toString());
+   }
+
+   @Test
+   public void testAddAllNothingNew() {
+      ArraySet<Integer> set = setOf(2, 4, 6);
+      assertFalse(set.addAll(Arrays.asList(6, 2, null)));
+      assertFalse(set.addAll(new ArrayList<Integer>()));
+      assertEquals("[2, 4, 6]", set.toString());
+   }
+
+   @Test
+   public void testAddAllFromIterable() {
+      ArraySet<Integer> set = setOf(1);
+      assertTrue(set.addAll(setOf(3, 2)));
+      assertEquals("[1, 2, 3]", set.toString());
+   }
+
+   @Test
+   public void testBulkLoadMatchesSingleAdds() {
+      List<Integer> values = new ArrayList<Integer>();
+      ArraySet<Integer> one = new ArraySet<Integer>();
+      for (int i = 0; i < 1000; i++) {
+         int value = (i * 7919) % 503 - 250;
+         values.add(value);
+         one.add(value);
+      }
+      ArraySet<Integer> bulk = new ArraySet<Integer>(values);
+      assertEquals(one.toString(), bulk.toString());
+      assertTrue(bulk.equals(one));
+   }
+
+
+   // Merge-based union, intersection and complement.
+
+   @Test
+   public void testUnionMerges() {
+      Set<Integer> result = setOf(1, 3, 5).union(setOf(2, 3, 6));
+      assertEquals("[1, 2, 3, 5, 6]", result.toString());
+   }
+
+   @Test
+   public void testIntersectionMerges() {
+      Set<Integer> result = setOf(1, 3, 5, 7).intersection(setOf(0, 3, 7, 8));
+      assertEquals("[3, 7]", result.toString());
+   }
+
+   @Test
+   public void testComplementMerges() {
+      Set<Integer> result = setOf(1, 3, 5, 7).complement(setOf(0, 3, 7, 8));
+      assertEquals("[1, 5]", result.toString());
+   }
+
+   @Test
+   public void testAlgebraWithEmptySets() {
+      ArraySet<Integer> empty = new ArraySet<Integer>();
+      ArraySet<Integer> set = setOf(1, 2);
+      assertEquals("[1, 2]", set.union(empty).toString());
+      assertEquals("[1, 2]", empty.union(set).toString());
+      assertEquals("[]", set.intersection(empty).toString());
+      assertEquals("[]", empty.intersection(set).toString());
+      assertEquals("[1, 2]", set.complement(empty).toString());
+      assertEquals("[]", empty.complement(set).toString());
+   }
+
+   @Test
+   public void testAlgebraWithItself() {
+      ArraySet<Integer> set = setOf(Integer.MIN_VALUE, 0, Integer.MAX_VALUE);
+      assertEquals(set.toString(), set.union(set).toString());
+      assertEquals(set.toString(), set.intersection(set).toString());
+      assertTrue(set.complement(set).isEmpty());
+   }
+
+   @Test
+   public void testAlgebraLeavesOperandsAlone() {
+      ArraySet<Integer> a = setOf(1, 2, 3);
+      ArraySet<Integer> b = setOf(3, 4);
+      a.union(b);
+      a.intersection(b);
+      a.complement(b);
+      assertEquals("[1, 2, 3]", a.toString());
+      assertEquals("[3, 4]", b.toString());
+   }
+
+   @Test
+   public void testAlgebraWithOtherSetTypes() {
+      ArraySet<Integer> a = setOf(1, 2, 3, 4);
+      Set<Integer> b = new ConcurrentArraySet<Integer>(Arrays.asList(4, 2, 9));
+      assertEquals("[1, 2, 3, 4, 9]", a.union(b).toString());
+      assertEquals("[2, 4]", a.intersection(b).toString());
+      assertEquals("[1, 3]", a.complement(b).toString());
+   }
+
+
+   // Galloping intersection for skewed sizes.
+
+   @Test
+   public void testGallopBothDirections() {
+      ArraySet<Integer> large = range(0, 10000);
+      ArraySet<Integer> small = setOf(-5, 0, 4321, 9999, 10000);
+      assertEquals("[0, 4321, 9999]", small.intersection(large).toString());
+      assertEquals("[0, 4321, 9999]", large.intersection(small).toString());
+   }
+
+   @Test
+   public void testGallopNoMatches() {
+      ArraySet<Integer> large = range(0, 10000);
+      ArraySet<Integer> small = setOf(-3, -2, -1, 10001);
+      assertTrue(large.intersection(small).isEmpty());
+   }
+
+   @Test
+   public void testGallopExtremes() {
+      ArraySet<Integer> large = range(-5000, 5000);
+      large.add(Integer.MIN_VALUE);
+      large.add(Integer.MAX_VALUE);
+      ArraySet<Integer> small = setOf(Integer.MIN_VALUE, Integer.MAX_VALUE);
+      assertEquals(small.toString(), large.intersection(small).toString());
+   }
+
+   @Test
+   public void testGallopMatchesMerge() {
+      ArraySet<Integer> large = new ArraySet<Integer>();
+      for (int i = 0; i < 20000; i++) {
+         large.add((i * 7919) % 40009);
+      }
+      ArraySet<Integer> small = new ArraySet<Integer>();
+      for (int i = 0; i < 200; i++) {
+         small.add((i * 104729) % 40009);
+      }
+      ArraySet<Integer> expected = new ArraySet<Integer>();
+      for (Integer value : small) {
+         if (large.contains(value)) {
+            expected.add(value);
+         }
+      }
+      assertEquals(expected.toString(), large.intersection(small).toString());
+      assertEquals(expected.toString(), small.intersection(large).toString());
+   }
+
+
+   // Lazy Gray-code power set iteration.
+
+   @Test
+   public void testPowerSetOfEmptySet() {
+      Iterator<Set<Integer>> it = new ArraySet<Integer>().powerSetIterator();
+      assertTrue(it.hasNext());
+      assertTrue(it.next().isEmpty());
+      assertFalse(it.hasNext());
+   }
+
+   @Test
+   public void testPowerSetIsComplete() {
+      ArraySet<Integer> set = setOf(Integer.MIN_VALUE, 0, 1, Integer.MAX_VALUE);
+      java.util.Set<String> seen = new java.util.HashSet<String>();
+      Iterator<Set<Integer>> it = set.powerSetIterator();
+      while (it.hasNext()) {
+         seen.add(it.next().toString());
+      }
+      assertEquals(16, seen.size());
+      assertTrue(seen.contains("[]"));
+      assertTrue(seen.contains(set.toString()));
+   }
+
+   @Test
+   public void testPowerSetInGrayCodeOrder() {
+      Iterator<Set<Integer>> it = setOf(1, 2, 3, 4, 5).powerSetIterator();
+      Set<Integer> previous = it.next();
+      while (it.hasNext()) {
+         Set<Integer> next = it.next();
+         int changed = previous.complement(next).size() + next.complement(previous).size();
+         assertEquals(1, changed);
+         previous = next;
+      }
+   }
+
+   @Test
+   public void testPowerSetIgnoresLaterChanges() {
+      ArraySet<Integer> set = setOf(1, 2);
+      Iterator<Set<Integer>> it = set.powerSetIterator();
+      set.add(3);
+      int count = 0;
+      while (it.hasNext()) {
+         assertFalse(it.next().contains(3));
+         count++;
+      }
+      assertEquals(4, count);
+   }
+
+   @Test(expected = NoSuchElementException.class)
+   public void testPowerSetIteratorPastEnd() {
+      Iterator<Set<Integer>> it = setOf(1).powerSetIterator();
+      it.next();
+      it.next();
+      it.next();
+   }
+
+   @Test(expected = IllegalStateException.class)
+   public void testPowerSetTooLarge() {
+      range(0, ArraySet.MAX_POWER_SET_SIZE + 1).powerSetIterator();
+   }
+
+
+   // Parallel fork-join power set traversal.
+
+   @Test
+   public void testForEachSubsetVisitsEverySubset() {
+      final AtomicLong count = new AtomicLong();
+      final AtomicLong elements = new AtomicLong();
+      range(0, 16).forEachSubset(
+         new Consumer<Set<Integer>>() {
+            public void accept(Set<Integer> subset) {
+               count.incrementAndGet();
+               elements.addAndGet(subset.size());
+            }
+         });
+      assertEquals(1L << 16, count.get());
+      assertEquals(16L << 15, elements.get());
+   }
+
+   @Test
+   public void testForEachSubsetOfEmptySet() {
+      final AtomicLong count = new AtomicLong();
+      new ArraySet<Integer>().forEachSubset(
+         new Consumer<Set<Integer>>() {
+            public void accept(Set<Integer> subset) {
+               assertTrue(subset.isEmpty());
+               count.incrementAndGet();
+            }
+         });
+      assertEquals(1, count.get());
+   }
+
+   @Test
+   public void testReduceSubsetsOnPool() {
+      ForkJoinPool pool = new ForkJoinPool(2);
+      try {
+         long total = range(1, 15).reduceSubsets(pool, 0L,
+            new BiFunction<Long, Set<Integer>, Long>() {
+               public Long apply(Long sum, Set<Integer> subset) {
+                  long result = sum;
+                  for (Integer element : subset) {
+                     result += element;
+                  }
+                  return result;
+               }
+            },
+            new BinaryOperator<Long>() {
+               public Long apply(Long left, Long right) {
+                  return left + right;
+               }
+            });
+         // Each of 1..14 is in half of the 2^14 subsets.
+         assertEquals(105L << 13, total);
+      }
+      finally {
+         pool.shutdown();
+      }
+   }
+
+   @Test
+   public void testPowerSetSpliteratorInParallel() {
+      long count = StreamSupport.stream(range(0, 14).powerSetSpliterator(), true).count();
+      assertEquals(1L << 14, count);
+   }
+
+   @Test(expected = IllegalStateException.class)
+   public void testForEachSubsetTooLarge() {
+      range(0, ArraySet.MAX_POWER_SET_SIZE + 1).forEachSubset(
+         new Consumer<Set<Integer>>() {
+            public void accept(Set<Integer> subset) {
+               fail();
+            }
+         });
+   }
+
+
+   // Navigation methods and range views.
+
+   @Test
+   public void testNavigation() {
+      ArraySet<Integer> set = setOf(10, 20, 30);
+      assertEquals(Integer.valueOf(20), set.floor(25));
+      assertEquals(Integer.valueOf(20), set.floor(20));
+      assertEquals(Integer.valueOf(30), set.ceiling(25));
+      assertEquals(Integer.valueOf(20), set.ceiling(20));
+      assertEquals(Integer.valueOf(10), set.lower(20));
+      assertEquals(Integer.valueOf(30), set.higher(20));
+   }
+
+   @Test
+   public void testNavigationPastTheEnds() {
+      ArraySet<Integer> set = setOf(10, 20);
+      assertNull(set.floor(Integer.MIN_VALUE));
+      assertNull(set.lower(10));
+      assertNull(set.ceiling(Integer.MAX_VALUE));
+      assertNull(set.higher(20));
+      ArraySet<Integer> empty = new ArraySet<Integer>();
+      assertNull(empty.floor(0));
+      assertNull(empty.ceiling(0));
+   }
+
+   @Test
+   public void testRankAndSelect() {
+      ArraySet<Integer> set = setOf(Integer.MIN_VALUE, 0, Integer.MAX_VALUE);
+      assertEquals(0, set.rank(Integer.MIN_VALUE));
+      assertEquals(2, set.rank(1));
+      assertEquals(Integer.valueOf(Integer.MAX_VALUE), set.select(2));
+      assertEquals(0, new ArraySet<Integer>().rank(5));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testSelectNegative() {
+      setOf(1, 2).select(-1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testSelectPastSize() {
+      setOf(1, 2).select(2);
+   }
+
+   @Test
+   public void testSubSetViewTracksSet() {
+      ArraySet<Integer> set = setOf(1, 3, 5, 7, 9);
+      Set<Integer> view = set.subSet(3, 8);
+      assertEquals("[3, 5, 7]", view.toString());
+      set.add(4);
+      set.remove(7);
+      assertEquals("[3, 4, 5]", view.toString());
+      assertTrue(view.add(6));
+      assertTrue(set.contains(6));
+      assertFalse(view.contains(9));
+      assertFalse(view.remove(9));
+      assertTrue(set.contains(9));
+   }
+
+   @Test
+   public void testSubSetWithEqualBoundsIsEmpty() {
+      Set<Integer> view = setOf(1, 2, 3).subSet(2, 2);
+      assertTrue(view.isEmpty());
+      assertEquals("[]", view.toString());
+   }
+
+   @Test
+   public void testHeadAndTailSets() {
+      ArraySet<Integer> set = setOf(Integer.MIN_VALUE, 0, Integer.MAX_VALUE);
+      assertEquals("[" + Integer.MIN_VALUE + "]", set.headSet(0).toString());
+      assertEquals("[0, " + Integer.MAX_VALUE + "]", set.tailSet(0).toString());
+      assertEquals("[0]", set.tailSet(0).intersection(set.headSet(1)).toString());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testSubSetLowAboveHigh() {
+      setOf(1, 2, 3).subSet(3, 1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testSubSetNullBound() {
+      setOf(1, 2, 3).subSet(null, 2);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testSubSetAddOutOfRange() {
+      setOf(1, 2, 3).subSet(1, 3).add(3);
+   }
+
+   @Test(expected = ConcurrentModificationException.class)
+   public void testSubSetIteratorFailsFast() {
+      ArraySet<Integer> set = setOf(1, 2, 3);
+      Iterator<Integer> it = set.headSet(3).iterator();
+      it.next();
+      set.add(0);
+      it.next();
+   }
+
+
+   // Capacity policy, ensureCapacity and trimToSize.
+
+   @Test
+   public void testDefaultPolicy() {
+      assertEquals(16, ArraySet.DEFAULT_POLICY.grow(8, 9));
+      assertEquals(100, ArraySet.DEFAULT_POLICY.grow(8, 100));
+      assertEquals(16, ArraySet.DEFAULT_POLICY.shrink(16, 4));
+      assertEquals(8, ArraySet.DEFAULT_POLICY.shrink(16, 3));
+   }
+
+   @Test
+   public void testSwingAcrossBoundaryDoesNotReallocate() {
+      ArraySet<Integer> set = range(0, 16);
+      set.add(16);
+      Object[] grown = backing(set);
+      for (int i = 0; i < 10; i++) {
+         set.remove(16);
+         set.add(16);
+      }
+      assertSame(grown, backing(set));
+   }
+
+   @Test
+   public void testShrinksWhenMostlyEmpty() {
+      ArraySet<Integer> set = range(0, 64);
+      for (int i = 0; i < 60; i++) {
+         set.remove(i);
+      }
+      assertTrue(backing(set).length < 64);
+      assertEquals("[60, 61, 62, 63]", set.toString());
+   }
+
+   @Test
+   public void testEnsureCapacityAndTrimToSize() {
+      ArraySet<Integer> set = setOf(1, 2, 3);
+      set.ensureCapacity(100);
+      assertTrue(backing(set).length >= 100);
+      set.ensureCapacity(-1);
+      set.trimToSize();
+      assertEquals(3, backing(set).length);
+      assertEquals("[1, 2, 3]", set.toString());
+   }
+
+   @Test
+   public void testTrimToSizeOnEmptySet() {
+      ArraySet<Integer> set = new ArraySet<Integer>();
+      set.ensureCapacity(10);
+      set.trimToSize();
+      assertEquals(1, backing(set).length);
+      assertTrue(set.add(1));
+   }
+
+   @Test
+   public void testCustomPolicy() {
+      ArraySet<Integer> set = new ArraySet<Integer>();
+      set.setCapacityPolicy(
+         new ArraySet.CapacityPolicy() {
+            public int grow(int capacity, int required) {
+               return required;
+            }
+
+            public int shrink(int capacity, int size) {
+               return capacity;
+            }
+         });
+      for (int i = 0; i < 5; i++) {
+         set.add(i);
+         assertEquals(i + 1, backing(set).length);
+      }
+      set.remove(0);
+      assertEquals(5, backing(set).length);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testNullPolicy() {
+      new ArraySet<Integer>().setCapacityPolicy(null);
+   }
+
+
+   // Fingerprints and fingerprint-accelerated equals.
+
+   @Test
+   public void testFingerprintIgnoresInsertionOrder() {
+      ArraySet<Integer> a = setOf(Integer.MIN_VALUE, 0, Integer.MAX_VALUE);
+      ArraySet<Integer> b = new ArraySet<Integer>();
+      b.add(Integer.MAX_VALUE);
+      b.add(0);
+      b.add(Integer.MIN_VALUE);
+      assertEquals(a.fingerprint(), b.fingerprint());
+      assertTrue(a.equals(b));
+   }
+
+   @Test
+   public void testFingerprintTracksChanges() {
+      ArraySet<Integer> set = range(0, 100);
+      set.remove(50);
+      set.add(500);
+      set.addAll(Arrays.asList(7, 600, 601));
+      long expected = 0;
+      for (Integer element : set) {
+         expected += Set.fingerprintOf(element.hashCode());
+      }
+      assertEquals(expected, set.fingerprint());
+   }
+
+   @Test
+   public void testEmptySetsAreEqual() {
+      assertEquals(0, new ArraySet<Integer>().fingerprint());
+      assertTrue(new ArraySet<Integer>().equals(new BitmapSet()));
+   }
+
+   @Test
+   public void testEqualsAcrossSetTypes() {
+      ArraySet<Integer> a = setOf(Integer.MIN_VALUE, -1, 70000);
+      BitmapSet b = new BitmapSet(new int[] {70000, -1, Integer.MIN_VALUE});
+      IntArraySet c = new IntArraySet(new int[] {-1, 70000, Integer.MIN_VALUE});
+      assertEquals(a.fingerprint(), b.fingerprint());
+      assertEquals(a.fingerprint(), c.fingerprint());
+      assertTrue(a.equals(b));
+      assertTrue(a.equals(c));
+      assertTrue(b.equals(a));
+      assertTrue(c.equals(a));
+   }
+
+   @Test
+   public void testEqualsSameSizeDifferentElements() {
+      assertFalse(setOf(1, 2, 3).equals(setOf(1, 2, 4)));
+      assertFalse(setOf(1, 2, 3).equals(setOf(1, 2)));
+   }
+
+   @Test
+   public void testEqualsWithComparatorInconsistentWithEquals() {
+      ArraySet<String> a = new ArraySet<String>(Arrays.asList("a", "B"), String.CASE_INSENSITIVE_ORDER);
+      ArraySet<String> b = new ArraySet<String>(Arrays.asList("A", "b"), String.CASE_INSENSITIVE_ORDER);
+      assertTrue(a.contains("A"));
+      assertTrue(a.complement(b).isEmpty());
+      assertTrue(a.equals(b));
+      assertTrue(b.equals(a));
+      assertTrue(a.equals((Set<String>) b));
+      assertFalse(a.equals(new ArraySet<String>(Arrays.asList("A", "c"),
+         String.CASE_INSENSITIVE_ORDER)));
+   }
+
+   @Test
+   public void testEqualsWithBigDecimal() {
+      ArraySet<BigDecimal> a = new ArraySet<BigDecimal>(
+         new BigDecimal[] {new BigDecimal("1.0"), new BigDecimal("2")});
+      ArraySet<BigDecimal> b = new ArraySet<BigDecimal>(
+         new BigDecimal[] {new BigDecimal("1.00"), new BigDecimal("2.0")});
+      assertTrue(a.contains(new BigDecimal("1.00")));
+      assertTrue(a.equals(b));
+      assertTrue(b.equals((Set<BigDecimal>) a));
+      BlockArraySet<BigDecimal> block = new BlockArraySet<BigDecimal>();
+      block.add(new BigDecimal("2.00"));
+      block.add(new BigDecimal("1"));
+      assertTrue(block.equals(a));
+      assertTrue(a.equals(block));
+      assertFalse(a.equals(new ArraySet<BigDecimal>(
+         new BigDecimal[] {new BigDecimal("1"), new BigDecimal("3")})));
+   }
+
+
+   // Fail-fast and snapshot iterators.
+
+   @Test(expected = ConcurrentModificationException.class)
+   public void testIteratorFailsAfterAdd() {
+      ArraySet<Integer> set = setOf(1, 2, 3);
+      Iterator<Integer> it = set.iterator();
+      it.next();
+      set.add(4);
+      it.next();
+   }
+
+   @Test(expected = ConcurrentModificationException.class)
+   public void testIteratorFailsAfterRemove() {
+      ArraySet<Integer> set = setOf(1, 2, 3);
+      Iterator<Integer> it = set.iterator();
+      set.remove(3);
+      it.next();
+   }
+
+   @Test(expected = ConcurrentModificationException.class)
+   public void testForEachRemainingFailsFast() {
+      final ArraySet<Integer> set = setOf(1, 2, 3);
+      set.iterator().forEachRemaining(
+         new Consumer<Integer>() {
+            public void accept(Integer element) {
+               set.add(element + 10);
+            }
+         });
+   }
+
+   @Test
+   public void testIteratorSurvivesNoOpChanges() {
+      ArraySet<Integer> set = setOf(1, 2);
+      Iterator<Integer> it = set.iterator();
+      assertFalse(set.add(1));
+      assertFalse(set.remove(5));
+      assertEquals(Integer.valueOf(1), it.next());
+      assertEquals(Integer.valueOf(2), it.next());
+   }
+
+   @Test
+   public void testSnapshotIteratorIgnoresChanges() {
+      ArraySet<Integer> set = setOf(1, 2, 3);
+      Iterator<Integer> it = set.snapshotIterator();
+      assertEquals(Integer.valueOf(1), it.next());
+      set.remove(2);
+      set.add(0);
+      assertEquals(Integer.valueOf(2), it.next());
+      assertEquals(Integer.valueOf(3), it.next());
+      assertFalse(it.hasNext());
+      assertEquals("[0, 1, 3]", set.toString());
+   }
+
+   @Test(expected = NoSuchElementException.class)
+   public void testSnapshotIteratorOfEmptySet() {
+      new ArraySet<Integer>().snapshotIterator().next();
+   }
+
+   @Test(expected = UnsupportedOperationException.class)
+   public void testIteratorRemoveUnsupported() {
+      Iterator<Integer> it = setOf(1).iterator();
+      it.next();
+      it.remove();
+   }
+
+
+   // Descending iteration, spliterator and stream.
+
+   @Test
+   public void testDescendingIterator() {
+      Iterator<Integer> it = setOf(Integer.MIN_VALUE, 0, Integer.MAX_VALUE).descendingIterator();
+      assertEquals(Integer.valueOf(Integer.MAX_VALUE), it.next());
+      assertEquals(Integer.valueOf(0), it.next());
+      assertEquals(Integer.valueOf(Integer.MIN_VALUE), it.next());
+      assertFalse(it.hasNext());
+   }
+
+   @Test(expected = NoSuchElementException.class)
+   public void testDescendingIteratorOfEmptySet() {
+      new ArraySet<Integer>().descendingIterator().next();
+   }
+
+   @Test(expected = ConcurrentModificationException.class)
+   public void testDescendingIteratorFailsFast() {
+      ArraySet<Integer> set = setOf(1, 2, 3);
+      Iterator<Integer> it = set.descendingIterator();
+      it.next();
+      set.remove(1);
+      it.next();
+   }
+
+   @Test
+   public void testDescendingStream() {
+      final List<Integer> result = new ArrayList<Integer>();
+      setOf(3, 1, 2).descendingStream().forEachOrdered(
+         new Consumer<Integer>() {
+            public void accept(Integer element) {
+               result.add(element);
+            }
+         });
+      assertEquals(Arrays.asList(3, 2, 1), result);
+      assertEquals(0, new ArraySet<Integer>().descendingStream().count());
+   }
+
+   @Test
+   public void testDescendingSpliteratorSplitsInOrder() {
+      Spliterator<Integer> rest = range(0, 10).descendingSpliterator();
+      Spliterator<Integer> prefix = rest.trySplit();
+      final List<Integer> seen = new ArrayList<Integer>();
+      Consumer<Integer> collect =
+         new Consumer<Integer>() {
+            public void accept(Integer element) {
+               seen.add(element);
+            }
+         };
+      prefix.forEachRemaining(collect);
+      rest.forEachRemaining(collect);
+      assertEquals(Arrays.asList(9, 8, 7, 6, 5, 4, 3, 2, 1, 0), seen);
+      assertTrue(rest.hasCharacteristics(Spliterator.SORTED));
+   }
+
+
+   // Streams and the index-range spliterator.
+
+   @Test
+   public void testStreamOverExtremes() {
+      Set<Integer> set = setOf(Integer.MAX_VALUE, Integer.MIN_VALUE, 0, 0);
+      long sum = set.stream().mapToLong(
+         new ToLongFunction<Integer>() {
+            public long applyAsLong(Integer element) {
+               return element;
+            }
+         }).sum();
+      assertEquals(3, set.stream().count());
+      assertEquals((long) Integer.MIN_VALUE + Integer.MAX_VALUE, sum);
+   }
+
+   @Test
+   public void testStreamOfEmptySet() {
+      ArraySet<Integer> set = new ArraySet<Integer>();
+      assertEquals(0, set.stream().count());
+      assertFalse(set.parallelStream().findAny().isPresent());
+   }
+
+   @Test
+   public void testParallelStreamMatchesSequential() {
+      ArraySet<Integer> set = range(-50000, 50000);
+      Predicate<Integer> even =
+         new Predicate<Integer>() {
+            public boolean test(Integer element) {
+               return element % 2 == 0;
+            }
+         };
+      assertEquals(50000, set.parallelStream().filter(even).count());
+      assertEquals(set.stream().filter(even).collect(Collectors.toList()),
+         set.parallelStream().filter(even).collect(Collectors.toList()));
+   }
+
+   @Test
+   public void testSpliteratorCharacteristics() {
+      Spliterator<Integer> split = setOf(2, 1, 3).spliterator();
+      int expected = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED
+         | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+      assertEquals(expected, split.characteristics() & expected);
+      assertEquals(3, split.getExactSizeIfKnown());
+      assertNull(split.getComparator());
+   }
+
+   @Test
+   public void testSpliteratorSplitsByIndex() {
+      Spliterator<Integer> rest = range(0, 10).spliterator();
+      Spliterator<Integer> prefix = rest.trySplit();
+      assertEquals(5, prefix.estimateSize());
+      assertEquals(5, rest.estimateSize());
+      final List<Integer> seen = new ArrayList<Integer>();
+      Consumer<Integer> collect =
+         new Consumer<Integer>() {
+            public void accept(Integer element) {
+               seen.add(element);
+            }
+         };
+      prefix.forEachRemaining(collect);
+      rest.forEachRemaining(collect);
+      assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), seen);
+      assertNull(setOf(1).spliterator().trySplit());
+      assertNull(new ArraySet<Integer>().spliterator().trySplit());
+   }
+
+   @Test(expected = ConcurrentModificationException.class)
+   public void testSpliteratorFailsFast() {
+      final ArraySet<Integer> set = setOf(1, 2, 3);
+      set.spliterator().forEachRemaining(
+         new Consumer<Integer>() {
+            public void accept(Integer element) {
+               set.add(element + 10);
+            }
+         });
+   }
+
+
+   // Comparator-ordered sets.
+
+   @Test
+   public void testReverseComparator() {
+      Comparator<Integer> reverse = Collections.reverseOrder();
+      ArraySet<Integer> set = new ArraySet<Integer>(
+         Arrays.asList(0, Integer.MIN_VALUE, 7, Integer.MAX_VALUE, 7), reverse);
+      assertSame(reverse, set.comparator());
+      assertEquals(4, set.size());
+      assertEquals("[2147483647, 7, 0, -2147483648]", set.toString());
+      assertEquals(Integer.valueOf(7), set.floor(5));
+      assertEquals(Integer.valueOf(0), set.ceiling(5));
+      assertEquals(Integer.valueOf(Integer.MAX_VALUE), set.lower(7));
+      assertNull(set.higher(Integer.MIN_VALUE));
+      assertNull(set.lower(Integer.MAX_VALUE));
+      assertTrue(set.remove(7));
+      assertFalse(set.contains(7));
+   }
+
+   @Test
+   public void testNullComparatorMeansNaturalOrder() {
+      ArraySet<Integer> set = new ArraySet<Integer>((Comparator<Integer>) null);
+      set.add(3);
+      set.add(1);
+      set.add(2);
+      assertNull(set.comparator());
+      assertEquals("[1, 2, 3]", set.toString());
+      assertTrue(set.equals(setOf(1, 2, 3)));
+   }
+
+   @Test
+   public void testComparatorDefinesDuplicates() {
+      ArraySet<String> set = new ArraySet<String>(String.CASE_INSENSITIVE_ORDER);
+      assertTrue(set.add("b"));
+      assertTrue(set.add("A"));
+      assertFalse(set.add("a"));
+      assertFalse(set.add("B"));
+      assertEquals(2, set.size());
+      assertTrue(set.contains("a"));
+      assertEquals("[A, b]", set.toString());
+   }
+
+   @Test
+   public void testAlgebraSharingComparator() {
+      Comparator<Integer> reverse = Collections.reverseOrder();
+      ArraySet<Integer> a = new ArraySet<Integer>(Arrays.asList(1, 2, 3, Integer.MIN_VALUE), reverse);
+      ArraySet<Integer> b = new ArraySet<Integer>(Arrays.asList(3, 4, Integer.MIN_VALUE), reverse);
+      assertEquals("[4, 3, 2, 1, -2147483648]", a.union(b).toString());
+      assertEquals("[3, -2147483648]", a.intersection(b).toString());
+      assertEquals("[2, 1]", a.complement(b).toString());
+      assertEquals("[]", a.intersection(new ArraySet<Integer>(reverse)).toString());
+   }
+
+   @Test
+   public void testAlgebraAcrossComparators() {
+      ArraySet<Integer> reversed = new ArraySet<Integer>(Arrays.asList(1, 2, 3),
+         Collections.<Integer>reverseOrder());
+      ArraySet<Integer> natural = setOf(2, 3, 4);
+      assertEquals("[4, 3, 2, 1]", reversed.union(natural).toString());
+      assertEquals("[3, 2]", reversed.intersection(natural).toString());
+      assertEquals("[1]", reversed.complement(natural).toString());
+      assertEquals("[1, 2, 3, 4]", natural.union(reversed).toString());
+      assertEquals("[4]", natural.complement(reversed).toString());
+   }
+
+   @Test
+   public void testEqualsAcrossComparators() {
+      ArraySet<Integer> reversed = new ArraySet<Integer>(
+         Arrays.asList(Integer.MIN_VALUE, 0, Integer.MAX_VALUE), Collections.<Integer>reverseOrder());
+      ArraySet<Integer> natural = setOf(Integer.MAX_VALUE, 0, Integer.MIN_VALUE);
+      assertTrue(reversed.equals(natural));
+      assertTrue(natural.equals(reversed));
+      assertEquals(natural.fingerprint(), reversed.fingerprint());
+      natural.remove(0);
+      assertFalse(reversed.equals(natural));
+   }
+
+
+   /**
+    * Returns the backing array of set.
+    */
+   private static Object[] backing(ArraySet<?> set) {
+      return set.elements;
+   }
+
+   /**
+    * Returns an ArraySet holding lo, lo + 1, ..., hi - 1.
+    */
+   private static ArraySet<Integer> range(int lo, int hi) {
+      ArraySet<Integer> set = new ArraySet<Integer>();
+      for (int i = lo; i < hi; i++) {
+         set.add(i);
+      }
+      return set;
+   }
+
+   /**
+    * Returns an ArraySet holding values.
+    */
+   private static ArraySet<Integer> setOf(Integer... values) {
+      return new ArraySet<Integer>(values);
+   }
+}
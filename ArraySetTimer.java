@@ -0,0 +1,570 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+*  A timing client for ArraySet. Each experiment doubles the problem
+*  size on every run and reports the elapsed time along with the ratio
+*  to the previous run, the same way ProvidedClient does.
+*
+*  @author Avery Hyman (amh0120@auburn.edu)
+*  @version 2017-10-12
+*/
+public class ArraySetTimer {
+//   to convert from nanoseconds to   seconds
+   private static final double SECONDS =  1_000_000_000d;
+   private static final Random RANDOM = new Random(2210);
+
+/** Drives execution. */
+   public static void main(String[] args) throws IOException {
+      timeBulkLoad(1_000, 8);
+      timeSetAlgebra(125_000, 5);
+      timeSkewedIntersection(1_000_000);
+      timePrimitiveLookups(1_000_000, 1_000_000);
+      timeParallelPowerSet(24);
+      timeCapacityBoundary(1 << 10, 8, 1_000);
+      timeMappedLoad(1_000_000, 1_000_000);
+      timeBlockInserts(16_000, 6);
+      timeIteration(1_000_000, 20);
+      timeStreams(4_000_000);
+      timeMultiWay(32, 100_000);
+      timeComparatorLookups(1_000_000, 1_000_000);
+      timeFreeze(1_000_000, 100);
+   }
+
+   /**
+    * Compares loading a set with repeated calls to add against
+    * loading it through the bulk constructor.
+    */
+   private static void timeBulkLoad(int start, int numRuns) {
+      System.out.println("Bulk load: add() vs ArraySet(T[])");
+      double previousAdd = 0;
+      double previousBulk = 0;
+      int n = start;
+      for (int i = 0; i < numRuns; i++) {
+         Integer[] values = randomValues(n);
+
+         long startTime = System.nanoTime();
+         ArraySet<Integer> added = new ArraySet<Integer>();
+         for (Integer value : values) {
+            added.add(value);
+         }
+         double addTime = (System.nanoTime() - startTime) / SECONDS;
+
+         startTime = System.nanoTime();
+         ArraySet<Integer> bulk = new ArraySet<Integer>(values);
+         double bulkTime = (System.nanoTime() - startTime) / SECONDS;
+
+         report(n, "add", addTime, previousAdd);
+         report(n, "bulk", bulkTime, previousBulk);
+         previousAdd = addTime;
+         previousBulk = bulkTime;
+         n = n * 2;
+      }
+   }
+
+   /**
+    * Times union, intersection and complement of two random sets
+    * of the same size.
+    */
+   private static void timeSetAlgebra(int start, int numRuns) {
+      System.out.println("Set algebra on two sets of size n");
+      double previous = 0;
+      int n = start;
+      for (int i = 0; i < numRuns; i++) {
+         ArraySet<Integer> a = new ArraySet<Integer>(randomValues(n));
+         ArraySet<Integer> b = new ArraySet<Integer>(randomValues(n));
+
+         long startTime = System.nanoTime();
+         a.union(b);
+         a.intersection(b);
+         a.complement(b);
+         double elapsedTime = (System.nanoTime() - startTime) / SECONDS;
+
+         report(n, "union+intersection+complement", elapsedTime, previous);
+         previous = elapsedTime;
+         n = n * 2;
+      }
+   }
+
+   /**
+    * Times a linear merge against galloping when intersecting a set
+    * of the given size with sets from 10 to 1,000,000 times smaller.
+    */
+   @SuppressWarnings({"rawtypes", "unchecked"})
+   private static void timeSkewedIntersection(int largeSize) {
+      System.out.println("Intersection of a small set with a set of size " + largeSize);
+      ArraySet large = new ArraySet<Integer>(randomValues(largeSize));
+      Comparable[] out = new Comparable[largeSize];
+      for (int ratio = 10; ratio <= largeSize; ratio = ratio * 10) {
+         Integer[] values = randomValues(largeSize / ratio);
+         for (int i = 0; i < values.length; i += 2) {
+            values[i] = (Integer) large.elements[RANDOM.nextInt(large.size)];
+         }
+         ArraySet small = new ArraySet<Integer>(values);
+
+         long startTime = System.nanoTime();
+         ArraySet.intersectInto(small.elements, 0, small.size, large.elements, 0, large.size, out, null);
+         double mergeTime = (System.nanoTime() - startTime) / SECONDS;
+
+         startTime = System.nanoTime();
+         ArraySet.gallopInto(small.elements, 0, small.size, large.elements, 0, large.size, out, null);
+         double gallopTime = (System.nanoTime() - startTime) / SECONDS;
+
+         System.out.println("Ratio =  1:" + ratio + "  merge = " + mergeTime
+            + "  gallop = " + gallopTime);
+      }
+   }
+
+   /**
+    * Compares the heap footprint and contains latency of an
+    * ArraySet of boxed Integers against an IntArraySet.
+    */
+   private static void timePrimitiveLookups(int n, int lookups) {
+      System.out.println("ArraySet<Integer> vs IntArraySet, n = " + n);
+      Integer[] boxed = randomValues(n);
+      int[] values = new int[n];
+      for (int i = 0; i < n; i++) {
+         values[i] = boxed[i];
+      }
+      int[] probes = new int[lookups];
+      for (int i = 0; i < lookups; i++) {
+         probes[i] = RANDOM.nextBoolean() ? values[RANDOM.nextInt(n)] : RANDOM.nextInt();
+      }
+      boxed = null;
+
+      long before = usedMemory();
+      ArraySet<Integer> objects = new ArraySet<Integer>(toBoxed(values));
+      long objectBytes = usedMemory() - before;
+      before = usedMemory();
+      IntArraySet primitives = new IntArraySet(values);
+      long primitiveBytes = usedMemory() - before;
+
+      int objectHits = 0;
+      long startTime = System.nanoTime();
+      for (int probe : probes) {
+         if (objects.contains(probe)) {
+            objectHits++;
+         }
+      }
+      double objectTime = (System.nanoTime() - startTime) / SECONDS;
+
+      int primitiveHits = 0;
+      startTime = System.nanoTime();
+      for (int probe : probes) {
+         if (primitives.contains(probe)) {
+            primitiveHits++;
+         }
+      }
+      double primitiveTime = (System.nanoTime() - startTime) / SECONDS;
+
+      System.out.println("ArraySet<Integer>  bytes = " + objectBytes
+         + "  contains x" + lookups + " = " + objectTime + "  hits = " + objectHits);
+      System.out.println("IntArraySet        bytes = " + primitiveBytes
+         + "  contains x" + lookups + " = " + primitiveTime + "  hits = " + primitiveHits);
+   }
+
+   /**
+    * Times reduceSubsets over the power set of an n-element set on
+    * pools of 1, 2, 4, ... up to the number of available processors.
+    * Each subset is summed so that every visit does a little work.
+    */
+   private static void timeParallelPowerSet(int n) {
+      System.out.println("reduceSubsets over 2^" + n + " subsets");
+      ArraySet<Integer> set = new ArraySet<Integer>(randomValues(n));
+      BiFunction<Long, Set<Integer>, Long> accumulator =
+         new BiFunction<Long, Set<Integer>, Long>() {
+            public Long apply(Long count, Set<Integer> subset) {
+               long sum = 0;
+               for (Integer element : subset) {
+                  sum += element;
+               }
+               return (sum % 7 == 0) ? count + 1 : count;
+            }
+         };
+      BinaryOperator<Long> combiner =
+         new BinaryOperator<Long>() {
+            public Long apply(Long left, Long right) {
+               return left + right;
+            }
+         };
+      double single = 0;
+      int processors = Runtime.getRuntime().availableProcessors();
+      for (int threads = 1; threads <= processors; threads = threads * 2) {
+         ForkJoinPool pool = new ForkJoinPool(threads);
+         long startTime = System.nanoTime();
+         long matches = set.reduceSubsets(pool, 0L, accumulator, combiner);
+         double elapsedTime = (System.nanoTime() - startTime) / SECONDS;
+         pool.shutdown();
+         if (single == 0) {
+            single = elapsedTime;
+         }
+         System.out.println("Threads = " + threads + "  Elapsed time = " + elapsedTime
+            + "  speedup = " + (single / elapsedTime) + "  matches = " + matches);
+      }
+   }
+
+   /**
+    * Fills a set to exactly a power of two and then alternately adds
+    * and removes one element, so its size keeps crossing the point
+    * where the array grows. Compares the default capacity policy with
+    * one that shrinks as soon as the array is half empty.
+    */
+   private static void timeCapacityBoundary(int start, int numRuns, int swings) {
+      System.out.println("add/remove across a power-of-two boundary, " + swings + " swings");
+      ArraySet.CapacityPolicy eager =
+         new ArraySet.CapacityPolicy() {
+            public int grow(int capacity, int required) {
+               return Math.max(required, capacity * 2);
+            }
+
+            public int shrink(int capacity, int size) {
+               return (size <= capacity / 2) ? capacity / 2 : capacity;
+            }
+         };
+      int n = start;
+      for (int i = 0; i < numRuns; i++) {
+         double defaultTime = timeSwings(n, swings, ArraySet.DEFAULT_POLICY);
+         double eagerTime = timeSwings(n, swings, eager);
+         System.out.println("Problem size =  " + n + "  default = " + defaultTime
+            + "  eager shrink = " + eagerTime);
+         n = n * 2;
+      }
+   }
+
+   /** Returns the time for swings add/remove pairs at size n. */
+   private static double timeSwings(int n, int swings, ArraySet.CapacityPolicy policy) {
+      ArraySet<Integer> set = new ArraySet<Integer>();
+      set.setCapacityPolicy(policy);
+      for (int i = 0; i < n; i++) {
+         set.add(i);
+      }
+      long startTime = System.nanoTime();
+      for (int i = 0; i < swings; i++) {
+         set.add(n);
+         set.remove(n);
+      }
+      return (System.nanoTime() - startTime) / SECONDS;
+   }
+
+   /**
+    * Compares rebuilding a set from its values against opening a
+    * memory-mapped file of the same set, then compares contains
+    * latency on the two.
+    */
+   private static void timeMappedLoad(int n, int lookups) throws IOException {
+      System.out.println("ArraySet(T[]) vs MappedArraySet.openInts, n = " + n);
+      Integer[] values = randomValues(n);
+      Path file = Files.createTempFile("arrayset", ".bin");
+      try {
+         MappedArraySet.writeInts(new ArraySet<Integer>(values), file);
+
+         long startTime = System.nanoTime();
+         ArraySet<Integer> built = new ArraySet<Integer>(values);
+         double buildTime = (System.nanoTime() - startTime) / SECONDS;
+
+         startTime = System.nanoTime();
+         MappedArraySet<Integer> mapped = MappedArraySet.openInts(file);
+         double openTime = (System.nanoTime() - startTime) / SECONDS;
+
+         Integer[] probes = new Integer[lookups];
+         for (int i = 0; i < lookups; i++) {
+            probes[i] = RANDOM.nextBoolean() ? values[RANDOM.nextInt(n)] : RANDOM.nextInt();
+         }
+         int builtHits = 0;
+         startTime = System.nanoTime();
+         for (Integer probe : probes) {
+            if (built.contains(probe)) {
+               builtHits++;
+            }
+         }
+         double builtTime = (System.nanoTime() - startTime) / SECONDS;
+
+         int mappedHits = 0;
+         startTime = System.nanoTime();
+         for (Integer probe : probes) {
+            if (mapped.contains(probe)) {
+               mappedHits++;
+            }
+         }
+         double mappedTime = (System.nanoTime() - startTime) / SECONDS;
+
+         System.out.println("ArraySet        load = " + buildTime
+            + "  contains x" + lookups + " = " + builtTime + "  hits = " + builtHits);
+         System.out.println("MappedArraySet  load = " + openTime
+            + "  contains x" + lookups + " = " + mappedTime + "  hits = " + mappedHits);
+      }
+      finally {
+         Files.delete(file);
+      }
+   }
+
+   /**
+    * Compares loading a set in random order with repeated calls to add
+    * on an ArraySet, which shifts up to the whole array on each insert,
+    * against a BlockArraySet, which shifts at most one block.
+    */
+   private static void timeBlockInserts(int start, int numRuns) {
+      System.out.println("Random add(): ArraySet vs BlockArraySet");
+      double previousArray = 0;
+      double previousBlock = 0;
+      int n = start;
+      for (int i = 0; i < numRuns; i++) {
+         Integer[] values = randomValues(n);
+
+         long startTime = System.nanoTime();
+         ArraySet<Integer> array = new ArraySet<Integer>();
+         for (Integer value : values) {
+            array.add(value);
+         }
+         double arrayTime = (System.nanoTime() - startTime) / SECONDS;
+
+         startTime = System.nanoTime();
+         BlockArraySet<Integer> block = new BlockArraySet<Integer>();
+         for (Integer value : values) {
+            block.add(value);
+         }
+         double blockTime = (System.nanoTime() - startTime) / SECONDS;
+
+         report(n, "ArraySet", arrayTime, previousArray);
+         report(n, "BlockArraySet", blockTime, previousBlock);
+         previousArray = arrayTime;
+         previousBlock = blockTime;
+         n = n * 2;
+      }
+   }
+
+   /**
+    * Compares iteration throughput over an n-element set: hasNext/next
+    * on the fail-fast iterator, forEachRemaining on the fail-fast
+    * iterator, and forEachRemaining on a snapshot iterator.
+    */
+   private static void timeIteration(int n, int passes) {
+      System.out.println("Iterating " + passes + " times over a set of size " + n);
+      ArraySet<Integer> set = new ArraySet<Integer>(randomValues(n));
+      final long[] sum = new long[1];
+      Consumer<Integer> adder =
+         new Consumer<Integer>() {
+            public void accept(Integer element) {
+               sum[0] += element;
+            }
+         };
+
+      long startTime = System.nanoTime();
+      for (int p = 0; p < passes; p++) {
+         Iterator<Integer> it = set.iterator();
+         while (it.hasNext()) {
+            sum[0] += it.next();
+         }
+      }
+      double nextTime = (System.nanoTime() - startTime) / SECONDS;
+
+      startTime = System.nanoTime();
+      for (int p = 0; p < passes; p++) {
+         set.iterator().forEachRemaining(adder);
+      }
+      double failFastTime = (System.nanoTime() - startTime) / SECONDS;
+
+      startTime = System.nanoTime();
+      for (int p = 0; p < passes; p++) {
+         set.snapshotIterator().forEachRemaining(adder);
+      }
+      double snapshotTime = (System.nanoTime() - startTime) / SECONDS;
+
+      long visited = (long) n * passes;
+      System.out.println("hasNext/next                   elements/s = " + (visited / nextTime));
+      System.out.println("forEachRemaining (fail-fast)   elements/s = " + (visited / failFastTime));
+      System.out.println("forEachRemaining (snapshot)    elements/s = " + (visited / snapshotTime)
+         + "  checksum = " + sum[0]);
+   }
+
+   /**
+    * Times a filter and count over an n-element set through a
+    * sequential loop, stream(), parallelStream() and a parallel
+    * descending stream.
+    */
+   private static void timeStreams(int n) {
+      System.out.println("Filter and count over a set of size " + n
+         + " on " + Runtime.getRuntime().availableProcessors() + " processors");
+      ArraySet<Integer> set = new ArraySet<Integer>(randomValues(n));
+      Predicate<Integer> multipleOfThree =
+         new Predicate<Integer>() {
+            public boolean test(Integer element) {
+               return element % 3 == 0;
+            }
+         };
+
+      long startTime = System.nanoTime();
+      long loopCount = 0;
+      for (Integer element : set) {
+         if (element % 3 == 0) {
+            loopCount++;
+         }
+      }
+      double loopTime = (System.nanoTime() - startTime) / SECONDS;
+
+      startTime = System.nanoTime();
+      long streamCount = set.stream().filter(multipleOfThree).count();
+      double streamTime = (System.nanoTime() - startTime) / SECONDS;
+
+      startTime = System.nanoTime();
+      long parallelCount = set.parallelStream().filter(multipleOfThree).count();
+      double parallelTime = (System.nanoTime() - startTime) / SECONDS;
+
+      startTime = System.nanoTime();
+      long descendingCount = set.descendingStream().parallel().filter(multipleOfThree).count();
+      double descendingTime = (System.nanoTime() - startTime) / SECONDS;
+
+      System.out.println("for-each loop               Elapsed time = " + loopTime + "  count = " + loopCount);
+      System.out.println("stream()                    Elapsed time = " + streamTime + "  count = " + streamCount);
+      System.out.println("parallelStream()            Elapsed time = " + parallelTime + "  count = " + parallelCount);
+      System.out.println("descendingStream().parallel Elapsed time = " + descendingTime
+         + "  count = " + descendingCount);
+   }
+
+   /**
+    * Compares chained pairwise union and intersection of k sets with
+    * SetAlgebra.unionAll and SetAlgebra.intersectAll. Every set holds
+    * a common core of values so the intersection is not empty.
+    */
+   private static void timeMultiWay(int k, int n) {
+      System.out.println("Union and intersection of " + k + " sets of size " + n);
+      Integer[] core = randomValues(n / 100);
+      List<Set<Integer>> sets = new ArrayList<Set<Integer>>();
+      for (int i = 0; i < k; i++) {
+         ArraySet<Integer> set = new ArraySet<Integer>(randomValues(n));
+         set.addAll(Arrays.asList(core));
+         sets.add(set);
+      }
+
+      long startTime = System.nanoTime();
+      Set<Integer> union = sets.get(0);
+      Set<Integer> intersection = sets.get(0);
+      for (int i = 1; i < k; i++) {
+         union = union.union(sets.get(i));
+         intersection = intersection.intersection(sets.get(i));
+      }
+      double pairwiseTime = (System.nanoTime() - startTime) / SECONDS;
+
+      startTime = System.nanoTime();
+      ArraySet<Integer> unionAll = SetAlgebra.unionAll(sets);
+      ArraySet<Integer> intersectAll = SetAlgebra.intersectAll(sets);
+      double multiWayTime = (System.nanoTime() - startTime) / SECONDS;
+
+      System.out.println("pairwise   Elapsed time = " + pairwiseTime + "  sizes = "
+         + union.size() + ", " + intersection.size());
+      System.out.println("multi-way  Elapsed time = " + multiWayTime + "  sizes = "
+         + unionAll.size() + ", " + intersectAll.size());
+   }
+
+   /**
+    * Compares contains on a naturally ordered ArraySet against one
+    * ordered by a comparator (here, descending order).
+    */
+   private static void timeComparatorLookups(int n, int lookups) {
+      System.out.println("contains: natural order vs comparator, n = " + n);
+      Integer[] values = randomValues(n);
+      ArraySet<Integer> natural = new ArraySet<Integer>(values);
+      ArraySet<Integer> descending = new ArraySet<Integer>(Arrays.asList(values),
+         Collections.<Integer>reverseOrder());
+      Integer[] probes = new Integer[lookups];
+      for (int i = 0; i < lookups; i++) {
+         probes[i] = RANDOM.nextBoolean() ? values[RANDOM.nextInt(n)] : RANDOM.nextInt();
+      }
+
+      int naturalHits = 0;
+      long startTime = System.nanoTime();
+      for (Integer probe : probes) {
+         if (natural.contains(probe)) {
+            naturalHits++;
+         }
+      }
+      double naturalTime = (System.nanoTime() - startTime) / SECONDS;
+
+      int comparatorHits = 0;
+      startTime = System.nanoTime();
+      for (Integer probe : probes) {
+         if (descending.contains(probe)) {
+            comparatorHits++;
+         }
+      }
+      double comparatorTime = (System.nanoTime() - startTime) / SECONDS;
+
+      System.out.println("natural     Elapsed time = " + naturalTime + "  hits = " + naturalHits);
+      System.out.println("comparator  Elapsed time = " + comparatorTime + "  hits = " + comparatorHits);
+   }
+
+   /**
+    * Compares handing an n-element set to many consumers by defensive
+    * copy against handing each a frozen set. The set changes between
+    * hand-outs only every tenth time.
+    */
+   private static void timeFreeze(int n, int consumers) {
+      System.out.println("Handing a set of size " + n + " to " + consumers + " consumers");
+      ArraySet<Integer> set = new ArraySet<Integer>(randomValues(n));
+
+      long startTime = System.nanoTime();
+      long total = 0;
+      for (int i = 0; i < consumers; i++) {
+         if (i % 10 == 0) {
+            set.add(RANDOM.nextInt());
+         }
+         total += new ArraySet<Integer>(set).size();
+      }
+      double copyTime = (System.nanoTime() - startTime) / SECONDS;
+
+      startTime = System.nanoTime();
+      for (int i = 0; i < consumers; i++) {
+         if (i % 10 == 0) {
+            set.add(RANDOM.nextInt());
+         }
+         total += set.freeze().size();
+      }
+      double freezeTime = (System.nanoTime() - startTime) / SECONDS;
+
+      System.out.println("defensive copy  Elapsed time = " + copyTime);
+      System.out.println("freeze          Elapsed time = " + freezeTime + "  checksum = " + total);
+   }
+
+   /** Returns the boxed form of values. */
+   private static Integer[] toBoxed(int[] values) {
+      Integer[] boxed = new Integer[values.length];
+      for (int i = 0; i < values.length; i++) {
+         boxed[i] = Integer.valueOf(values[i]);
+      }
+      return boxed;
+   }
+
+   /** Returns the number of heap bytes in use after a collection. */
+   private static long usedMemory() {
+      Runtime runtime = Runtime.getRuntime();
+      System.gc();
+      return runtime.totalMemory() - runtime.freeMemory();
+   }
+
+   /** Returns n random boxed ints. */
+   private static Integer[] randomValues(int n) {
+      Integer[] values = new Integer[n];
+      for (int i = 0; i < n; i++) {
+         values[i] = RANDOM.nextInt();
+      }
+      return values;
+   }
+
+   /** Prints one line of timing output. */
+   private static void report(int n, String label, double elapsedTime, double previous) {
+      String ratio = (previous == 0) ? " --" : " R value = " + (elapsedTime / previous);
+      System.out.println("Problem size =  " + n + "  " + label + "  Elapsed time = " + elapsedTime + ratio);
+   }
+}
@@ -0,0 +1,1165 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * BitmapSet.java.
+ *
+ * Provides an implementation of the Set interface for Integer values
+ * using a compressed bitmap in the style of Roaring bitmaps. The 32-bit
+ * value space is split into 65536 chunks of 65536 values keyed by the
+ * high 16 bits of each value. Every non-empty chunk is stored in the
+ * cheapest of three containers:
+ *
+ *    array    a sorted char[] of low 16 bits, for sparse chunks
+ *    bitmap   a 1024-word long[] with one bit per value, for dense chunks
+ *    run      sorted char (start, length - 1) pairs, for chunks made of
+ *             long ranges
+ *
+ * Chunk keys have their sign bit flipped so that keys, and therefore
+ * iteration, follow the natural ascending order of Integer, which lets
+ * this class stand in wherever an ArraySet of Integers is used. Set
+ * algebra between two BitmapSets walks both key arrays once and combines
+ * matching chunks container by container, a 64-bit word at a time when
+ * bitmaps are involved.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-21
+ *
+ */
+public class BitmapSet implements Set<Integer> {
+
+   // Chunks with more values than this are stored as bitmaps.
+   private static final int ARRAY_MAX = 4096;
+   // Number of 64-bit words in a bitmap container.
+   private static final int WORDS = 1024;
+   // Bytes taken by each value of an array container, by each run of
+   // a run container, and by a whole bitmap container.
+   private static final int ARRAY_BYTES = 2;
+   private static final int RUN_BYTES = 4;
+   private static final int BITMAP_BYTES = WORDS * 8;
+
+   char[] keys;
+   Container[] containers;
+   int count;
+   int size;
+   // Sum of Set.fingerprintOf over the hash codes of the elements,
+   // when fingerprintValid. addRange and set algebra build whole
+   // containers and leave the sum to be recomputed on first use, so
+   // that they never visit values one at a time.
+   long fingerprint;
+   boolean fingerprintValid;
+
+   /**
+    * Instantiates an empty set.
+    */
+   public BitmapSet() {
+      keys = new char[1];
+      containers = new Container[1];
+      count = 0;
+      size = 0;
+      fingerprintValid = true;
+   }
+
+   /**
+    * Instantiates a set containing the given values.
+    *
+    * @param  values  the values to be placed in this set
+    */
+   public BitmapSet(int[] values) {
+      this();
+      for (int value : values) {
+         add(value);
+      }
+   }
+
+   /**
+    * Returns the current size of this collection.
+    *
+    * @return  the number of elements in this collection.
+    */
+   @Override
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Tests to see if this collection is empty.
+    *
+    * @return  true if this collection contains no elements,
+    *               false otherwise.
+    */
+   @Override
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   /**
+    * Return a string representation of this BitmapSet.
+    *
+    * @return a string representation of this BitmapSet
+    */
+   @Override
+   public String toString() {
+      if (isEmpty()) {
+         return "[]";
+      }
+      StringBuilder result = new StringBuilder();
+      result.append("[");
+      for (Integer element : this) {
+         result.append(element + ", ");
+      }
+      result.delete(result.length() - 2, result.length());
+      result.append("]");
+      return result.toString();
+   }
+
+   /**
+    * Ensures the collection contains the specified value.
+    *
+    * @param  value  The value whose presence is to be ensured.
+    * @return true if collection is changed, false otherwise.
+    */
+   public boolean add(int value) {
+      char key = keyOf(value);
+      int i = locate(key);
+      if (i < 0) {
+         i = -(i + 1);
+         insertContainer(i, key, new ArrayContainer());
+      }
+      Container container = containers[i];
+      int before = container.cardinality();
+      containers[i] = container.add((char) value);
+      if (containers[i].cardinality() == before) {
+         return false;
+      }
+      size++;
+      fingerprint += Set.fingerprintOf(value);
+      return true;
+   }
+
+   /**
+    * Ensures the collection contains the specified element. Null
+    * values are not allowed.
+    *
+    * @param  element  The element whose presence is to be ensured.
+    * @return true if collection is changed, false otherwise.
+    */
+   @Override
+   public boolean add(Integer element) {
+      if (element == null) {
+         return false;
+      }
+      return add(element.intValue());
+   }
+
+   /**
+    * Ensures the collection contains every value in [from..to]. Whole
+    * ranges are stored as run containers rather than value by value,
+    * and a range that meets or overlaps the runs already in a chunk
+    * is merged with them.
+    *
+    * @param  from  the smallest value to add
+    * @param  to    the largest value to add
+    * @return true if collection is changed, false otherwise.
+    */
+   public boolean addRange(int from, int to) {
+      boolean changed = false;
+      long value = from;
+      while (value <= to) {
+         int chunkEnd = (int) value | 0xFFFF;
+         int end = Math.min(chunkEnd, to);
+         char key = keyOf((int) value);
+         Container range = new RunContainer((char) value, (char) end).cheapest();
+         int i = locate(key);
+         if (i < 0) {
+            insertContainer(-(i + 1), key, range);
+            size += range.cardinality();
+            fingerprintValid = false;
+            changed = true;
+         }
+         else {
+            Container before = containers[i];
+            containers[i] = or(before, range);
+            if (containers[i].cardinality() != before.cardinality()) {
+               size += containers[i].cardinality() - before.cardinality();
+               fingerprintValid = false;
+               changed = true;
+            }
+         }
+         value = (long) end + 1;
+      }
+      return changed;
+   }
+
+   /**
+    * Ensures the collection does not contain the specified value.
+    *
+    * @param   value  The value to be removed.
+    * @return  true if collection is changed, false otherwise.
+    */
+   public boolean remove(int value) {
+      int i = locate(keyOf(value));
+      if (i < 0) {
+         return false;
+      }
+      Container container = containers[i];
+      int before = container.cardinality();
+      container = container.remove((char) value);
+      if (container.cardinality() == before) {
+         return false;
+      }
+      size--;
+      fingerprint -= Set.fingerprintOf(value);
+      if (container.cardinality() == 0) {
+         removeContainer(i);
+      }
+      else {
+         containers[i] = container;
+      }
+      return true;
+   }
+
+   /**
+    * Ensures the collection does not contain the specified element.
+    *
+    * @param   element  The element to be removed.
+    * @return  true if collection is changed, false otherwise.
+    */
+   @Override
+   public boolean remove(Integer element) {
+      if (element == null) {
+         return false;
+      }
+      return remove(element.intValue());
+   }
+
+   /**
+    * Searches for the specified value in this collection.
+    *
+    * @param   value  The value whose presence is to be tested.
+    * @return  true if this collection contains the specified value,
+    *               false otherwise.
+    */
+   public boolean contains(int value) {
+      int i = locate(keyOf(value));
+      return i >= 0 && containers[i].contains((char) value);
+   }
+
+   /**
+    * Searches for the specified element in this collection.
+    *
+    * @param   element  The element whose presence is to be tested.
+    * @return  true if this collection contains the specified element,
+    *               false otherwise.
+    */
+   @Override
+   public boolean contains(Integer element) {
+      return element != null && contains(element.intValue());
+   }
+
+   /**
+    * Tests for equality between this set and the parameter set.
+    *
+    * @return  true if this set contains exactly the same elements
+    *               as the parameter set, false otherwise
+    */
+   @Override
+   public boolean equals(Set<Integer> s) {
+      if (size != s.size() || fingerprint() != s.fingerprint()) {
+         return false;
+      }
+      for (Integer element : s) {
+         if (!contains(element)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Returns the fingerprint of this set. add and remove keep it up to
+    * date; after addRange or set algebra it is recomputed once, here,
+    * and then kept up to date again.
+    *
+    * @return  the fingerprint of this set
+    */
+   @Override
+   public long fingerprint() {
+      if (!fingerprintValid) {
+         fingerprint = 0;
+         for (int i = 0; i < count; i++) {
+            fingerprint += fingerprintOf(keys[i], containers[i]);
+         }
+         fingerprintValid = true;
+      }
+      return fingerprint;
+   }
+
+   /**
+    * Returns a set that is the union of this set and the parameter set.
+    *
+    * @return  a set that contains all the elements of this set and
+    *            the parameter set
+    */
+   @Override
+   public Set<Integer> union(Set<Integer> s) {
+      return union(from(s));
+   }
+
+   /**
+    * Returns a set that is the union of this set and the parameter set.
+    * Chunks present in only one set are copied; chunks present in both
+    * are combined container by container.
+    *
+    * @return  a set that contains all the elements of this set and
+    *            the parameter set
+    */
+   public BitmapSet union(BitmapSet s) {
+      BitmapSet result = new BitmapSet(count + s.count);
+      int i = 0;
+      int j = 0;
+      while (i < count && j < s.count) {
+         if (keys[i] < s.keys[j]) {
+            result.append(keys[i], containers[i].copy());
+            i++;
+         }
+         else if (keys[i] > s.keys[j]) {
+            result.append(s.keys[j], s.containers[j].copy());
+            j++;
+         }
+         else {
+            result.append(keys[i], or(containers[i], s.containers[j]));
+            i++;
+            j++;
+         }
+      }
+      for (; i < count; i++) {
+         result.append(keys[i], containers[i].copy());
+      }
+      for (; j < s.count; j++) {
+         result.append(s.keys[j], s.containers[j].copy());
+      }
+      return result;
+   }
+
+   /**
+    * Returns a set that is the intersection of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains elements that are in both
+    *            this set and the parameter set
+    */
+   @Override
+   public Set<Integer> intersection(Set<Integer> s) {
+      if (s instanceof BitmapSet) {
+         return intersection((BitmapSet) s);
+      }
+      BitmapSet result = new BitmapSet();
+      for (Integer element : this) {
+         if (s.contains(element)) {
+            result.add(element.intValue());
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Returns a set that is the intersection of this set and the
+    * parameter set. Only chunks present in both sets are visited.
+    *
+    * @return  a set that contains elements that are in both
+    *            this set and the parameter set
+    */
+   public BitmapSet intersection(BitmapSet s) {
+      BitmapSet result = new BitmapSet(Math.min(count, s.count));
+      int i = 0;
+      int j = 0;
+      while (i < count && j < s.count) {
+         if (keys[i] < s.keys[j]) {
+            i++;
+         }
+         else if (keys[i] > s.keys[j]) {
+            j++;
+         }
+         else {
+            result.append(keys[i], and(containers[i], s.containers[j]));
+            i++;
+            j++;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Returns a set that is the complement of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains elements that are in this
+    *            set but not the parameter set
+    */
+   @Override
+   public Set<Integer> complement(Set<Integer> s) {
+      if (s instanceof BitmapSet) {
+         return complement((BitmapSet) s);
+      }
+      BitmapSet result = new BitmapSet();
+      for (Integer element : this) {
+         if (!s.contains(element)) {
+            result.add(element.intValue());
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Returns a set that is the complement of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains elements that are in this
+    *            set but not the parameter set
+    */
+   public BitmapSet complement(BitmapSet s) {
+      BitmapSet result = new BitmapSet(count);
+      int j = 0;
+      for (int i = 0; i < count; i++) {
+         while (j < s.count && s.keys[j] < keys[i]) {
+            j++;
+         }
+         if (j < s.count && s.keys[j] == keys[i]) {
+            result.append(keys[i], andNot(containers[i], s.containers[j]));
+         }
+         else {
+            result.append(keys[i], containers[i].copy());
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Converts each chunk to a run container where that is smaller than
+    * its current form, and back again where it is not. Worth calling
+    * after loading sets made of long consecutive ranges.
+    */
+   public void runOptimize() {
+      for (int i = 0; i < count; i++) {
+         containers[i] = containers[i].runOptimize();
+      }
+   }
+
+   /**
+    * Returns an iterator over the elements in this set in ascending
+    * order.
+    *
+    * @return  an iterator over the elements in this set
+    */
+   @Override
+   public Iterator<Integer> iterator() {
+      return
+         new Iterator<Integer>() {
+            private int chunk = 0;
+            private int low = (count == 0) ? -1 : containers[0].nextValue(0);
+
+            @Override
+            public boolean hasNext() {
+               return low >= 0;
+            }
+
+            @Override
+            public Integer next() {
+               if (!hasNext()) {
+                  throw new NoSuchElementException();
+               }
+               int value = valueOf(keys[chunk], low);
+               low = containers[chunk].nextValue(low + 1);
+               while (low < 0 && chunk + 1 < count) {
+                  chunk++;
+                  low = containers[chunk].nextValue(0);
+               }
+               return value;
+            }
+
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+   }
+
+   /**
+   * Instantiates an empty set with room for the given number of chunks.
+   */
+   private BitmapSet(int chunks) {
+      keys = new char[Math.max(1, chunks)];
+      containers = new Container[Math.max(1, chunks)];
+      count = 0;
+      size = 0;
+      fingerprintValid = true;
+   }
+
+   /**
+   * Returns s as a BitmapSet, copying it if it is some other Set.
+   */
+   private static BitmapSet from(Set<Integer> s) {
+      if (s instanceof BitmapSet) {
+         return (BitmapSet) s;
+      }
+      BitmapSet result = new BitmapSet();
+      for (Integer element : s) {
+         result.add(element);
+      }
+      return result;
+   }
+
+   /**
+   * Returns the chunk key of value with its sign bit flipped so that
+   * unsigned key order matches signed value order.
+   */
+   private static char keyOf(int value) {
+      return (char) ((value >>> 16) ^ 0x8000);
+   }
+
+   /**
+   * Rebuilds the value with the given chunk key and low 16 bits.
+   */
+   private static int valueOf(char key, int low) {
+      return ((key ^ 0x8000) << 16) | low;
+   }
+
+   /**
+   * Finds the chunk with the given key, or returns -(insertion point) - 1.
+   */
+   private int locate(char key) {
+      return Arrays.binarySearch(keys, 0, count, key);
+   }
+
+   /**
+   * Inserts a container for key at position i.
+   */
+   private void insertContainer(int i, char key, Container container) {
+      if (count == keys.length) {
+         keys = Arrays.copyOf(keys, count * 2);
+         containers = Arrays.copyOf(containers, count * 2);
+      }
+      System.arraycopy(keys, i, keys, i + 1, count - i);
+      System.arraycopy(containers, i, containers, i + 1, count - i);
+      keys[i] = key;
+      containers[i] = container;
+      count++;
+   }
+
+   /**
+   * Removes the container at position i.
+   */
+   private void removeContainer(int i) {
+      System.arraycopy(keys, i + 1, keys, i, count - i - 1);
+      System.arraycopy(containers, i + 1, containers, i, count - i - 1);
+      count--;
+      containers[count] = null;
+   }
+
+   /**
+   * Appends a container whose key is larger than every current key.
+   * Empty containers are dropped. The fingerprint is left to be
+   * recomputed.
+   */
+   private void append(char key, Container container) {
+      if (container.cardinality() == 0) {
+         return;
+      }
+      insertContainer(count, key, container);
+      size += container.cardinality();
+      fingerprintValid = false;
+   }
+
+   /**
+   * Returns the sum of the fingerprints of the values in one chunk.
+   */
+   private static long fingerprintOf(char key, Container container) {
+      long fingerprint = 0;
+      for (int low = container.nextValue(0); low >= 0; low = container.nextValue(low + 1)) {
+         fingerprint += Set.fingerprintOf(valueOf(key, low));
+      }
+      return fingerprint;
+   }
+
+   /**
+   * Returns the union of two containers.
+   */
+   private static Container or(Container a, Container b) {
+      if (a instanceof RunContainer || b instanceof RunContainer) {
+         if (a instanceof BitmapContainer || b instanceof BitmapContainer) {
+            return orBitmaps(a, b).runOptimize();
+         }
+         RunContainer x = (a instanceof RunContainer) ? (RunContainer) a : RunContainer.of(a);
+         RunContainer y = (b instanceof RunContainer) ? (RunContainer) b : RunContainer.of(b);
+         return RunContainer.union(x, y);
+      }
+      if (a instanceof ArrayContainer && b instanceof ArrayContainer) {
+         ArrayContainer x = (ArrayContainer) a;
+         ArrayContainer y = (ArrayContainer) b;
+         char[] merged = new char[x.cardinality + y.cardinality];
+         int i = 0;
+         int j = 0;
+         int k = 0;
+         while (i < x.cardinality && j < y.cardinality) {
+            char u = x.values[i];
+            char v = y.values[j];
+            merged[k] = (u <= v) ? u : v;
+            i += (u <= v) ? 1 : 0;
+            j += (v <= u) ? 1 : 0;
+            k++;
+         }
+         System.arraycopy(x.values, i, merged, k, x.cardinality - i);
+         k += x.cardinality - i;
+         System.arraycopy(y.values, j, merged, k, y.cardinality - j);
+         k += y.cardinality - j;
+         ArrayContainer result = new ArrayContainer(merged, k);
+         return (k > ARRAY_MAX) ? result.toBitmap() : result;
+      }
+      return orBitmaps(a, b);
+   }
+
+   /**
+   * Returns the union of two containers, at least one of which is not
+   * an array container, computed a word at a time.
+   */
+   private static Container orBitmaps(Container a, Container b) {
+      BitmapContainer result = (a instanceof BitmapContainer) ? a.toBitmap() : b.toBitmap();
+      Container other = (a instanceof BitmapContainer) ? b : a;
+      if (other instanceof BitmapContainer) {
+         long[] words = ((BitmapContainer) other).words;
+         for (int w = 0; w < WORDS; w++) {
+            result.words[w] |= words[w];
+         }
+      }
+      else {
+         other.setBits(result.words);
+      }
+      return result.recount();
+   }
+
+   /**
+   * Returns the intersection of two containers.
+   */
+   private static Container and(Container a, Container b) {
+      if (a instanceof ArrayContainer || b instanceof ArrayContainer) {
+         ArrayContainer x = (ArrayContainer) ((a instanceof ArrayContainer) ? a : b);
+         Container other = (a instanceof ArrayContainer) ? b : a;
+         char[] kept = new char[x.cardinality];
+         int k = 0;
+         for (int i = 0; i < x.cardinality; i++) {
+            if (other.contains(x.values[i])) {
+               kept[k] = x.values[i];
+               k++;
+            }
+         }
+         return new ArrayContainer(kept, k);
+      }
+      BitmapContainer result = a.toBitmap();
+      long[] words = (b instanceof BitmapContainer) ? ((BitmapContainer) b).words
+                                                    : b.toBitmap().words;
+      for (int w = 0; w < WORDS; w++) {
+         result.words[w] &= words[w];
+      }
+      return result.recount();
+   }
+
+   /**
+   * Returns the values of container a that are not in container b.
+   */
+   private static Container andNot(Container a, Container b) {
+      if (a instanceof ArrayContainer) {
+         ArrayContainer x = (ArrayContainer) a;
+         char[] kept = new char[x.cardinality];
+         int k = 0;
+         for (int i = 0; i < x.cardinality; i++) {
+            if (!b.contains(x.values[i])) {
+               kept[k] = x.values[i];
+               k++;
+            }
+         }
+         return new ArrayContainer(kept, k);
+      }
+      BitmapContainer result = a.toBitmap();
+      long[] words = (b instanceof BitmapContainer) ? ((BitmapContainer) b).words
+                                                    : b.toBitmap().words;
+      for (int w = 0; w < WORDS; w++) {
+         result.words[w] &= ~words[w];
+      }
+      return result.recount();
+   }
+
+   /**
+   * The values of one chunk, stored as their low 16 bits.
+   */
+   private abstract static class Container {
+      /** Returns the number of values in this container. */
+      abstract int cardinality();
+
+      /** Tests whether low is in this container. */
+      abstract boolean contains(char low);
+
+      /** Adds low, returning this container or its replacement. */
+      abstract Container add(char low);
+
+      /** Removes low, returning this container or its replacement. */
+      abstract Container remove(char low);
+
+      /** Returns the smallest value >= from, or -1 if there is none. */
+      abstract int nextValue(int from);
+
+      /** Sets the bit of every value of this container in words. */
+      abstract void setBits(long[] words);
+
+      /** Returns an independent copy of this container. */
+      abstract Container copy();
+
+      /** Returns the smaller of this container and its run form. */
+      abstract Container runOptimize();
+
+      /** Returns a new bitmap container holding the same values. */
+      BitmapContainer toBitmap() {
+         BitmapContainer bitmap = new BitmapContainer();
+         setBits(bitmap.words);
+         bitmap.cardinality = cardinality();
+         return bitmap;
+      }
+   }
+
+   /**
+   * A sorted array of at most ARRAY_MAX values.
+   */
+   private static final class ArrayContainer extends Container {
+      char[] values;
+      int cardinality;
+
+      ArrayContainer() {
+         this(new char[4], 0);
+      }
+
+      ArrayContainer(char[] values, int cardinality) {
+         this.values = values;
+         this.cardinality = cardinality;
+      }
+
+      @Override
+      int cardinality() {
+         return cardinality;
+      }
+
+      @Override
+      boolean contains(char low) {
+         return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+      }
+
+      @Override
+      Container add(char low) {
+         int i = Arrays.binarySearch(values, 0, cardinality, low);
+         if (i >= 0) {
+            return this;
+         }
+         if (cardinality == ARRAY_MAX) {
+            return toBitmap().add(low);
+         }
+         i = -(i + 1);
+         if (cardinality == values.length) {
+            values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+         }
+         System.arraycopy(values, i, values, i + 1, cardinality - i);
+         values[i] = low;
+         cardinality++;
+         return this;
+      }
+
+      @Override
+      Container remove(char low) {
+         int i = Arrays.binarySearch(values, 0, cardinality, low);
+         if (i >= 0) {
+            System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+            cardinality--;
+         }
+         return this;
+      }
+
+      @Override
+      int nextValue(int from) {
+         if (from > 0xFFFF) {
+            return -1;
+         }
+         int i = Arrays.binarySearch(values, 0, cardinality, (char) from);
+         if (i < 0) {
+            i = -(i + 1);
+         }
+         return (i < cardinality) ? values[i] : -1;
+      }
+
+      @Override
+      void setBits(long[] words) {
+         for (int i = 0; i < cardinality; i++) {
+            words[values[i] >>> 6] |= 1L << values[i];
+         }
+      }
+
+      @Override
+      Container copy() {
+         return new ArrayContainer(Arrays.copyOf(values, Math.max(1, cardinality)), cardinality);
+      }
+
+      @Override
+      Container runOptimize() {
+         int runs = 0;
+         for (int i = 0; i < cardinality; i++) {
+            if (i == 0 || values[i] != values[i - 1] + 1) {
+               runs++;
+            }
+         }
+         return (RUN_BYTES * runs < ARRAY_BYTES * cardinality) ? RunContainer.of(this) : this;
+      }
+   }
+
+   /**
+   * One bit for each of the 65536 possible values.
+   */
+   private static final class BitmapContainer extends Container {
+      long[] words = new long[WORDS];
+      int cardinality;
+
+      @Override
+      int cardinality() {
+         return cardinality;
+      }
+
+      @Override
+      boolean contains(char low) {
+         return (words[low >>> 6] & (1L << low)) != 0;
+      }
+
+      @Override
+      Container add(char low) {
+         long before = words[low >>> 6];
+         words[low >>> 6] = before | (1L << low);
+         if (words[low >>> 6] != before) {
+            cardinality++;
+         }
+         return this;
+      }
+
+      @Override
+      Container remove(char low) {
+         long before = words[low >>> 6];
+         words[low >>> 6] = before & ~(1L << low);
+         if (words[low >>> 6] != before) {
+            cardinality--;
+            if (cardinality <= ARRAY_MAX) {
+               return toArray();
+            }
+         }
+         return this;
+      }
+
+      @Override
+      int nextValue(int from) {
+         int w = from >>> 6;
+         if (w >= WORDS) {
+            return -1;
+         }
+         long word = words[w] & (-1L << from);
+         while (word == 0) {
+            w++;
+            if (w == WORDS) {
+               return -1;
+            }
+            word = words[w];
+         }
+         return (w << 6) + Long.numberOfTrailingZeros(word);
+      }
+
+      @Override
+      void setBits(long[] target) {
+         for (int w = 0; w < WORDS; w++) {
+            target[w] |= words[w];
+         }
+      }
+
+      @Override
+      Container copy() {
+         BitmapContainer bitmap = new BitmapContainer();
+         System.arraycopy(words, 0, bitmap.words, 0, WORDS);
+         bitmap.cardinality = cardinality;
+         return bitmap;
+      }
+
+      @Override
+      BitmapContainer toBitmap() {
+         return (BitmapContainer) copy();
+      }
+
+      @Override
+      Container runOptimize() {
+         int runs = 0;
+         long carry = 0;
+         for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            runs += Long.bitCount(word & ~((word << 1) | carry));
+            carry = word >>> 63;
+         }
+         return (RUN_BYTES * runs < BITMAP_BYTES) ? RunContainer.of(this) : this;
+      }
+
+      /** Recomputes the cardinality and shrinks to an array if small. */
+      Container recount() {
+         int total = 0;
+         for (int w = 0; w < WORDS; w++) {
+            total += Long.bitCount(words[w]);
+         }
+         cardinality = total;
+         return (cardinality <= ARRAY_MAX) ? toArray() : this;
+      }
+
+      /** Returns an array container holding the same values. */
+      ArrayContainer toArray() {
+         char[] values = new char[Math.max(1, cardinality)];
+         int k = 0;
+         for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+               values[k] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+               k++;
+               word &= word - 1;
+            }
+         }
+         return new ArrayContainer(values, k);
+      }
+   }
+
+   /**
+   * Sorted, disjoint, non-adjacent runs of consecutive values, stored
+   * as in Roaring as char pairs: the start of each run and its length
+   * minus one. Each run therefore costs RUN_BYTES.
+   */
+   private static final class RunContainer extends Container {
+      char[] pairs;
+      int runs;
+      int cardinality;
+
+      RunContainer(char start, char end) {
+         pairs = new char[] {start, (char) (end - start)};
+         runs = 1;
+         cardinality = end - start + 1;
+      }
+
+      private RunContainer(char[] pairs, int runs, int cardinality) {
+         this.pairs = pairs;
+         this.runs = runs;
+         this.cardinality = cardinality;
+      }
+
+      /** Returns the run form of the given container. */
+      static RunContainer of(Container container) {
+         RunContainer result = new RunContainer(new char[8], 0, container.cardinality());
+         int value = container.nextValue(0);
+         while (value >= 0) {
+            int end = value;
+            while (end < 0xFFFF && container.contains((char) (end + 1))) {
+               end++;
+            }
+            result.insertRun(result.runs, value, end);
+            value = container.nextValue(end + 1);
+         }
+         return result;
+      }
+
+      /** Returns the union of two run containers in its cheapest form. */
+      static Container union(RunContainer x, RunContainer y) {
+         RunContainer result = new RunContainer(new char[2 * (x.runs + y.runs)], 0, 0);
+         int i = 0;
+         int j = 0;
+         while (i < x.runs || j < y.runs) {
+            boolean fromX = j == y.runs || (i < x.runs && x.start(i) <= y.start(j));
+            int start = fromX ? x.start(i) : y.start(j);
+            int end = fromX ? x.end(i) : y.end(j);
+            if (fromX) {
+               i++;
+            }
+            else {
+               j++;
+            }
+            int last = result.runs - 1;
+            if (last >= 0 && start <= result.end(last) + 1) {
+               if (end > result.end(last)) {
+                  result.cardinality += end - result.end(last);
+                  result.pairs[2 * last + 1] = (char) (end - result.start(last));
+               }
+            }
+            else {
+               result.insertRun(result.runs, start, end);
+               result.cardinality += end - start + 1;
+            }
+         }
+         return result.cheapest();
+      }
+
+      @Override
+      int cardinality() {
+         return cardinality;
+      }
+
+      @Override
+      boolean contains(char low) {
+         int i = runOf(low);
+         return i >= 0 && low <= end(i);
+      }
+
+      @Override
+      Container add(char low) {
+         int i = runOf(low);
+         if (i >= 0 && low <= end(i)) {
+            return this;
+         }
+         boolean joinsLeft = i >= 0 && end(i) + 1 == low;
+         boolean joinsRight = i + 1 < runs && start(i + 1) == low + 1;
+         if (joinsLeft && joinsRight) {
+            setRun(i, start(i), end(i + 1));
+            deleteRun(i + 1);
+         }
+         else if (joinsLeft) {
+            setRun(i, start(i), low);
+         }
+         else if (joinsRight) {
+            setRun(i + 1, low, end(i + 1));
+         }
+         else {
+            insertRun(i + 1, low, low);
+         }
+         cardinality++;
+         return cheapest();
+      }
+
+      @Override
+      Container remove(char low) {
+         int i = runOf(low);
+         if (i < 0 || low > end(i)) {
+            return this;
+         }
+         int start = start(i);
+         int end = end(i);
+         if (start == end) {
+            deleteRun(i);
+         }
+         else if (low == start) {
+            setRun(i, start + 1, end);
+         }
+         else if (low == end) {
+            setRun(i, start, end - 1);
+         }
+         else {
+            setRun(i, start, low - 1);
+            insertRun(i + 1, low + 1, end);
+         }
+         cardinality--;
+         return cheapest();
+      }
+
+      @Override
+      int nextValue(int from) {
+         if (from > 0xFFFF) {
+            return -1;
+         }
+         int i = runOf(from);
+         if (i >= 0 && from <= end(i)) {
+            return from;
+         }
+         return (i + 1 < runs) ? start(i + 1) : -1;
+      }
+
+      @Override
+      void setBits(long[] words) {
+         for (int r = 0; r < runs; r++) {
+            int start = start(r);
+            int end = end(r);
+            int firstWord = start >>> 6;
+            int lastWord = end >>> 6;
+            long firstMask = -1L << start;
+            long lastMask = -1L >>> (63 - (end & 63));
+            if (firstWord == lastWord) {
+               words[firstWord] |= firstMask & lastMask;
+            }
+            else {
+               words[firstWord] |= firstMask;
+               for (int w = firstWord + 1; w < lastWord; w++) {
+                  words[w] = -1L;
+               }
+               words[lastWord] |= lastMask;
+            }
+         }
+      }
+
+      @Override
+      Container copy() {
+         return new RunContainer(Arrays.copyOf(pairs, Math.max(2, 2 * runs)), runs, cardinality);
+      }
+
+      @Override
+      Container runOptimize() {
+         return cheapest();
+      }
+
+      /**
+       * Returns this container if runs are its cheapest form, and an
+       * array or bitmap container holding the same values otherwise.
+       */
+      Container cheapest() {
+         if (RUN_BYTES * runs <= Math.min(ARRAY_BYTES * cardinality, BITMAP_BYTES)) {
+            return this;
+         }
+         BitmapContainer bitmap = toBitmap();
+         return (cardinality <= ARRAY_MAX) ? bitmap.toArray() : bitmap;
+      }
+
+      /** Returns the first value of run r. */
+      private int start(int r) {
+         return pairs[2 * r];
+      }
+
+      /** Returns the last value of run r. */
+      private int end(int r) {
+         return pairs[2 * r] + pairs[2 * r + 1];
+      }
+
+      /** Returns the last run starting at or before value, or -1. */
+      private int runOf(int value) {
+         int lo = 0;
+         int hi = runs - 1;
+         while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (start(mid) <= value) {
+               lo = mid + 1;
+            }
+            else {
+               hi = mid - 1;
+            }
+         }
+         return hi;
+      }
+
+      private void setRun(int i, int start, int end) {
+         pairs[2 * i] = (char) start;
+         pairs[2 * i + 1] = (char) (end - start);
+      }
+
+      private void insertRun(int i, int start, int end) {
+         if (2 * runs == pairs.length) {
+            pairs = Arrays.copyOf(pairs, Math.max(2, 4 * runs));
+         }
+         System.arraycopy(pairs, 2 * i, pairs, 2 * i + 2, 2 * (runs - i));
+         runs++;
+         setRun(i, start, end);
+      }
+
+      private void deleteRun(int i) {
+         System.arraycopy(pairs, 2 * i + 2, pairs, 2 * i, 2 * (runs - i - 1));
+         runs--;
+      }
+   }
+}
@@ -0,0 +1,161 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Provides JUnit test cases for the BitmapSet class.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class BitmapSetTest {
+
+   @Test
+   public void testEmpty() {
+      BitmapSet set = new BitmapSet(new int[0]);
+      assertTrue(set.isEmpty());
+      assertEquals("[]", set.toString());
+      assertFalse(set.contains(0));
+      assertFalse(set.remove(0));
+      assertFalse(set.iterator().hasNext());
+   }
+
+   @Test
+   public void testDuplicatesAndOrder() {
+      BitmapSet set = new BitmapSet(new int[] {70000, -1, 3, 70000, -1});
+      assertEquals(3, set.size());
+      assertEquals("[-1, 3, 70000]", set.toString());
+      assertFalse(set.add(3));
+      assertFalse(set.add((Integer) null));
+   }
+
+   @Test
+   public void testExtremes() {
+      BitmapSet set = new BitmapSet(new int[] {Integer.MAX_VALUE, 0, Integer.MIN_VALUE});
+      assertEquals("[" + Integer.MIN_VALUE + ", 0, " + Integer.MAX_VALUE + "]", set.toString());
+      assertTrue(set.remove(Integer.MIN_VALUE));
+      assertTrue(set.remove(Integer.MAX_VALUE));
+      assertEquals("[0]", set.toString());
+   }
+
+   @Test
+   public void testAddRangeAcrossChunks() {
+      BitmapSet set = new BitmapSet();
+      assertTrue(set.addRange(65530, 65545));
+      assertEquals(16, set.size());
+      assertTrue(set.contains(65535));
+      assertTrue(set.contains(65536));
+      assertFalse(set.contains(65546));
+      assertFalse(set.addRange(65531, 65540));
+   }
+
+   @Test
+   public void testAddRangeEmptyWhenLowAboveHigh() {
+      BitmapSet set = new BitmapSet(new int[] {5});
+      assertFalse(set.addRange(10, 9));
+      assertEquals("[5]", set.toString());
+   }
+
+   @Test
+   public void testAddRangeAtExtremes() {
+      BitmapSet set = new BitmapSet();
+      assertTrue(set.addRange(Integer.MAX_VALUE - 2, Integer.MAX_VALUE));
+      assertTrue(set.addRange(Integer.MIN_VALUE, Integer.MIN_VALUE + 1));
+      assertEquals("[" + Integer.MIN_VALUE + ", " + (Integer.MIN_VALUE + 1) + ", "
+         + (Integer.MAX_VALUE - 2) + ", " + (Integer.MAX_VALUE - 1) + ", "
+         + Integer.MAX_VALUE + "]", set.toString());
+   }
+
+   @Test
+   public void testAddRangeMergesWithValues() {
+      BitmapSet set = new BitmapSet(new int[] {1, 50, 200});
+      assertTrue(set.addRange(10, 100));
+      assertEquals(93, set.size());
+      assertTrue(set.contains(1));
+      assertTrue(set.contains(50));
+      assertTrue(set.contains(200));
+      assertTrue(set.remove(50));
+      assertFalse(set.contains(50));
+      assertEquals(92, set.size());
+   }
+
+   @Test
+   public void testDenseChunkRoundTrip() {
+      BitmapSet set = new BitmapSet();
+      ArraySet<Integer> expected = new ArraySet<Integer>();
+      for (int i = 0; i < 10000; i++) {
+         set.add(i * 3);
+         expected.add(i * 3);
+      }
+      for (int i = 0; i < 10000; i += 2) {
+         set.remove(i * 3);
+         expected.remove(i * 3);
+      }
+      set.runOptimize();
+      assertEquals(expected.size(), set.size());
+      assertTrue(set.equals(expected));
+      assertTrue(expected.equals(set));
+   }
+
+   @Test
+   public void testAlgebraAgainstArraySet() {
+      BitmapSet a = new BitmapSet();
+      a.addRange(0, 9999);
+      a.add(Integer.MIN_VALUE);
+      BitmapSet b = new BitmapSet();
+      ArraySet<Integer> c = new ArraySet<Integer>();
+      for (int i = 5000; i < 100000; i += 7) {
+         b.add(i);
+         c.add(i);
+      }
+      assertTrue(a.union(b).equals(a.union(c)));
+      assertTrue(a.intersection(b).equals(a.intersection(c)));
+      assertTrue(a.complement(b).equals(a.complement(c)));
+      assertEquals(10001 - 715, a.complement(b).size());
+   }
+
+   @Test
+   public void testFingerprintAfterRangesAndAlgebra() {
+      BitmapSet a = new BitmapSet();
+      a.addRange(Integer.MIN_VALUE, Integer.MIN_VALUE + 70000);
+      a.addRange(Integer.MAX_VALUE - 10, Integer.MAX_VALUE);
+      assertEquals(expectedFingerprint(a), a.fingerprint());
+      a.add(0);
+      a.remove(Integer.MAX_VALUE);
+      assertEquals(expectedFingerprint(a), a.fingerprint());
+      BitmapSet b = new BitmapSet(new int[] {Integer.MIN_VALUE, 5, 0, Integer.MAX_VALUE});
+      Set<Integer> union = a.union(b);
+      Set<Integer> intersection = a.intersection(b);
+      Set<Integer> complement = a.complement(b);
+      assertEquals(expectedFingerprint(union), union.fingerprint());
+      assertEquals(expectedFingerprint(intersection), intersection.fingerprint());
+      assertEquals(expectedFingerprint(complement), complement.fingerprint());
+      intersection.add(7);
+      assertEquals(expectedFingerprint(intersection), intersection.fingerprint());
+      assertEquals(0, a.intersection(new BitmapSet()).fingerprint());
+   }
+
+   @Test(expected = NoSuchElementException.class)
+   public void testIteratorPastEnd() {
+      Iterator<Integer> it = new BitmapSet(new int[] {1}).iterator();
+      it.next();
+      it.next();
+   }
+
+
+   /**
+    * Returns the fingerprint of set, recomputed from its elements.
+    */
+   private static long expectedFingerprint(Set<Integer> set) {
+      long fingerprint = 0;
+      for (Integer element : set) {
+         fingerprint += Set.fingerprintOf(element.hashCode());
+      }
+      return fingerprint;
+   }
+}
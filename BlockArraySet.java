@@ -0,0 +1,768 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * BlockArraySet.java.
+ *
+ * Provides an implementation of the Set interface as a sequence of
+ * sorted blocks, each holding at most blockCapacity elements. A
+ * separate array of block minimums is binary searched to find the
+ * block that may hold an element, and the block itself is then
+ * binary searched. An add or remove only shifts elements within one
+ * block, plus the block index when a block is split or dropped, so
+ * with blocks of capacity c both take O(c + n/c) instead of the O(n)
+ * shift in ArraySet.
+ *
+ * A set made with the no-argument constructor keeps c near sqrt(n),
+ * so add and remove take O(sqrt(n)) amortized: whenever its size
+ * grows past 4c^2 or falls below c^2/16 it rebuilds its blocks with
+ * c the power of two at or above sqrt(n), never less than
+ * MIN_BLOCK_CAPACITY. Each rebuild costs O(n) and follows a change in
+ * size proportional to n. A set made with an explicit block capacity
+ * keeps it.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ *
+ */
+public class BlockArraySet<T extends Comparable<? super T>> implements Set<T> {
+
+   // Smallest block capacity a set made with the no-argument
+   // constructor uses.
+   public static final int MIN_BLOCK_CAPACITY = 64;
+
+   // Operations for combine.
+   private static final int UNION = 0;
+   private static final int INTERSECTION = 1;
+   private static final int COMPLEMENT = 2;
+
+   // blocks[b] holds sizes[b] elements in ascending order, and
+   // mins[b] == blocks[b][0]. Only the first blockCount are in use.
+   private T[][] blocks;
+   private T[] mins;
+   private int[] sizes;
+   private int blockCount;
+   private int size;
+   private long fingerprint;
+   private int blockCapacity;
+
+   // Whether blockCapacity follows sqrt(size), and the sizes past
+   // which it no longer does.
+   private final boolean adaptive;
+   private long growAt;
+   private long shrinkAt;
+
+   /**
+    * Instantiates an empty set whose block capacity follows the
+    * square root of its size.
+    */
+   public BlockArraySet() {
+      this(MIN_BLOCK_CAPACITY, true);
+   }
+
+   /**
+    * Instantiates an empty set whose blocks hold at most
+    * blockCapacity elements.
+    *
+    * @param  blockCapacity  the largest number of elements in a block
+    * @throws IllegalArgumentException if blockCapacity is less than 2
+    */
+   public BlockArraySet(int blockCapacity) {
+      this(blockCapacity, false);
+      if (blockCapacity < 2) {
+         throw new IllegalArgumentException();
+      }
+   }
+
+   /**
+    * Instantiates an empty set with the given block capacity, which
+    * follows its size if adaptive is true.
+    */
+   @SuppressWarnings("unchecked")
+   private BlockArraySet(int blockCapacity, boolean adaptive) {
+      this.blockCapacity = blockCapacity;
+      this.adaptive = adaptive;
+      blocks = (T[][]) new Comparable[1][];
+      mins = (T[]) new Comparable[1];
+      sizes = new int[1];
+      setThresholds();
+   }
+
+   /**
+    * Returns the current size of this collection.
+    *
+    * @return  the number of elements in this collection.
+    */
+   @Override
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Tests to see if this collection is empty.
+    *
+    * @return  true if this collection contains no elements,
+    *               false otherwise.
+    */
+   @Override
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   /**
+    * Return a string representation of this BlockArraySet.
+    *
+    * @return a string representation of this BlockArraySet
+    */
+   @Override
+   public String toString() {
+      if (isEmpty()) {
+         return "[]";
+      }
+      StringBuilder result = new StringBuilder();
+      result.append("[");
+      for (T element : this) {
+         result.append(element + ", ");
+      }
+      result.delete(result.length() - 2, result.length());
+      result.append("]");
+      return result.toString();
+   }
+
+   /**
+    * Ensures the collection contains the specified element. A full
+    * block is split in half before the element is inserted.
+    *
+    * @param   element  The element whose presence is to be ensured.
+    * @return  true if collection is changed, false otherwise.
+    */
+   @Override
+   public boolean add(T element) {
+      if (element == null) {
+         return false;
+      }
+      if (blockCount == 0) {
+         insertBlock(0, newBlock());
+         blocks[0][0] = element;
+         mins[0] = element;
+         sizes[0] = 1;
+         size = 1;
+         fingerprint = Set.fingerprintOf(element.hashCode());
+         return true;
+      }
+      int b = blockOf(element);
+      int i = indexIn(b, element);
+      if (i >= 0) {
+         return false;
+      }
+      i = -(i + 1);
+      if (sizes[b] == blockCapacity) {
+         split(b);
+         if (i > sizes[b]) {
+            i -= sizes[b];
+            b++;
+         }
+      }
+      T[] block = blocks[b];
+      System.arraycopy(block, i, block, i + 1, sizes[b] - i);
+      block[i] = element;
+      sizes[b]++;
+      mins[b] = block[0];
+      size++;
+      fingerprint += Set.fingerprintOf(element.hashCode());
+      rebalance();
+      return true;
+   }
+
+   /**
+    * Ensures the collection does not contain the specified element.
+    * An emptied block is dropped, and a block that falls below a
+    * quarter full is merged with a neighbor when the two fit in half
+    * a block.
+    *
+    * @param   element  The element to be removed.
+    * @return  true if collection is changed, false otherwise.
+    */
+   @Override
+   public boolean remove(T element) {
+      if (element == null || blockCount == 0) {
+         return false;
+      }
+      int b = blockOf(element);
+      int i = indexIn(b, element);
+      if (i < 0) {
+         return false;
+      }
+      T[] block = blocks[b];
+      System.arraycopy(block, i + 1, block, i, sizes[b] - i - 1);
+      sizes[b]--;
+      block[sizes[b]] = null;
+      size--;
+      fingerprint -= Set.fingerprintOf(element.hashCode());
+      if (sizes[b] == 0) {
+         removeBlock(b);
+      }
+      else {
+         mins[b] = block[0];
+         if (sizes[b] < blockCapacity / 4) {
+            if (b + 1 < blockCount && sizes[b] + sizes[b + 1] <= blockCapacity / 2) {
+               merge(b);
+            }
+            else if (b > 0 && sizes[b - 1] + sizes[b] <= blockCapacity / 2) {
+               merge(b - 1);
+            }
+         }
+      }
+      rebalance();
+      return true;
+   }
+
+   /**
+    * Searches for the specified element in this collection.
+    *
+    * @param   element  The element whose presence in this collection
+    *                   is to be tested.
+    * @return  true if this collection contains the specified element,
+    *               false otherwise.
+    */
+   @Override
+   public boolean contains(T element) {
+      if (element == null || blockCount == 0) {
+         return false;
+      }
+      return indexIn(blockOf(element), element) >= 0;
+   }
+
+   /**
+    * Returns the fingerprint maintained by add and remove.
+    *
+    * @return  the fingerprint of this set
+    */
+   @Override
+   public long fingerprint() {
+      return fingerprint;
+   }
+
+   /**
+    * Tests for equality between this set and the parameter set.
+    * Fingerprints are compared only when the elements' natural
+    * ordering is consistent with equals; see ArraySet.hashConsistent.
+    *
+    * @return  true if this set contains exactly the same elements
+    *               as the parameter set, false otherwise
+    */
+   @Override
+   public boolean equals(Set<T> s) {
+      if (size != s.size()) {
+         return false;
+      }
+      if (size > 0 && ArraySet.hashConsistent(mins[0]) && fingerprint != s.fingerprint()) {
+         return false;
+      }
+      for (T element : s) {
+         if (!contains(element)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Returns a set that is the union of this set and the parameter set.
+    * See combine for how the two sets are merged.
+    *
+    * @return  a set that contains all the elements of this set and
+    *            the parameter set
+    */
+   @Override
+   public Set<T> union(Set<T> s) {
+      return combine(s, UNION);
+   }
+
+   /**
+    * Returns a set that is the intersection of this set and the
+    * parameter set. See combine for how the two sets are merged.
+    *
+    * @return  a set that contains elements that are in both
+    *            this set and the parameter set
+    */
+   @Override
+   public Set<T> intersection(Set<T> s) {
+      return combine(s, INTERSECTION);
+   }
+
+   /**
+    * Returns a set that is the complement of this set and the
+    * parameter set. See combine for how the two sets are merged.
+    *
+    * @return  a set that contains elements that are in this
+    *            set but not the parameter set
+    */
+   @Override
+   public Set<T> complement(Set<T> s) {
+      return combine(s, COMPLEMENT);
+   }
+
+   /**
+    * Returns an iterator over the elements in this set in
+    * ascending order.
+    *
+    * @return  an iterator over the elements in this set
+    */
+   @Override
+   public Iterator<T> iterator() {
+      return
+         new Iterator<T>() {
+            private int block = 0;
+            private int current = 0;
+
+            @Override
+            public boolean hasNext() {
+               return block < blockCount;
+            }
+
+            @Override
+            public T next() {
+               if (!hasNext()) {
+                  throw new NoSuchElementException();
+               }
+               T element = blocks[block][current];
+               current++;
+               if (current == sizes[block]) {
+                  block++;
+                  current = 0;
+               }
+               return element;
+            }
+
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+   }
+
+   /**
+    * Returns a spliterator over the elements in this set in ascending
+    * order. It splits on block boundaries, so a split costs O(1) and
+    * each half still knows its exact size.
+    *
+    * @return  a spliterator over the elements in this set
+    */
+   @Override
+   public Spliterator<T> spliterator() {
+      return new BlockSpliterator(0, blockCount, size);
+   }
+
+   /**
+   * Traverses the blocks in [block, end), holding remaining elements.
+   */
+   private final class BlockSpliterator implements Spliterator<T> {
+      private int block;
+      private int current;
+      private final int end;
+      private long remaining;
+
+      BlockSpliterator(int block, int end, long remaining) {
+         this.block = block;
+         this.end = end;
+         this.remaining = remaining;
+      }
+
+      @Override
+      public boolean tryAdvance(Consumer<? super T> action) {
+         if (block >= end) {
+            return false;
+         }
+         action.accept(blocks[block][current]);
+         current++;
+         remaining--;
+         if (current == sizes[block]) {
+            block++;
+            current = 0;
+         }
+         return true;
+      }
+
+      @Override
+      public void forEachRemaining(Consumer<? super T> action) {
+         for (; block < end; block++) {
+            T[] items = blocks[block];
+            int n = sizes[block];
+            for (int i = current; i < n; i++) {
+               action.accept(items[i]);
+            }
+            current = 0;
+         }
+         remaining = 0;
+      }
+
+      @Override
+      public Spliterator<T> trySplit() {
+         int mid = (block + 1 + end) >>> 1;
+         if (mid >= end || mid <= block) {
+            return null;
+         }
+         long prefixSize = sizes[block] - current;
+         for (int b = block + 1; b < mid; b++) {
+            prefixSize += sizes[b];
+         }
+         BlockSpliterator prefix = new BlockSpliterator(block, mid, prefixSize);
+         prefix.current = current;
+         block = mid;
+         current = 0;
+         remaining -= prefixSize;
+         return prefix;
+      }
+
+      @Override
+      public long estimateSize() {
+         return remaining;
+      }
+
+      @Override
+      public int characteristics() {
+         return ORDERED | DISTINCT | SORTED | SIZED | SUBSIZED | NONNULL;
+      }
+
+      @Override
+      public Comparator<? super T> getComparator() {
+         return null;
+      }
+   }
+
+   /**
+   * Merges the blocks of this set with those of s into a new set for
+   * op. Whenever the rest of one block lies entirely before the next
+   * element of the other set, the whole run is copied or skipped at
+   * once, so disjoint stretches cost one comparison per block rather
+   * than one per element. A parameter set that is not a BlockArraySet
+   * is first sorted into a single block.
+   */
+   @SuppressWarnings("unchecked")
+   private Set<T> combine(Set<T> s, int op) {
+      T[][] otherBlocks;
+      int[] otherSizes;
+      int otherCount;
+      if (s instanceof BlockArraySet) {
+         BlockArraySet<T> other = (BlockArraySet<T>) s;
+         otherBlocks = other.blocks;
+         otherSizes = other.sizes;
+         otherCount = other.blockCount;
+      }
+      else {
+         T[] items = sortedArray(s);
+         otherBlocks = (T[][]) new Comparable[1][];
+         otherBlocks[0] = items;
+         otherSizes = new int[] {items.length};
+         otherCount = (items.length == 0) ? 0 : 1;
+      }
+      long bound = (op == UNION) ? (long) size + s.size() : size;
+      int capacity = adaptive ? idealCapacity(bound) : blockCapacity;
+      BlockArraySet<T> result = new BlockArraySet<T>(capacity, adaptive);
+      int a = 0;
+      int i = 0;
+      int b = 0;
+      int j = 0;
+      while (a < blockCount && b < otherCount) {
+         T[] x = blocks[a];
+         int xEnd = sizes[a];
+         T[] y = otherBlocks[b];
+         int yEnd = otherSizes[b];
+         if (x[xEnd - 1].compareTo(y[j]) < 0) {
+            if (op != INTERSECTION) {
+               result.appendRun(x, i, xEnd);
+            }
+            a++;
+            i = 0;
+            continue;
+         }
+         if (y[yEnd - 1].compareTo(x[i]) < 0) {
+            if (op == UNION) {
+               result.appendRun(y, j, yEnd);
+            }
+            b++;
+            j = 0;
+            continue;
+         }
+         while (i < xEnd && j < yEnd) {
+            int comp = x[i].compareTo(y[j]);
+            if (comp < 0) {
+               if (op != INTERSECTION) {
+                  result.append(x[i]);
+               }
+               i++;
+            }
+            else if (comp > 0) {
+               if (op == UNION) {
+                  result.append(y[j]);
+               }
+               j++;
+            }
+            else {
+               if (op != COMPLEMENT) {
+                  result.append(x[i]);
+               }
+               i++;
+               j++;
+            }
+         }
+         if (i == xEnd) {
+            a++;
+            i = 0;
+         }
+         if (j == yEnd) {
+            b++;
+            j = 0;
+         }
+      }
+      if (op != INTERSECTION) {
+         while (a < blockCount) {
+            result.appendRun(blocks[a], i, sizes[a]);
+            a++;
+            i = 0;
+         }
+      }
+      if (op == UNION) {
+         while (b < otherCount) {
+            result.appendRun(otherBlocks[b], j, otherSizes[b]);
+            b++;
+            j = 0;
+         }
+      }
+      result.rebalance();
+      return result;
+   }
+
+   /**
+   * Appends src[from..to), whose elements are ascending and larger
+   * than every element in this set.
+   */
+   private void appendRun(T[] src, int from, int to) {
+      copyRun(src, from, to);
+      size += to - from;
+      for (int i = from; i < to; i++) {
+         fingerprint += Set.fingerprintOf(src[i].hashCode());
+      }
+   }
+
+   /**
+   * Copies src[from..to) into the blocks after the last element,
+   * filling the last block before starting a new one. Leaves size and
+   * fingerprint alone.
+   */
+   private void copyRun(T[] src, int from, int to) {
+      while (from < to) {
+         int last = blockCount - 1;
+         if (last < 0 || sizes[last] == blockCapacity) {
+            last = blockCount;
+            insertBlock(last, newBlock());
+            mins[last] = src[from];
+         }
+         int n = Math.min(to - from, blockCapacity - sizes[last]);
+         System.arraycopy(src, from, blocks[last], sizes[last], n);
+         sizes[last] += n;
+         from += n;
+      }
+   }
+
+   /**
+   * Rebuilds the blocks with the ideal capacity for the current size
+   * if the size has left [shrinkAt, growAt].
+   */
+   private void rebalance() {
+      if (size > growAt || size < shrinkAt) {
+         rebuild(idealCapacity(size));
+      }
+   }
+
+   /**
+   * Copies every element into full blocks of the given capacity.
+   */
+   @SuppressWarnings("unchecked")
+   private void rebuild(int capacity) {
+      T[][] oldBlocks = blocks;
+      int[] oldSizes = sizes;
+      int oldCount = blockCount;
+      int count = (int) Math.max(1, ((long) size + capacity - 1) / capacity);
+      blocks = (T[][]) new Comparable[count][];
+      mins = (T[]) new Comparable[count];
+      sizes = new int[count];
+      blockCount = 0;
+      blockCapacity = capacity;
+      for (int b = 0; b < oldCount; b++) {
+         copyRun(oldBlocks[b], 0, oldSizes[b]);
+      }
+      setThresholds();
+   }
+
+   /**
+   * Sets the sizes past which an adaptive set rebuilds its blocks:
+   * above 4c^2, where sqrt(n) has doubled past c, and below c^2/16,
+   * where c has quadrupled past sqrt(n). A fixed set never does.
+   */
+   private void setThresholds() {
+      long c = blockCapacity;
+      growAt = adaptive ? 4 * c * c : Long.MAX_VALUE;
+      shrinkAt = (adaptive && c > MIN_BLOCK_CAPACITY) ? c * c / 16 : 0;
+   }
+
+   /**
+   * Returns the power of two at or above sqrt(n), and at least
+   * MIN_BLOCK_CAPACITY.
+   */
+   private static int idealCapacity(long n) {
+      int root = (int) Math.ceil(Math.sqrt(n));
+      int capacity = (root <= 1) ? 1 : Integer.highestOneBit(root - 1) << 1;
+      return Math.max(MIN_BLOCK_CAPACITY, capacity);
+   }
+
+   /**
+   * Appends an element larger than every element in this set,
+   * filling the last block before starting a new one.
+   */
+   private void append(T element) {
+      int last = blockCount - 1;
+      if (last < 0 || sizes[last] == blockCapacity) {
+         last = blockCount;
+         insertBlock(last, newBlock());
+         mins[last] = element;
+      }
+      blocks[last][sizes[last]] = element;
+      sizes[last]++;
+      size++;
+      fingerprint += Set.fingerprintOf(element.hashCode());
+   }
+
+   /**
+   * Returns the index of the last block whose minimum is not greater
+   * than element, or 0 when element is smaller than every minimum.
+   */
+   private int blockOf(T element) {
+      int min = 1;
+      int max = blockCount - 1;
+      while (min <= max) {
+         int mid = (min + max) >>> 1;
+         if (mins[mid].compareTo(element) <= 0) {
+            min = mid + 1;
+         }
+         else {
+            max = mid - 1;
+         }
+      }
+      return min - 1;
+   }
+
+   /**
+   * Binary searches block b for element, with the return convention
+   * of Arrays.binarySearch.
+   */
+   private int indexIn(int b, T element) {
+      T[] block = blocks[b];
+      int min = 0;
+      int max = sizes[b] - 1;
+      while (min <= max) {
+         int mid = (min + max) >>> 1;
+         int comp = block[mid].compareTo(element);
+         if (comp < 0) {
+            min = mid + 1;
+         }
+         else if (comp > 0) {
+            max = mid - 1;
+         }
+         else {
+            return mid;
+         }
+      }
+      return -(min + 1);
+   }
+
+   /**
+   * Moves the upper half of block b into a new block after it.
+   */
+   private void split(int b) {
+      T[] block = blocks[b];
+      int half = sizes[b] / 2;
+      T[] upper = newBlock();
+      System.arraycopy(block, half, upper, 0, sizes[b] - half);
+      Arrays.fill(block, half, sizes[b], null);
+      insertBlock(b + 1, upper);
+      sizes[b + 1] = sizes[b] - half;
+      mins[b + 1] = upper[0];
+      sizes[b] = half;
+   }
+
+   /**
+   * Moves block b + 1 onto the end of block b and drops it.
+   */
+   private void merge(int b) {
+      System.arraycopy(blocks[b + 1], 0, blocks[b], sizes[b], sizes[b + 1]);
+      sizes[b] += sizes[b + 1];
+      removeBlock(b + 1);
+   }
+
+   /**
+   * Inserts block at index b of the block index, growing it if needed.
+   */
+   private void insertBlock(int b, T[] block) {
+      if (blockCount == blocks.length) {
+         blocks = Arrays.copyOf(blocks, blockCount * 2);
+         mins = Arrays.copyOf(mins, blockCount * 2);
+         sizes = Arrays.copyOf(sizes, blockCount * 2);
+      }
+      System.arraycopy(blocks, b, blocks, b + 1, blockCount - b);
+      System.arraycopy(mins, b, mins, b + 1, blockCount - b);
+      System.arraycopy(sizes, b, sizes, b + 1, blockCount - b);
+      blocks[b] = block;
+      sizes[b] = 0;
+      blockCount++;
+   }
+
+   /**
+   * Removes block b from the block index.
+   */
+   private void removeBlock(int b) {
+      blockCount--;
+      System.arraycopy(blocks, b + 1, blocks, b, blockCount - b);
+      System.arraycopy(mins, b + 1, mins, b, blockCount - b);
+      System.arraycopy(sizes, b + 1, sizes, b, blockCount - b);
+      blocks[blockCount] = null;
+      mins[blockCount] = null;
+   }
+
+   /**
+   * Returns an empty block.
+   */
+   @SuppressWarnings("unchecked")
+   private T[] newBlock() {
+      return (T[]) new Comparable[blockCapacity];
+   }
+
+   /**
+   * Returns the distinct elements of s in ascending order.
+   */
+   @SuppressWarnings("unchecked")
+   private static <E extends Comparable<? super E>> E[] sortedArray(Set<E> s) {
+      E[] items = (E[]) new Comparable[s.size()];
+      int count = 0;
+      for (E element : s) {
+         if (element != null) {
+            items[count] = element;
+            count++;
+         }
+      }
+      Arrays.sort(items, 0, count);
+      int distinct = 0;
+      for (int i = 0; i < count; i++) {
+         if (distinct == 0 || items[distinct - 1].compareTo(items[i]) != 0) {
+            items[distinct] = items[i];
+            distinct++;
+         }
+      }
+      return Arrays.copyOf(items, distinct);
+   }
+}
@@ -0,0 +1,149 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+
+/**
+ * Provides JUnit test cases for the BlockArraySet class.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class BlockArraySetTest {
+
+   @Test
+   public void testEmpty() {
+      BlockArraySet<Integer> set = new BlockArraySet<Integer>();
+      assertTrue(set.isEmpty());
+      assertEquals("[]", set.toString());
+      assertFalse(set.contains(1));
+      assertFalse(set.remove(1));
+      assertFalse(set.iterator().hasNext());
+   }
+
+   @Test
+   public void testDuplicatesNullsAndExtremes() {
+      BlockArraySet<Integer> set = new BlockArraySet<Integer>(2);
+      assertTrue(set.add(Integer.MAX_VALUE));
+      assertTrue(set.add(0));
+      assertTrue(set.add(Integer.MIN_VALUE));
+      assertFalse(set.add(0));
+      assertFalse(set.add(null));
+      assertFalse(set.remove(null));
+      assertFalse(set.contains(null));
+      assertEquals("[" + Integer.MIN_VALUE + ", 0, " + Integer.MAX_VALUE + "]", set.toString());
+   }
+
+   @Test
+   public void testSplitsAndMergesKeepOrder() {
+      BlockArraySet<Integer> set = new BlockArraySet<Integer>(4);
+      ArraySet<Integer> expected = new ArraySet<Integer>();
+      for (int i = 0; i < 500; i++) {
+         int value = (i * 7919) % 1009;
+         set.add(value);
+         expected.add(value);
+      }
+      for (int i = 0; i < 400; i++) {
+         int value = (i * 104729) % 1009;
+         assertEquals(expected.remove(value), set.remove(value));
+      }
+      assertEquals(expected.toString(), set.toString());
+      assertEquals(expected.fingerprint(), set.fingerprint());
+   }
+
+   @Test
+   public void testAdaptiveSetGrowsAndShrinks() {
+      BlockArraySet<Integer> set = new BlockArraySet<Integer>();
+      for (int i = 0; i < 100000; i++) {
+         assertTrue(set.add(i));
+      }
+      assertEquals(100000, set.size());
+      for (int i = 0; i < 100000; i += 3) {
+         assertTrue(set.contains(i));
+      }
+      for (int i = 100; i < 100000; i++) {
+         assertTrue(set.remove(i));
+      }
+      assertEquals(100, set.size());
+      assertTrue(set.contains(99));
+      assertFalse(set.contains(100));
+   }
+
+   @Test
+   public void testAlgebraBetweenBlockSets() {
+      BlockArraySet<Integer> a = new BlockArraySet<Integer>(4);
+      BlockArraySet<Integer> b = new BlockArraySet<Integer>();
+      for (int i = 0; i < 100; i++) {
+         a.add(i);
+         b.add(i + 90);
+      }
+      assertEquals(190, a.union(b).size());
+      assertEquals("[90, 91, 92, 93, 94, 95, 96, 97, 98, 99]", a.intersection(b).toString());
+      assertEquals(90, a.complement(b).size());
+      assertFalse(a.complement(b).contains(90));
+   }
+
+   @Test
+   public void testAlgebraWithDisjointBlocks() {
+      BlockArraySet<Integer> a = new BlockArraySet<Integer>(2);
+      BlockArraySet<Integer> b = new BlockArraySet<Integer>(2);
+      a.add(1);
+      a.add(2);
+      a.add(10);
+      a.add(11);
+      b.add(5);
+      b.add(6);
+      b.add(20);
+      assertEquals("[1, 2, 5, 6, 10, 11, 20]", a.union(b).toString());
+      assertTrue(a.intersection(b).isEmpty());
+      assertEquals("[1, 2, 10, 11]", a.complement(b).toString());
+   }
+
+   @Test
+   public void testAlgebraWithEmptyAndOtherSets() {
+      BlockArraySet<Integer> a = new BlockArraySet<Integer>();
+      a.add(1);
+      a.add(2);
+      ArraySet<Integer> empty = new ArraySet<Integer>();
+      ArraySet<Integer> other = new ArraySet<Integer>(new Integer[] {2, 3});
+      assertEquals("[1, 2]", a.union(empty).toString());
+      assertTrue(a.intersection(empty).isEmpty());
+      assertEquals("[1, 2]", a.complement(empty).toString());
+      assertEquals("[1, 2, 3]", a.union(other).toString());
+      assertEquals("[2]", a.intersection(other).toString());
+      assertEquals("[1]", a.complement(other).toString());
+      assertTrue(a.union(other).equals(other.union(a)));
+   }
+
+   @Test
+   public void testSpliteratorSplitsOnBlocks() {
+      BlockArraySet<Integer> set = new BlockArraySet<Integer>(8);
+      for (int i = 0; i < 100; i++) {
+         set.add(i);
+      }
+      Spliterator<Integer> rest = set.spliterator();
+      Spliterator<Integer> prefix = rest.trySplit();
+      assertEquals(100, prefix.estimateSize() + rest.estimateSize());
+      assertEquals(4950L, set.stream().mapToLong(Integer::longValue).sum());
+      assertEquals(4950L, set.parallelStream().mapToLong(Integer::longValue).sum());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testBlockCapacityTooSmall() {
+      new BlockArraySet<Integer>(1);
+   }
+
+   @Test(expected = NoSuchElementException.class)
+   public void testIteratorPastEnd() {
+      BlockArraySet<Integer> set = new BlockArraySet<Integer>();
+      set.add(1);
+      Iterator<Integer> it = set.iterator();
+      it.next();
+      it.next();
+   }
+}
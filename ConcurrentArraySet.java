@@ -0,0 +1,318 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+
+/**
+ * ConcurrentArraySet.java.
+ *
+ * Provides a thread-safe implementation of the Set interface for sets
+ * that are read far more often than they are written. The members are
+ * held in an ArraySet that is never changed once it is published
+ * through a volatile field. Readers load the current snapshot once and
+ * search or iterate it without locking, so contains and iteration
+ * never block and never see a half-applied change. Writers serialize
+ * on a lock, build a complete new snapshot and publish it in one
+ * write, which also keeps each snapshot's size and fingerprint
+ * consistent with its elements. addAll and removeAll apply a whole
+ * batch of changes for the cost of a single copy.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-23
+ *
+ */
+public class ConcurrentArraySet<T extends Comparable<? super T>> implements Set<T> {
+
+   // The current members. Never changed once published.
+   private volatile ArraySet<T> snapshot;
+   private final Object writeLock = new Object();
+
+   /**
+    * Instantiates an empty set.
+    */
+   public ConcurrentArraySet() {
+      snapshot = new ArraySet<T>();
+   }
+
+   /**
+    * Instantiates a set containing the given values.
+    *
+    * @param  values  the values to be placed in this set
+    */
+   public ConcurrentArraySet(Iterable<? extends T> values) {
+      this();
+      addAll(values);
+   }
+
+   /**
+    * Returns the current size of this collection.
+    *
+    * @return  the number of elements in this collection.
+    */
+   @Override
+   public int size() {
+      return snapshot.size;
+   }
+
+   /**
+    * Tests to see if this collection is empty.
+    *
+    * @return  true if this collection contains no elements,
+    *               false otherwise.
+    */
+   @Override
+   public boolean isEmpty() {
+      return snapshot.size == 0;
+   }
+
+   /**
+    * Return a string representation of this ConcurrentArraySet.
+    *
+    * @return a string representation of this ConcurrentArraySet
+    */
+   @Override
+   public String toString() {
+      return snapshot.toString();
+   }
+
+   /**
+    * Ensures the collection contains the specified element. Neither
+    * duplicate nor null values are allowed.
+    *
+    * @param  element  The element whose presence is to be ensured.
+    * @return true if collection is changed, false otherwise.
+    */
+   @Override
+   public boolean add(T element) {
+      if (element == null) {
+         return false;
+      }
+      synchronized (writeLock) {
+         ArraySet<T> current = snapshot;
+         int location = Arrays.binarySearch(current.elements, 0, current.size, element);
+         if (location >= 0) {
+            return false;
+         }
+         int insert = -(location + 1);
+         T[] next = Arrays.copyOf(current.elements, current.size + 1);
+         System.arraycopy(current.elements, insert, next, insert + 1, current.size - insert);
+         next[insert] = element;
+         snapshot = new ArraySet<T>(next, next.length);
+         return true;
+      }
+   }
+
+   /**
+    * Ensures the collection contains all of the specified elements.
+    * The whole batch is merged into one new array and published at
+    * once, so readers see either none or all of it.
+    *
+    * @param  values  The elements whose presence is to be ensured.
+    * @return true if collection is changed, false otherwise.
+    */
+   public boolean addAll(Iterable<? extends T> values) {
+      ArraySet<T> incoming = new ArraySet<T>(values);
+      synchronized (writeLock) {
+         return publish((ArraySet<T>) snapshot.union(incoming));
+      }
+   }
+
+   /**
+    * Ensures the collection does not contain the specified element.
+    *
+    * @param   element  The element to be removed.
+    * @return  true if collection is changed, false otherwise.
+    */
+   @Override
+   public boolean remove(T element) {
+      if (element == null) {
+         return false;
+      }
+      synchronized (writeLock) {
+         ArraySet<T> current = snapshot;
+         int location = Arrays.binarySearch(current.elements, 0, current.size, element);
+         if (location < 0) {
+            return false;
+         }
+         T[] next = Arrays.copyOf(current.elements, Math.max(1, current.size - 1));
+         System.arraycopy(current.elements, location + 1, next, location,
+            current.size - location - 1);
+         snapshot = new ArraySet<T>(next, current.size - 1);
+         return true;
+      }
+   }
+
+   /**
+    * Ensures the collection contains none of the specified elements.
+    * The whole batch is removed in one new array published at once.
+    *
+    * @param   values  The elements to be removed.
+    * @return  true if collection is changed, false otherwise.
+    */
+   public boolean removeAll(Iterable<? extends T> values) {
+      ArraySet<T> outgoing = new ArraySet<T>(values);
+      synchronized (writeLock) {
+         return publish((ArraySet<T>) snapshot.complement(outgoing));
+      }
+   }
+
+   /**
+    * Searches for specified element in this collection without locking.
+    *
+    * @param   element  The element whose presence in this collection
+    *                   is to be tested.
+    * @return  true if this collection contains the specified element,
+    *               false otherwise.
+    */
+   @Override
+   public boolean contains(T element) {
+      return element != null && snapshot.contains(element);
+   }
+
+   /**
+    * Tests for equality between this set and the parameter set.
+    *
+    * @return  true if this set contains exactly the same elements
+    *               as the parameter set, false otherwise
+    */
+   @Override
+   public boolean equals(Set<T> s) {
+      return snapshot.equals(operand(s));
+   }
+
+   /**
+    * Returns the fingerprint of the current contents of this set.
+    *
+    * @return  the fingerprint of this set
+    */
+   @Override
+   public long fingerprint() {
+      return snapshot.fingerprint;
+   }
+
+   /**
+    * Returns a set that is the union of the current contents of this
+    * set and the parameter set.
+    *
+    * @return  a set that contains all the elements of this set and
+    *            the parameter set
+    */
+   @Override
+   public Set<T> union(Set<T> s) {
+      return snapshot.union(operand(s));
+   }
+
+   /**
+    * Returns a set that is the intersection of the current contents
+    * of this set and the parameter set.
+    *
+    * @return  a set that contains elements that are in both
+    *            this set and the parameter set
+    */
+   @Override
+   public Set<T> intersection(Set<T> s) {
+      return snapshot.intersection(operand(s));
+   }
+
+   /**
+    * Returns a set that is the complement of the current contents of
+    * this set and the parameter set.
+    *
+    * @return  a set that contains elements that are in this
+    *            set but not the parameter set
+    */
+   @Override
+   public Set<T> complement(Set<T> s) {
+      return snapshot.complement(operand(s));
+   }
+
+   /**
+    * Returns a frozen set holding the elements of this set as they are
+    * now. The current snapshot's array is never written again, so it
+    * is shared when it is already trimmed; otherwise exactly its
+    * elements are copied, so the frozen set does not hold on to spare
+    * capacity.
+    *
+    * @return  a frozen copy of this set
+    */
+   public FrozenArraySet<T> freeze() {
+      ArraySet<T> current = snapshot;
+      T[] items = current.elements;
+      int length = Math.max(1, current.size);
+      if (items.length > length) {
+         items = Arrays.copyOf(items, length);
+      }
+      return new FrozenArraySet<T>(items, current.size, current.comparator,
+         current.fingerprint);
+   }
+
+   /**
+    * Returns a spliterator over the elements of this set, in ascending
+    * order, as they were when the spliterator was created. It splits
+    * the current snapshot by index ranges.
+    *
+    * @return  a spliterator over the elements in this set
+    */
+   @Override
+   public Spliterator<T> spliterator() {
+      return snapshot.spliterator();
+   }
+
+   /**
+    * Returns an iterator over the elements of this set, in ascending
+    * order, as they were when the iterator was created. Later changes
+    * are not seen and never cause the iterator to fail.
+    *
+    * @return  an iterator over the elements in this set
+    */
+   @Override
+   public Iterator<T> iterator() {
+      final ArraySet<T> items = snapshot;
+      return
+         new Iterator<T>() {
+            private int current = 0;
+         
+            @Override
+            public boolean hasNext() {
+               return current < items.size;
+            }
+         
+            @Override
+            public T next() {
+               if (!hasNext()) {
+                  throw new NoSuchElementException();
+               }
+               T element = items.elements[current];
+               current++;
+               return element;
+            }
+         
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+   }
+
+   /**
+   * Returns s in the form the ArraySet merge code reads fastest.
+   */
+   private static <E extends Comparable<? super E>> Set<E> operand(Set<E> s) {
+      if (s instanceof ConcurrentArraySet) {
+         return ((ConcurrentArraySet<E>) s).snapshot;
+      }
+      return s;
+   }
+
+   /**
+   * Publishes result if it differs from the current snapshot, which it
+   * was computed from. Must be called while holding the write lock.
+   */
+   private boolean publish(ArraySet<T> result) {
+      if (result.size == snapshot.size) {
+         return false;
+      }
+      snapshot = result;
+      return true;
+   }
+}
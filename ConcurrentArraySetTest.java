@@ -0,0 +1,140 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Provides JUnit test cases for the ConcurrentArraySet class.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class ConcurrentArraySetTest {
+
+   @Test
+   public void testEmpty() {
+      ConcurrentArraySet<Integer> set = new ConcurrentArraySet<Integer>();
+      assertTrue(set.isEmpty());
+      assertEquals("[]", set.toString());
+      assertFalse(set.contains(1));
+      assertFalse(set.remove(1));
+      assertFalse(set.addAll(new ArrayList<Integer>()));
+   }
+
+   @Test
+   public void testDuplicatesAndNulls() {
+      ConcurrentArraySet<Integer> set = new ConcurrentArraySet<Integer>(
+         Arrays.asList(3, null, 1, 3));
+      assertEquals("[1, 3]", set.toString());
+      assertFalse(set.add(3));
+      assertFalse(set.add(null));
+      assertFalse(set.remove(null));
+   }
+
+   @Test
+   public void testExtremes() {
+      ConcurrentArraySet<Integer> set = new ConcurrentArraySet<Integer>();
+      assertTrue(set.add(Integer.MAX_VALUE));
+      assertTrue(set.add(Integer.MIN_VALUE));
+      assertEquals("[" + Integer.MIN_VALUE + ", " + Integer.MAX_VALUE + "]", set.toString());
+      assertTrue(set.remove(Integer.MAX_VALUE));
+      assertTrue(set.remove(Integer.MIN_VALUE));
+      assertTrue(set.isEmpty());
+   }
+
+   @Test
+   public void testBatchChanges() {
+      ConcurrentArraySet<Integer> set = new ConcurrentArraySet<Integer>(Arrays.asList(1, 2));
+      assertTrue(set.addAll(Arrays.asList(5, 4, 2)));
+      assertFalse(set.addAll(Arrays.asList(1, 5)));
+      assertTrue(set.removeAll(Arrays.asList(2, 9)));
+      assertFalse(set.removeAll(Arrays.asList(9)));
+      assertEquals("[1, 4, 5]", set.toString());
+   }
+
+   @Test
+   public void testIteratorIsASnapshot() {
+      ConcurrentArraySet<Integer> set = new ConcurrentArraySet<Integer>(Arrays.asList(1, 2, 3));
+      Iterator<Integer> it = set.iterator();
+      assertEquals(Integer.valueOf(1), it.next());
+      set.remove(2);
+      set.add(0);
+      assertEquals(Integer.valueOf(2), it.next());
+      assertEquals(Integer.valueOf(3), it.next());
+      assertFalse(it.hasNext());
+      assertEquals("[0, 1, 3]", set.toString());
+   }
+
+   @Test(expected = NoSuchElementException.class)
+   public void testIteratorPastEnd() {
+      Iterator<Integer> it = new ConcurrentArraySet<Integer>().iterator();
+      it.next();
+   }
+
+   @Test
+   public void testAlgebraWithAnotherConcurrentSet() {
+      ConcurrentArraySet<Integer> a = new ConcurrentArraySet<Integer>(Arrays.asList(1, 2, 3));
+      ConcurrentArraySet<Integer> b = new ConcurrentArraySet<Integer>(Arrays.asList(3, 4));
+      assertEquals("[1, 2, 3, 4]", a.union(b).toString());
+      assertEquals("[3]", a.intersection(b).toString());
+      assertEquals("[1, 2]", a.complement(b).toString());
+      assertTrue(a.equals(new ArraySet<Integer>(new Integer[] {3, 2, 1})));
+   }
+
+   @Test
+   public void testFreezeIsUnaffectedByLaterWrites() {
+      ConcurrentArraySet<Integer> set = new ConcurrentArraySet<Integer>(Arrays.asList(1, 2, 3));
+      set.remove(2);
+      FrozenArraySet<Integer> frozen = set.freeze();
+      set.add(7);
+      assertEquals("[1, 3]", frozen.toString());
+      assertEquals(2, frozen.size());
+   }
+
+   @Test
+   public void testConcurrentWritersAndReaders() throws InterruptedException {
+      final ConcurrentArraySet<Integer> set = new ConcurrentArraySet<Integer>();
+      final List<Throwable> failures = new ArrayList<Throwable>();
+      Thread[] threads = new Thread[4];
+      for (int t = 0; t < threads.length; t++) {
+         final int offset = t;
+         threads[t] =
+            new Thread() {
+               @Override
+               public void run() {
+                  try {
+                     for (int i = offset; i < 2000; i += 4) {
+                        set.add(i);
+                        int previous = Integer.MIN_VALUE;
+                        for (Integer element : set) {
+                           assertTrue(element > previous);
+                           previous = element;
+                        }
+                     }
+                  }
+                  catch (Throwable e) {
+                     synchronized (failures) {
+                        failures.add(e);
+                     }
+                  }
+               }
+            };
+         threads[t].start();
+      }
+      for (Thread thread : threads) {
+         thread.join();
+      }
+      assertTrue(failures.toString(), failures.isEmpty());
+      assertEquals(2000, set.size());
+      for (int i = 0; i < 2000; i++) {
+         assertTrue(set.contains(i));
+      }
+   }
+}
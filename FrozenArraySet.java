@@ -0,0 +1,309 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * FrozenArraySet.java.
+ *
+ * An ArraySet whose elements can never change. Because no one can
+ * write to it, a frozen set can be handed to any number of consumers
+ * without copying, and its backing array can be shared with the set
+ * it was frozen from. add, remove and the other mutators throw
+ * UnsupportedOperationException. union, intersection and complement
+ * return frozen sets.
+ *
+ * Frozen sets compute their fingerprint once and derive a cached
+ * hashCode from it. Together with equals(Object), which compares
+ * frozen sets with each other only, this makes them cheap to use as
+ * map keys.
+ *
+ * Frozen sets are obtained from ArraySet.freeze,
+ * ConcurrentArraySet.freeze, or a FrozenArraySet.Builder.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ *
+ */
+public final class FrozenArraySet<T extends Comparable<? super T>> extends ArraySet<T> {
+
+   // Cached hash code, derived from the fingerprint.
+   private final int hash;
+
+   /**
+    * Instantiates a frozen set over an array whose first size slots
+    * are sorted by comparator, free of duplicates and will never be
+    * written again. The fingerprint of those elements is passed in
+    * so it is not computed twice.
+    */
+   FrozenArraySet(T[] sorted, int size, Comparator<? super T> comparator, long fingerprint) {
+      this.elements = sorted;
+      this.size = size;
+      this.comparator = comparator;
+      this.fingerprint = fingerprint;
+      hash = Long.hashCode(fingerprint);
+   }
+
+   /**
+    * Returns s, an ArraySet, as a frozen set that adopts its backing
+    * array. s must never be changed again.
+    */
+   static <E extends Comparable<? super E>> FrozenArraySet<E> adopt(Set<E> s) {
+      ArraySet<E> result = (ArraySet<E>) s;
+      return new FrozenArraySet<E>(result.elements, result.size, result.comparator,
+         result.fingerprint);
+   }
+
+   /**
+    * Returns this set, which is already frozen.
+    *
+    * @return  this set
+    */
+   @Override
+   public FrozenArraySet<T> freeze() {
+      return this;
+   }
+
+   /**
+    * Not supported; this set is frozen.
+    *
+    * @throws UnsupportedOperationException always
+    */
+   @Override
+   public boolean add(T element) {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Not supported; this set is frozen.
+    *
+    * @throws UnsupportedOperationException always
+    */
+   @Override
+   public boolean addAll(Iterable<? extends T> values) {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Not supported; this set is frozen.
+    *
+    * @throws UnsupportedOperationException always
+    */
+   @Override
+   public boolean remove(T element) {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Not supported; the backing array of a frozen set is fixed.
+    *
+    * @throws UnsupportedOperationException always
+    */
+   @Override
+   public void ensureCapacity(int minCapacity) {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Not supported; the backing array of a frozen set is fixed.
+    *
+    * @throws UnsupportedOperationException always
+    */
+   @Override
+   public void trimToSize() {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Not supported; the backing array of a frozen set is fixed.
+    *
+    * @throws UnsupportedOperationException always
+    */
+   @Override
+   public void setCapacityPolicy(CapacityPolicy policy) {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Returns a frozen set that is the union of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains all the elements of this set and
+    *            the parameter set
+    */
+   @Override
+   public FrozenArraySet<T> union(Set<T> s) {
+      return adopt(super.union(s));
+   }
+
+   /**
+    * Returns a frozen set that is the union of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains all the elements of this set and
+    *            the parameter set
+    */
+   @Override
+   public FrozenArraySet<T> union(ArraySet<T> s) {
+      return adopt(super.union(s));
+   }
+
+   /**
+    * Returns a frozen set that is the intersection of this set and
+    * the parameter set.
+    *
+    * @return  a set that contains elements that are in both
+    *            this set and the parameter set
+    */
+   @Override
+   public FrozenArraySet<T> intersection(Set<T> s) {
+      return adopt(super.intersection(s));
+   }
+
+   /**
+    * Returns a frozen set that is the intersection of this set and
+    * the parameter set.
+    *
+    * @return  a set that contains elements that are in both
+    *            this set and the parameter set
+    */
+   @Override
+   public FrozenArraySet<T> intersection(ArraySet<T> s) {
+      return adopt(super.intersection(s));
+   }
+
+   /**
+    * Returns a frozen set that is the complement of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains elements that are in this
+    *            set but not the parameter set
+    */
+   @Override
+   public FrozenArraySet<T> complement(Set<T> s) {
+      return adopt(super.complement(s));
+   }
+
+   /**
+    * Returns a frozen set that is the complement of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains elements that are in this
+    *            set but not the parameter set
+    */
+   @Override
+   public FrozenArraySet<T> complement(ArraySet<T> s) {
+      return adopt(super.complement(s));
+   }
+
+   /**
+    * Tests whether o is a FrozenArraySet, sorted in the same order,
+    * holding exactly the same elements as this set. Any other object,
+    * including a mutable set with the same elements, is unequal, so
+    * that equals stays symmetric with the identity equals(Object) of
+    * the other sets. Sets whose sizes or fingerprints differ are
+    * rejected at once; otherwise the two arrays are compared in step.
+    *
+    * @param   o  the object to compare with
+    * @return  true if o is a frozen set equal to this one, false otherwise
+    */
+   @Override
+   public boolean equals(Object o) {
+      if (o == this) {
+         return true;
+      }
+      if (!(o instanceof FrozenArraySet)) {
+         return false;
+      }
+      FrozenArraySet<?> other = (FrozenArraySet<?>) o;
+      if (size != other.size || fingerprint != other.fingerprint
+            || !sameOrder(comparator, other.comparator)) {
+         return false;
+      }
+      for (int i = 0; i < size; i++) {
+         if (!elements[i].equals(other.elements[i])) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Returns the hash code of this set, computed once from its
+    * fingerprint. Equal sets have equal hash codes.
+    *
+    * @return  the hash code of this set
+    */
+   @Override
+   public int hashCode() {
+      return hash;
+   }
+
+   /**
+    * Collects elements and builds a FrozenArraySet from them in one
+    * sort, with no intermediate mutable set handed out.
+    */
+   public static final class Builder<E extends Comparable<? super E>> {
+      private final Comparator<? super E> comparator;
+      private Comparable[] pending = new Comparable[16];
+      private int count;
+
+      /**
+       * Instantiates a builder for a set in natural order.
+       */
+      public Builder() {
+         this(null);
+      }
+
+      /**
+       * Instantiates a builder for a set ordered by comparator. A null
+       * comparator means natural ordering.
+       *
+       * @param  comparator  the order of the set to build
+       */
+      public Builder(Comparator<? super E> comparator) {
+         this.comparator = comparator;
+      }
+
+      /**
+       * Adds an element to the set being built. Null values and
+       * duplicates are ignored.
+       *
+       * @param  element  the element to add
+       * @return this builder
+       */
+      public Builder<E> add(E element) {
+         if (element != null) {
+            if (count == pending.length) {
+               pending = Arrays.copyOf(pending, count * 2);
+            }
+            pending[count] = element;
+            count++;
+         }
+         return this;
+      }
+
+      /**
+       * Adds all the given elements to the set being built.
+       *
+       * @param  values  the elements to add
+       * @return this builder
+       */
+      public Builder<E> addAll(Iterable<? extends E> values) {
+         for (E value : values) {
+            add(value);
+         }
+         return this;
+      }
+
+      /**
+       * Returns a frozen set of the elements added so far. The builder
+       * can keep being used afterwards.
+       *
+       * @return  a frozen set of the added elements
+       */
+      public FrozenArraySet<E> build() {
+         ArraySet<E> set = new ArraySet<E>(comparator);
+         set.bulkAdd(Arrays.copyOf(pending, count), count);
+         return adopt(set);
+      }
+   }
+}
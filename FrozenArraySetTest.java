@@ -0,0 +1,178 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Provides JUnit test cases for the FrozenArraySet class.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class FrozenArraySetTest {
+
+   @Test(expected = UnsupportedOperationException.class)
+   public void testAddUnsupported() {
+      frozenOf(1).add(2);
+   }
+
+   @Test(expected = UnsupportedOperationException.class)
+   public void testAddAllUnsupported() {
+      frozenOf().addAll(Arrays.asList(1, 2));
+   }
+
+   @Test(expected = UnsupportedOperationException.class)
+   public void testRemoveUnsupported() {
+      frozenOf(1).remove(1);
+   }
+
+   @Test(expected = UnsupportedOperationException.class)
+   public void testEnsureCapacityUnsupported() {
+      frozenOf(1).ensureCapacity(10);
+   }
+
+   @Test(expected = UnsupportedOperationException.class)
+   public void testTrimToSizeUnsupported() {
+      frozenOf(1).trimToSize();
+   }
+
+   @Test(expected = UnsupportedOperationException.class)
+   public void testSetCapacityPolicyUnsupported() {
+      frozenOf(1).setCapacityPolicy(ArraySet.DEFAULT_POLICY);
+   }
+
+   @Test
+   public void testFreezeSharesTrimmedArray() {
+      ArraySet<Integer> set = new ArraySet<Integer>();
+      set.ensureCapacity(100);
+      set.add(Integer.MAX_VALUE);
+      set.add(Integer.MIN_VALUE);
+      FrozenArraySet<Integer> frozen = set.freeze();
+      assertEquals(2, backing(frozen).length);
+      assertSame(backing(set), backing(frozen));
+      assertSame(frozen, frozen.freeze());
+   }
+
+   @Test
+   public void testFreezeIsUnaffectedByLaterWrites() {
+      ArraySet<Integer> set = new ArraySet<Integer>(new Integer[] {3, 1, 2});
+      FrozenArraySet<Integer> frozen = set.freeze();
+      set.add(0);
+      set.remove(3);
+      assertEquals("[1, 2, 3]", frozen.toString());
+      assertEquals("[0, 1, 2]", set.toString());
+      assertNotSame(backing(set), backing(frozen));
+      assertEquals(new ArraySet<Integer>(new Integer[] {1, 2, 3}).fingerprint(),
+         frozen.fingerprint());
+   }
+
+   @Test
+   public void testFreezeEmptySet() {
+      FrozenArraySet<Integer> frozen = new ArraySet<Integer>().freeze();
+      assertTrue(frozen.isEmpty());
+      assertFalse(frozen.contains(0));
+      assertTrue(frozen.equals(frozenOf()));
+   }
+
+   @Test
+   public void testConcurrentArraySetFreezeTrims() {
+      ConcurrentArraySet<Integer> set = new ConcurrentArraySet<Integer>(Arrays.asList(5, 4, 3, 2, 1));
+      set.remove(3);
+      set.remove(5);
+      FrozenArraySet<Integer> frozen = set.freeze();
+      set.add(9);
+      assertEquals("[1, 2, 4]", frozen.toString());
+      assertEquals(3, backing(frozen).length);
+   }
+
+   @Test
+   public void testEqualsIsSymmetric() {
+      FrozenArraySet<Integer> a = frozenOf(Integer.MIN_VALUE, 0, Integer.MAX_VALUE);
+      FrozenArraySet<Integer> b = new FrozenArraySet.Builder<Integer>()
+         .add(Integer.MAX_VALUE).add(0).add(Integer.MIN_VALUE).build();
+      assertTrue(a.equals((Object) b));
+      assertTrue(b.equals((Object) a));
+      assertEquals(a.hashCode(), b.hashCode());
+      assertFalse(a.equals((Object) frozenOf(Integer.MIN_VALUE, 0)));
+      assertFalse(a.equals((Object) null));
+   }
+
+   @Test
+   public void testUnequalToMutableSet() {
+      ArraySet<Integer> mutable = new ArraySet<Integer>(new Integer[] {1, 2});
+      FrozenArraySet<Integer> frozen = frozenOf(1, 2);
+      assertFalse(frozen.equals((Object) mutable));
+      assertFalse(mutable.equals((Object) frozen));
+      assertTrue(frozen.equals((Set<Integer>) mutable));
+   }
+
+   @Test
+   public void testUnequalAcrossComparators() {
+      FrozenArraySet<Integer> reversed = new FrozenArraySet.Builder<Integer>(
+         Collections.<Integer>reverseOrder()).addAll(Arrays.asList(1, 2)).build();
+      FrozenArraySet<Integer> natural = frozenOf(1, 2);
+      assertFalse(reversed.equals((Object) natural));
+      assertFalse(natural.equals((Object) reversed));
+      assertTrue(reversed.equals((Set<Integer>) natural));
+   }
+
+   @Test
+   public void testMapKey() {
+      Map<FrozenArraySet<Integer>, String> map = new HashMap<FrozenArraySet<Integer>, String>();
+      map.put(frozenOf(1, 2, 3), "abc");
+      assertEquals("abc", map.get(frozenOf(3, 2, 1)));
+      assertEquals(null, map.get(frozenOf(1, 2)));
+   }
+
+   @Test
+   public void testAlgebraReturnsFrozenSets() {
+      FrozenArraySet<Integer> a = frozenOf(Integer.MIN_VALUE, 1, 2);
+      ArraySet<Integer> b = new ArraySet<Integer>(new Integer[] {2, 3, Integer.MAX_VALUE});
+      FrozenArraySet<Integer> union = a.union(b);
+      FrozenArraySet<Integer> intersection = a.intersection(b);
+      FrozenArraySet<Integer> complement = a.complement((Set<Integer>) b);
+      assertEquals("[-2147483648, 1, 2, 3, 2147483647]", union.toString());
+      assertEquals("[2]", intersection.toString());
+      assertEquals("[-2147483648, 1]", complement.toString());
+      assertTrue(a.intersection(frozenOf()).isEmpty());
+   }
+
+   @Test
+   public void testBuilder() {
+      FrozenArraySet.Builder<Integer> builder = new FrozenArraySet.Builder<Integer>();
+      assertTrue(builder.build().isEmpty());
+      for (int i = 0; i < 100; i++) {
+         builder.add(i % 10).add(null);
+      }
+      builder.add(Integer.MIN_VALUE).add(Integer.MAX_VALUE);
+      FrozenArraySet<Integer> first = builder.build();
+      assertEquals(12, first.size());
+      builder.add(-1);
+      assertEquals(12, first.size());
+      assertEquals(13, builder.build().size());
+      assertTrue(builder.build().contains(Integer.MIN_VALUE));
+   }
+
+
+   /**
+    * Returns the backing array of set.
+    */
+   private static Object[] backing(ArraySet<?> set) {
+      return set.elements;
+   }
+
+   /**
+    * Returns a frozen set holding values.
+    */
+   private static FrozenArraySet<Integer> frozenOf(Integer... values) {
+      return new ArraySet<Integer>(values).freeze();
+   }
+}
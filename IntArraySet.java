@@ -0,0 +1,428 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * IntArraySet.java.
+ *
+ * Provides an implementation of the Set interface for int values using
+ * an int[] as the underlying data structure. Values are kept in ascending
+ * order exactly as in ArraySet, but members are stored unboxed and
+ * compared directly, so lookups neither allocate nor dispatch through
+ * compareTo. The Integer-typed methods required by Set delegate to the
+ * primitive ones.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-19
+ *
+ */
+public class IntArraySet implements Set<Integer> {
+
+   int[] elements;
+   int size;
+   // Sum of Set.fingerprintOf over the hash codes of the elements.
+   long fingerprint;
+
+   /**
+    * Instantiates an empty set.
+    */
+   public IntArraySet() {
+      elements = new int[1];
+      size = 0;
+   }
+
+   /**
+    * Instantiates a set containing the given values. The values are
+    * sorted and deduplicated in one pass. The array is not changed.
+    *
+    * @param  values  the values to be placed in this set
+    */
+   public IntArraySet(int[] values) {
+      this();
+      addAll(values);
+   }
+
+   /**
+    * Instantiates a set that takes ownership of an array whose first
+    * size slots are already sorted and free of duplicates.
+    */
+   private IntArraySet(int[] sorted, int size) {
+      elements = sorted;
+      this.size = size;
+      fingerprint = PrimitiveArrays.fingerprintOf(sorted, size);
+   }
+
+   /**
+    * Returns the current size of this collection.
+    *
+    * @return  the number of elements in this collection.
+    */
+   @Override
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Tests to see if this collection is empty.
+    *
+    * @return  true if this collection contains no elements,
+    *               false otherwise.
+    */
+   @Override
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   /**
+    * Return a string representation of this IntArraySet.
+    *
+    * @return a string representation of this IntArraySet
+    */
+   @Override
+   public String toString() {
+      if (isEmpty()) {
+         return "[]";
+      }
+      StringBuilder result = new StringBuilder();
+      result.append("[");
+      for (int i = 0; i < size; i++) {
+         result.append(elements[i]).append(", ");
+      }
+      result.delete(result.length() - 2, result.length());
+      result.append("]");
+      return result.toString();
+   }
+
+   /**
+    * Ensures the collection contains the specified value.
+    *
+    * @param  value  The value whose presence is to be ensured.
+    * @return true if collection is changed, false otherwise.
+    */
+   public boolean add(int value) {
+      int location = Arrays.binarySearch(elements, 0, size, value);
+      if (location >= 0) {
+         return false;
+      }
+      elements = PrimitiveArrays.insertAt(elements, size, -(location + 1), value);
+      size++;
+      fingerprint += Set.fingerprintOf(Integer.hashCode(value));
+      return true;
+   }
+
+   /**
+    * Ensures the collection contains the specified element. Null
+    * values are not allowed.
+    *
+    * @param  element  The element whose presence is to be ensured.
+    * @return true if collection is changed, false otherwise.
+    */
+   @Override
+   public boolean add(Integer element) {
+      if (element == null) {
+         return false;
+      }
+      return add(element.intValue());
+   }
+
+   /**
+    * Ensures the collection contains all of the given values. The
+    * values are sorted, deduplicated and merged with the current
+    * contents in one pass. The array is not changed.
+    *
+    * @param  values  The values whose presence is to be ensured.
+    * @return true if collection is changed, false otherwise.
+    */
+   public boolean addAll(int[] values) {
+      if (values.length == 0) {
+         return false;
+      }
+      int[] incoming = values.clone();
+      int distinct = PrimitiveArrays.sortDistinct(incoming);
+      int[] result = new int[size + distinct];
+      int count = PrimitiveArrays.unionInto(elements, size, incoming, distinct, result);
+      if (count == size) {
+         return false;
+      }
+      elements = result;
+      size = count;
+      fingerprint = PrimitiveArrays.fingerprintOf(result, count);
+      return true;
+   }
+
+   /**
+    * Ensures the collection does not contain the specified value.
+    *
+    * @param   value  The value to be removed.
+    * @return  true if collection is changed, false otherwise.
+    */
+   public boolean remove(int value) {
+      int location = Arrays.binarySearch(elements, 0, size, value);
+      if (location < 0) {
+         return false;
+      }
+      elements = PrimitiveArrays.removeAt(elements, size, location);
+      size--;
+      fingerprint -= Set.fingerprintOf(Integer.hashCode(value));
+      return true;
+   }
+
+   /**
+    * Ensures the collection does not contain the specified element.
+    *
+    * @param   element  The element to be removed.
+    * @return  true if collection is changed, false otherwise.
+    */
+   @Override
+   public boolean remove(Integer element) {
+      if (element == null) {
+         return false;
+      }
+      return remove(element.intValue());
+   }
+
+   /**
+    * Searches for the specified value in this collection without
+    * allocating.
+    *
+    * @param   value  The value whose presence is to be tested.
+    * @return  true if this collection contains the specified value,
+    *               false otherwise.
+    */
+   public boolean contains(int value) {
+      return Arrays.binarySearch(elements, 0, size, value) >= 0;
+   }
+
+   /**
+    * Searches for the specified element in this collection.
+    *
+    * @param   element  The element whose presence is to be tested.
+    * @return  true if this collection contains the specified element,
+    *               false otherwise.
+    */
+   @Override
+   public boolean contains(Integer element) {
+      return element != null && contains(element.intValue());
+   }
+
+   /**
+    * Tests for equality between this set and the parameter set.
+    *
+    * @return  true if this set contains exactly the same elements
+    *               as the parameter set, false otherwise
+    */
+   @Override
+   public boolean equals(Set<Integer> s) {
+      if (s instanceof IntArraySet) {
+         return equals((IntArraySet) s);
+      }
+      if (size != s.size() || fingerprint != s.fingerprint()) {
+         return false;
+      }
+      for (Integer element : s) {
+         if (!contains(element)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Tests for equality between this set and the parameter set by
+    * comparing the two sorted arrays.
+    *
+    * @return  true if this set contains exactly the same elements
+    *               as the parameter set, false otherwise
+    */
+   public boolean equals(IntArraySet s) {
+      return size == s.size && fingerprint == s.fingerprint
+         && Arrays.equals(elements, 0, size, s.elements, 0, s.size);
+   }
+
+   /**
+    * Returns the fingerprint of this set, which is kept up to date by
+    * add and remove rather than recomputed.
+    *
+    * @return  the fingerprint of this set
+    */
+   @Override
+   public long fingerprint() {
+      return fingerprint;
+   }
+
+   /**
+    * Returns a set that is the union of this set and the parameter set.
+    *
+    * @return  a set that contains all the elements of this set and
+    *            the parameter set
+    */
+   @Override
+   public Set<Integer> union(Set<Integer> s) {
+      return union(from(s));
+   }
+
+   /**
+    * Returns a set that is the union of this set and the parameter set.
+    * Both sorted arrays are merged in a single linear pass.
+    *
+    * @return  a set that contains all the elements of this set and
+    *            the parameter set
+    */
+   public IntArraySet union(IntArraySet s) {
+      int[] result = new int[Math.max(1, size + s.size)];
+      int count = PrimitiveArrays.unionInto(elements, size, s.elements, s.size, result);
+      return new IntArraySet(result, count);
+   }
+
+   /**
+    * Returns a set that is the intersection of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains elements that are in both
+    *            this set and the parameter set
+    */
+   @Override
+   public Set<Integer> intersection(Set<Integer> s) {
+      if (s instanceof IntArraySet) {
+         return intersection((IntArraySet) s);
+      }
+      int[] result = new int[Math.max(1, size)];
+      int count = PrimitiveArrays.filterInto(elements, size, s, true, result);
+      return new IntArraySet(result, count);
+   }
+
+   /**
+    * Returns a set that is the intersection of this set and the
+    * parameter set. Sets of similar size are merged in one linear
+    * pass; skewed sizes gallop through the larger array as in ArraySet.
+    *
+    * @return  a set that contains elements that are in both
+    *            this set and the parameter set
+    */
+   public IntArraySet intersection(IntArraySet s) {
+      int[] result = new int[Math.max(1, Math.min(size, s.size))];
+      int count = PrimitiveArrays.intersectionInto(elements, size, s.elements, s.size, result);
+      return new IntArraySet(result, count);
+   }
+
+   /**
+    * Returns a set that is the complement of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains elements that are in this
+    *            set but not the parameter set
+    */
+   @Override
+   public Set<Integer> complement(Set<Integer> s) {
+      if (s instanceof IntArraySet) {
+         return complement((IntArraySet) s);
+      }
+      int[] result = new int[Math.max(1, size)];
+      int count = PrimitiveArrays.filterInto(elements, size, s, false, result);
+      return new IntArraySet(result, count);
+   }
+
+   /**
+    * Returns a set that is the complement of this set and the
+    * parameter set. Both sorted arrays are merged in a single
+    * linear pass.
+    *
+    * @return  a set that contains elements that are in this
+    *            set but not the parameter set
+    */
+   public IntArraySet complement(IntArraySet s) {
+      int[] result = new int[Math.max(1, size)];
+      int count = PrimitiveArrays.complementInto(elements, size, s.elements, s.size, result);
+      return new IntArraySet(result, count);
+   }
+
+   /**
+    * Returns a copy of the values in this set in ascending order.
+    *
+    * @return  a sorted array of the values in this set
+    */
+   public int[] toArray() {
+      return Arrays.copyOf(elements, size);
+   }
+
+   /**
+    * Returns an iterator over the elements in this set in ascending
+    * order. Each value is boxed as it is returned.
+    *
+    * @return  an iterator over the elements in this set
+    */
+   @Override
+   public Iterator<Integer> iterator() {
+      return
+         new Iterator<Integer>() {
+            private int current = 0;
+         
+            @Override
+            public boolean hasNext() {
+               return current < size;
+            }
+         
+            @Override
+            public Integer next() {
+               if (!hasNext()) {
+                  throw new NoSuchElementException();
+               }
+               int value = elements[current];
+               current++;
+               return value;
+            }
+         
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+   }
+
+   /**
+    * Returns a spliterator over the values in this set in ascending
+    * order. It splits the backing array by index ranges and, used
+    * through intStream(), passes values on without boxing.
+    *
+    * @return  a spliterator over the values in this set
+    */
+   @Override
+   public Spliterator.OfInt spliterator() {
+      return Spliterators.spliterator(elements, 0, size,
+         Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL);
+   }
+
+   /**
+    * Returns a sequential IntStream over the values in this set in
+    * ascending order. Call parallel() on it to split the work across
+    * the common fork-join pool.
+    *
+    * @return  a stream of the values in this set
+    */
+   public IntStream intStream() {
+      return StreamSupport.intStream(spliterator(), false);
+   }
+
+   /**
+   * Returns s as an IntArraySet, bulk loading it if it is some other Set.
+   */
+   private static IntArraySet from(Set<Integer> s) {
+      if (s instanceof IntArraySet) {
+         return (IntArraySet) s;
+      }
+      int[] values = new int[s.size()];
+      int count = 0;
+      for (Integer element : s) {
+         if (count == values.length) {
+            values = Arrays.copyOf(values, Math.max(1, count * 2));
+         }
+         values[count] = element;
+         count++;
+      }
+      return new IntArraySet(Arrays.copyOf(values, count));
+   }
+}
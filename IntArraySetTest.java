@@ -0,0 +1,127 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Provides JUnit test cases for the IntArraySet class.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class IntArraySetTest {
+
+   @Test
+   public void testConstructorSortsAndDeduplicates() {
+      IntArraySet set = new IntArraySet(new int[] {4, -1, 4, 0, -1});
+      assertArrayEquals(new int[] {-1, 0, 4}, set.toArray());
+   }
+
+   @Test
+   public void testEmpty() {
+      IntArraySet set = new IntArraySet(new int[0]);
+      assertTrue(set.isEmpty());
+      assertEquals("[]", set.toString());
+      assertFalse(set.contains(0));
+      assertFalse(set.remove(0));
+   }
+
+   @Test
+   public void testExtremes() {
+      IntArraySet set = new IntArraySet();
+      assertTrue(set.add(Integer.MAX_VALUE));
+      assertTrue(set.add(Integer.MIN_VALUE));
+      assertFalse(set.add(Integer.MAX_VALUE));
+      assertArrayEquals(new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE}, set.toArray());
+      assertTrue(set.remove(Integer.MIN_VALUE));
+      assertArrayEquals(new int[] {Integer.MAX_VALUE}, set.toArray());
+   }
+
+   @Test
+   public void testNullElements() {
+      IntArraySet set = new IntArraySet(new int[] {1});
+      assertFalse(set.add((Integer) null));
+      assertFalse(set.remove((Integer) null));
+      assertFalse(set.contains((Integer) null));
+      assertEquals(1, set.size());
+   }
+
+   @Test
+   public void testAddAll() {
+      IntArraySet set = new IntArraySet(new int[] {1, 5});
+      int[] values = {5, 3, 3};
+      assertTrue(set.addAll(values));
+      assertFalse(set.addAll(values));
+      assertFalse(set.addAll(new int[0]));
+      assertArrayEquals(new int[] {1, 3, 5}, set.toArray());
+      assertArrayEquals(new int[] {5, 3, 3}, values);
+   }
+
+   @Test
+   public void testAlgebra() {
+      IntArraySet a = new IntArraySet(new int[] {Integer.MIN_VALUE, 1, 2, 3});
+      IntArraySet b = new IntArraySet(new int[] {2, 3, 4, Integer.MAX_VALUE});
+      assertArrayEquals(new int[] {Integer.MIN_VALUE, 1, 2, 3, 4, Integer.MAX_VALUE},
+         a.union(b).toArray());
+      assertArrayEquals(new int[] {2, 3}, a.intersection(b).toArray());
+      assertArrayEquals(new int[] {Integer.MIN_VALUE, 1}, a.complement(b).toArray());
+   }
+
+   @Test
+   public void testAlgebraWithOtherSetTypes() {
+      IntArraySet a = new IntArraySet(new int[] {1, 2, 3});
+      ArraySet<Integer> b = new ArraySet<Integer>(new Integer[] {3, 4});
+      assertEquals("[1, 2, 3, 4]", a.union(b).toString());
+      assertEquals("[3]", a.intersection(b).toString());
+      assertEquals("[1, 2]", a.complement(b).toString());
+   }
+
+   @Test
+   public void testSkewedIntersection() {
+      int[] values = new int[10000];
+      for (int i = 0; i < values.length; i++) {
+         values[i] = 2 * i;
+      }
+      IntArraySet large = new IntArraySet(values);
+      IntArraySet small = new IntArraySet(new int[] {-2, 0, 1, 9998, 19998, 20000});
+      assertArrayEquals(new int[] {0, 9998, 19998}, large.intersection(small).toArray());
+      assertArrayEquals(new int[] {0, 9998, 19998}, small.intersection(large).toArray());
+   }
+
+   @Test
+   public void testEqualsOtherSetTypes() {
+      IntArraySet a = new IntArraySet(new int[] {3, 1, 2});
+      ArraySet<Integer> b = new ArraySet<Integer>(new Integer[] {1, 2, 3});
+      assertTrue(a.equals(b));
+      assertTrue(b.equals(a));
+      assertEquals(b.fingerprint(), a.fingerprint());
+      b.remove(2);
+      assertFalse(a.equals(b));
+   }
+
+   @Test
+   public void testToArrayIsACopy() {
+      IntArraySet set = new IntArraySet(new int[] {1, 2});
+      set.toArray()[0] = 7;
+      assertArrayEquals(new int[] {1, 2}, set.toArray());
+   }
+
+   @Test
+   public void testIntStream() {
+      IntArraySet set = new IntArraySet(new int[] {1, 2, 3, 4});
+      assertEquals(10, set.intStream().sum());
+      assertEquals(10, set.intStream().parallel().sum());
+   }
+
+   @Test(expected = NoSuchElementException.class)
+   public void testIteratorPastEnd() {
+      Iterator<Integer> it = new IntArraySet(new int[] {1}).iterator();
+      it.next();
+      it.next();
+   }
+}
@@ -0,0 +1,428 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * LongArraySet.java.
+ *
+ * Provides an implementation of the Set interface for long values using
+ * a long[] as the underlying data structure. Values are kept in ascending
+ * order exactly as in ArraySet, but members are stored unboxed and
+ * compared directly, so lookups neither allocate nor dispatch through
+ * compareTo. The Long-typed methods required by Set delegate to the
+ * primitive ones.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-19
+ *
+ */
+public class LongArraySet implements Set<Long> {
+
+   long[] elements;
+   int size;
+   // Sum of Set.fingerprintOf over the hash codes of the elements.
+   long fingerprint;
+
+   /**
+    * Instantiates an empty set.
+    */
+   public LongArraySet() {
+      elements = new long[1];
+      size = 0;
+   }
+
+   /**
+    * Instantiates a set containing the given values. The values are
+    * sorted and deduplicated in one pass. The array is not changed.
+    *
+    * @param  values  the values to be placed in this set
+    */
+   public LongArraySet(long[] values) {
+      this();
+      addAll(values);
+   }
+
+   /**
+    * Instantiates a set that takes ownership of an array whose first
+    * size slots are already sorted and free of duplicates.
+    */
+   private LongArraySet(long[] sorted, int size) {
+      elements = sorted;
+      this.size = size;
+      fingerprint = PrimitiveArrays.fingerprintOf(sorted, size);
+   }
+
+   /**
+    * Returns the current size of this collection.
+    *
+    * @return  the number of elements in this collection.
+    */
+   @Override
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Tests to see if this collection is empty.
+    *
+    * @return  true if this collection contains no elements,
+    *               false otherwise.
+    */
+   @Override
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   /**
+    * Return a string representation of this LongArraySet.
+    *
+    * @return a string representation of this LongArraySet
+    */
+   @Override
+   public String toString() {
+      if (isEmpty()) {
+         return "[]";
+      }
+      StringBuilder result = new StringBuilder();
+      result.append("[");
+      for (int i = 0; i < size; i++) {
+         result.append(elements[i]).append(", ");
+      }
+      result.delete(result.length() - 2, result.length());
+      result.append("]");
+      return result.toString();
+   }
+
+   /**
+    * Ensures the collection contains the specified value.
+    *
+    * @param  value  The value whose presence is to be ensured.
+    * @return true if collection is changed, false otherwise.
+    */
+   public boolean add(long value) {
+      int location = Arrays.binarySearch(elements, 0, size, value);
+      if (location >= 0) {
+         return false;
+      }
+      elements = PrimitiveArrays.insertAt(elements, size, -(location + 1), value);
+      size++;
+      fingerprint += Set.fingerprintOf(Long.hashCode(value));
+      return true;
+   }
+
+   /**
+    * Ensures the collection contains the specified element. Null
+    * values are not allowed.
+    *
+    * @param  element  The element whose presence is to be ensured.
+    * @return true if collection is changed, false otherwise.
+    */
+   @Override
+   public boolean add(Long element) {
+      if (element == null) {
+         return false;
+      }
+      return add(element.longValue());
+   }
+
+   /**
+    * Ensures the collection contains all of the given values. The
+    * values are sorted, deduplicated and merged with the current
+    * contents in one pass. The array is not changed.
+    *
+    * @param  values  The values whose presence is to be ensured.
+    * @return true if collection is changed, false otherwise.
+    */
+   public boolean addAll(long[] values) {
+      if (values.length == 0) {
+         return false;
+      }
+      long[] incoming = values.clone();
+      int distinct = PrimitiveArrays.sortDistinct(incoming);
+      long[] result = new long[size + distinct];
+      int count = PrimitiveArrays.unionInto(elements, size, incoming, distinct, result);
+      if (count == size) {
+         return false;
+      }
+      elements = result;
+      size = count;
+      fingerprint = PrimitiveArrays.fingerprintOf(result, count);
+      return true;
+   }
+
+   /**
+    * Ensures the collection does not contain the specified value.
+    *
+    * @param   value  The value to be removed.
+    * @return  true if collection is changed, false otherwise.
+    */
+   public boolean remove(long value) {
+      int location = Arrays.binarySearch(elements, 0, size, value);
+      if (location < 0) {
+         return false;
+      }
+      elements = PrimitiveArrays.removeAt(elements, size, location);
+      size--;
+      fingerprint -= Set.fingerprintOf(Long.hashCode(value));
+      return true;
+   }
+
+   /**
+    * Ensures the collection does not contain the specified element.
+    *
+    * @param   element  The element to be removed.
+    * @return  true if collection is changed, false otherwise.
+    */
+   @Override
+   public boolean remove(Long element) {
+      if (element == null) {
+         return false;
+      }
+      return remove(element.longValue());
+   }
+
+   /**
+    * Searches for the specified value in this collection without
+    * allocating.
+    *
+    * @param   value  The value whose presence is to be tested.
+    * @return  true if this collection contains the specified value,
+    *               false otherwise.
+    */
+   public boolean contains(long value) {
+      return Arrays.binarySearch(elements, 0, size, value) >= 0;
+   }
+
+   /**
+    * Searches for the specified element in this collection.
+    *
+    * @param   element  The element whose presence is to be tested.
+    * @return  true if this collection contains the specified element,
+    *               false otherwise.
+    */
+   @Override
+   public boolean contains(Long element) {
+      return element != null && contains(element.longValue());
+   }
+
+   /**
+    * Tests for equality between this set and the parameter set.
+    *
+    * @return  true if this set contains exactly the same elements
+    *               as the parameter set, false otherwise
+    */
+   @Override
+   public boolean equals(Set<Long> s) {
+      if (s instanceof LongArraySet) {
+         return equals((LongArraySet) s);
+      }
+      if (size != s.size() || fingerprint != s.fingerprint()) {
+         return false;
+      }
+      for (Long element : s) {
+         if (!contains(element)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Tests for equality between this set and the parameter set by
+    * comparing the two sorted arrays.
+    *
+    * @return  true if this set contains exactly the same elements
+    *               as the parameter set, false otherwise
+    */
+   public boolean equals(LongArraySet s) {
+      return size == s.size && fingerprint == s.fingerprint
+         && Arrays.equals(elements, 0, size, s.elements, 0, s.size);
+   }
+
+   /**
+    * Returns the fingerprint of this set, which is kept up to date by
+    * add and remove rather than recomputed.
+    *
+    * @return  the fingerprint of this set
+    */
+   @Override
+   public long fingerprint() {
+      return fingerprint;
+   }
+
+   /**
+    * Returns a set that is the union of this set and the parameter set.
+    *
+    * @return  a set that contains all the elements of this set and
+    *            the parameter set
+    */
+   @Override
+   public Set<Long> union(Set<Long> s) {
+      return union(from(s));
+   }
+
+   /**
+    * Returns a set that is the union of this set and the parameter set.
+    * Both sorted arrays are merged in a single linear pass.
+    *
+    * @return  a set that contains all the elements of this set and
+    *            the parameter set
+    */
+   public LongArraySet union(LongArraySet s) {
+      long[] result = new long[Math.max(1, size + s.size)];
+      int count = PrimitiveArrays.unionInto(elements, size, s.elements, s.size, result);
+      return new LongArraySet(result, count);
+   }
+
+   /**
+    * Returns a set that is the intersection of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains elements that are in both
+    *            this set and the parameter set
+    */
+   @Override
+   public Set<Long> intersection(Set<Long> s) {
+      if (s instanceof LongArraySet) {
+         return intersection((LongArraySet) s);
+      }
+      long[] result = new long[Math.max(1, size)];
+      int count = PrimitiveArrays.filterInto(elements, size, s, true, result);
+      return new LongArraySet(result, count);
+   }
+
+   /**
+    * Returns a set that is the intersection of this set and the
+    * parameter set. Sets of similar size are merged in one linear
+    * pass; skewed sizes gallop through the larger array as in ArraySet.
+    *
+    * @return  a set that contains elements that are in both
+    *            this set and the parameter set
+    */
+   public LongArraySet intersection(LongArraySet s) {
+      long[] result = new long[Math.max(1, Math.min(size, s.size))];
+      int count = PrimitiveArrays.intersectionInto(elements, size, s.elements, s.size, result);
+      return new LongArraySet(result, count);
+   }
+
+   /**
+    * Returns a set that is the complement of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains elements that are in this
+    *            set but not the parameter set
+    */
+   @Override
+   public Set<Long> complement(Set<Long> s) {
+      if (s instanceof LongArraySet) {
+         return complement((LongArraySet) s);
+      }
+      long[] result = new long[Math.max(1, size)];
+      int count = PrimitiveArrays.filterInto(elements, size, s, false, result);
+      return new LongArraySet(result, count);
+   }
+
+   /**
+    * Returns a set that is the complement of this set and the
+    * parameter set. Both sorted arrays are merged in a single
+    * linear pass.
+    *
+    * @return  a set that contains elements that are in this
+    *            set but not the parameter set
+    */
+   public LongArraySet complement(LongArraySet s) {
+      long[] result = new long[Math.max(1, size)];
+      int count = PrimitiveArrays.complementInto(elements, size, s.elements, s.size, result);
+      return new LongArraySet(result, count);
+   }
+
+   /**
+    * Returns a copy of the values in this set in ascending order.
+    *
+    * @return  a sorted array of the values in this set
+    */
+   public long[] toArray() {
+      return Arrays.copyOf(elements, size);
+   }
+
+   /**
+    * Returns an iterator over the elements in this set in ascending
+    * order. Each value is boxed as it is returned.
+    *
+    * @return  an iterator over the elements in this set
+    */
+   @Override
+   public Iterator<Long> iterator() {
+      return
+         new Iterator<Long>() {
+            private int current = 0;
+         
+            @Override
+            public boolean hasNext() {
+               return current < size;
+            }
+         
+            @Override
+            public Long next() {
+               if (!hasNext()) {
+                  throw new NoSuchElementException();
+               }
+               long value = elements[current];
+               current++;
+               return value;
+            }
+         
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+   }
+
+   /**
+    * Returns a spliterator over the values in this set in ascending
+    * order. It splits the backing array by index ranges and, used
+    * through longStream(), passes values on without boxing.
+    *
+    * @return  a spliterator over the values in this set
+    */
+   @Override
+   public Spliterator.OfLong spliterator() {
+      return Spliterators.spliterator(elements, 0, size,
+         Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL);
+   }
+
+   /**
+    * Returns a sequential LongStream over the values in this set in
+    * ascending order. Call parallel() on it to split the work across
+    * the common fork-join pool.
+    *
+    * @return  a stream of the values in this set
+    */
+   public LongStream longStream() {
+      return StreamSupport.longStream(spliterator(), false);
+   }
+
+   /**
+   * Returns s as a LongArraySet, bulk loading it if it is some other Set.
+   */
+   private static LongArraySet from(Set<Long> s) {
+      if (s instanceof LongArraySet) {
+         return (LongArraySet) s;
+      }
+      long[] values = new long[s.size()];
+      int count = 0;
+      for (Long element : s) {
+         if (count == values.length) {
+            values = Arrays.copyOf(values, Math.max(1, count * 2));
+         }
+         values[count] = element;
+         count++;
+      }
+      return new LongArraySet(Arrays.copyOf(values, count));
+   }
+}
@@ -0,0 +1,127 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Provides JUnit test cases for the LongArraySet class.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class LongArraySetTest {
+
+   @Test
+   public void testConstructorSortsAndDeduplicates() {
+      LongArraySet set = new LongArraySet(new long[] {4, -1, 4, 0, -1});
+      assertArrayEquals(new long[] {-1, 0, 4}, set.toArray());
+   }
+
+   @Test
+   public void testEmpty() {
+      LongArraySet set = new LongArraySet(new long[0]);
+      assertTrue(set.isEmpty());
+      assertEquals("[]", set.toString());
+      assertFalse(set.contains(0));
+      assertFalse(set.remove(0));
+   }
+
+   @Test
+   public void testExtremes() {
+      LongArraySet set = new LongArraySet();
+      assertTrue(set.add(Long.MAX_VALUE));
+      assertTrue(set.add(Long.MIN_VALUE));
+      assertFalse(set.add(Long.MAX_VALUE));
+      assertArrayEquals(new long[] {Long.MIN_VALUE, Long.MAX_VALUE}, set.toArray());
+      assertTrue(set.remove(Long.MIN_VALUE));
+      assertArrayEquals(new long[] {Long.MAX_VALUE}, set.toArray());
+   }
+
+   @Test
+   public void testNullElements() {
+      LongArraySet set = new LongArraySet(new long[] {1});
+      assertFalse(set.add((Long) null));
+      assertFalse(set.remove((Long) null));
+      assertFalse(set.contains((Long) null));
+      assertEquals(1, set.size());
+   }
+
+   @Test
+   public void testAddAll() {
+      LongArraySet set = new LongArraySet(new long[] {1, 5});
+      long[] values = {5, 3, 3};
+      assertTrue(set.addAll(values));
+      assertFalse(set.addAll(values));
+      assertFalse(set.addAll(new long[0]));
+      assertArrayEquals(new long[] {1, 3, 5}, set.toArray());
+      assertArrayEquals(new long[] {5, 3, 3}, values);
+   }
+
+   @Test
+   public void testAlgebra() {
+      LongArraySet a = new LongArraySet(new long[] {Long.MIN_VALUE, 1, 2, 3});
+      LongArraySet b = new LongArraySet(new long[] {2, 3, 4, Long.MAX_VALUE});
+      assertArrayEquals(new long[] {Long.MIN_VALUE, 1, 2, 3, 4, Long.MAX_VALUE},
+         a.union(b).toArray());
+      assertArrayEquals(new long[] {2, 3}, a.intersection(b).toArray());
+      assertArrayEquals(new long[] {Long.MIN_VALUE, 1}, a.complement(b).toArray());
+   }
+
+   @Test
+   public void testAlgebraWithOtherSetTypes() {
+      LongArraySet a = new LongArraySet(new long[] {1, 2, 3});
+      ArraySet<Long> b = new ArraySet<Long>(new Long[] {3L, 4L});
+      assertEquals("[1, 2, 3, 4]", a.union(b).toString());
+      assertEquals("[3]", a.intersection(b).toString());
+      assertEquals("[1, 2]", a.complement(b).toString());
+   }
+
+   @Test
+   public void testSkewedIntersection() {
+      long[] values = new long[10000];
+      for (int i = 0; i < values.length; i++) {
+         values[i] = 2L * i;
+      }
+      LongArraySet large = new LongArraySet(values);
+      LongArraySet small = new LongArraySet(new long[] {-2, 0, 1, 9998, 19998, 20000});
+      assertArrayEquals(new long[] {0, 9998, 19998}, large.intersection(small).toArray());
+      assertArrayEquals(new long[] {0, 9998, 19998}, small.intersection(large).toArray());
+   }
+
+   @Test
+   public void testEqualsOtherSetTypes() {
+      LongArraySet a = new LongArraySet(new long[] {3, 1, 2});
+      ArraySet<Long> b = new ArraySet<Long>(new Long[] {1L, 2L, 3L});
+      assertTrue(a.equals(b));
+      assertTrue(b.equals(a));
+      assertEquals(b.fingerprint(), a.fingerprint());
+      b.remove(2L);
+      assertFalse(a.equals(b));
+   }
+
+   @Test
+   public void testToArrayIsACopy() {
+      LongArraySet set = new LongArraySet(new long[] {1, 2});
+      set.toArray()[0] = 7;
+      assertArrayEquals(new long[] {1, 2}, set.toArray());
+   }
+
+   @Test
+   public void testIntStream() {
+      LongArraySet set = new LongArraySet(new long[] {1, 2, 3, 4});
+      assertEquals(10, set.longStream().sum());
+      assertEquals(10, set.longStream().parallel().sum());
+   }
+
+   @Test(expected = NoSuchElementException.class)
+   public void testIteratorPastEnd() {
+      Iterator<Long> it = new LongArraySet(new long[] {1}).iterator();
+      it.next();
+      it.next();
+   }
+}
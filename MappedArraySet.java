@@ -0,0 +1,594 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * MappedArraySet.java.
+ *
+ * Provides a read-only implementation of the Set interface over a
+ * sorted set stored in a file. The file is memory-mapped when opened,
+ * so opening costs no parsing and takes the same time for any size:
+ * it checks the header, the file length and, for strings, the first
+ * and last offsets, and throws IOException if they disagree. Every
+ * other string offset is checked when it is read, and one that points
+ * outside the blob or before the previous offset throws
+ * UncheckedIOException. contains binary searches the mapping
+ * directly, comparing strings against their UTF-8 bytes without
+ * decoding them, and iteration decodes elements as it reaches them.
+ * Files are written with writeInts, writeLongs or writeStrings and
+ * opened with the matching openInts, openLongs or openStrings.
+ *
+ * File layout (big-endian):
+ *
+ *    int   MAGIC
+ *    int   element type (TYPE_INT, TYPE_LONG or TYPE_STRING)
+ *    int   number of elements n
+ *    int   reserved, always 0
+ *    long  fingerprint of the set
+ *    then, for ints and longs, the n values in ascending order;
+ *    for strings, n + 1 int offsets into a blob of the UTF-8 encoded
+ *    strings in ascending order, followed by the blob itself.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ *
+ */
+public final class MappedArraySet<T extends Comparable<? super T>> implements Set<T> {
+
+   // "ASET" in ASCII.
+   private static final int MAGIC = 0x41534554;
+   private static final int HEADER_BYTES = 24;
+   private static final int TYPE_INT = 1;
+   private static final int TYPE_LONG = 2;
+   private static final int TYPE_STRING = 3;
+
+   private final ByteBuffer buffer;
+   private final int type;
+   private final int size;
+   private final long fingerprint;
+   // Start and length of the blob of string bytes; unused for ints
+   // and longs.
+   private final int blobStart;
+   private final int blobLength;
+
+   /**
+   * Instantiates a set over a mapped file whose header has been checked.
+   */
+   private MappedArraySet(ByteBuffer buffer, int type) {
+      this.buffer = buffer;
+      this.type = type;
+      size = buffer.getInt(8);
+      fingerprint = buffer.getLong(16);
+      blobStart = HEADER_BYTES + 4 * (size + 1);
+      blobLength = buffer.capacity() - blobStart;
+   }
+
+   /**
+    * Writes a set of Integers to file. The set must iterate in ascending
+    * order, as ArraySet, IntArraySet and BitmapSet do.
+    *
+    * @param  s     the set to write
+    * @param  file  the file to create or replace
+    * @throws IOException if the file cannot be written
+    * @throws IllegalArgumentException if s does not iterate in ascending order
+    */
+   public static void writeInts(Set<Integer> s, Path file) throws IOException {
+      ByteBuffer out = header(TYPE_INT, s, 4L * s.size());
+      long previous = Long.MIN_VALUE;
+      for (Integer element : s) {
+         if (element <= previous) {
+            throw new IllegalArgumentException();
+         }
+         out.putInt(element);
+         previous = element;
+      }
+      write(out, file);
+   }
+
+   /**
+    * Writes a set of Longs to file. The set must iterate in ascending
+    * order, as ArraySet and LongArraySet do.
+    *
+    * @param  s     the set to write
+    * @param  file  the file to create or replace
+    * @throws IOException if the file cannot be written
+    * @throws IllegalArgumentException if s does not iterate in ascending order
+    */
+   public static void writeLongs(Set<Long> s, Path file) throws IOException {
+      ByteBuffer out = header(TYPE_LONG, s, 8L * s.size());
+      Long previous = null;
+      for (Long element : s) {
+         if (previous != null && element <= previous) {
+            throw new IllegalArgumentException();
+         }
+         out.putLong(element);
+         previous = element;
+      }
+      write(out, file);
+   }
+
+   /**
+    * Writes a set of Strings to file. The set must iterate in ascending
+    * order, as ArraySet does.
+    *
+    * @param  s     the set to write
+    * @param  file  the file to create or replace
+    * @throws IOException if the file cannot be written
+    * @throws IllegalArgumentException if s does not iterate in ascending order
+    */
+   public static void writeStrings(Set<String> s, Path file) throws IOException {
+      byte[][] encoded = new byte[s.size()][];
+      long blobBytes = 0;
+      int i = 0;
+      String previous = null;
+      for (String element : s) {
+         if (previous != null && element.compareTo(previous) <= 0) {
+            throw new IllegalArgumentException();
+         }
+         encoded[i] = element.getBytes(StandardCharsets.UTF_8);
+         blobBytes += encoded[i].length;
+         previous = element;
+         i++;
+      }
+      ByteBuffer out = header(TYPE_STRING, s, 4L * (s.size() + 1) + blobBytes);
+      int offset = 0;
+      for (byte[] bytes : encoded) {
+         out.putInt(offset);
+         offset += bytes.length;
+      }
+      out.putInt(offset);
+      for (byte[] bytes : encoded) {
+         out.put(bytes);
+      }
+      write(out, file);
+   }
+
+   /**
+    * Maps a file written by writeInts.
+    *
+    * @param  file  the file to open
+    * @return a read-only set backed by the mapped file
+    * @throws IOException if the file cannot be read or is not an int set file
+    */
+   public static MappedArraySet<Integer> openInts(Path file) throws IOException {
+      return new MappedArraySet<Integer>(map(file, TYPE_INT), TYPE_INT);
+   }
+
+   /**
+    * Maps a file written by writeLongs.
+    *
+    * @param  file  the file to open
+    * @return a read-only set backed by the mapped file
+    * @throws IOException if the file cannot be read or is not a long set file
+    */
+   public static MappedArraySet<Long> openLongs(Path file) throws IOException {
+      return new MappedArraySet<Long>(map(file, TYPE_LONG), TYPE_LONG);
+   }
+
+   /**
+    * Maps a file written by writeStrings.
+    *
+    * @param  file  the file to open
+    * @return a read-only set backed by the mapped file
+    * @throws IOException if the file cannot be read or is not a string set file
+    */
+   public static MappedArraySet<String> openStrings(Path file) throws IOException {
+      return new MappedArraySet<String>(map(file, TYPE_STRING), TYPE_STRING);
+   }
+
+   /**
+    * Returns the current size of this collection.
+    *
+    * @return  the number of elements in this collection.
+    */
+   @Override
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Tests to see if this collection is empty.
+    *
+    * @return  true if this collection contains no elements,
+    *               false otherwise.
+    */
+   @Override
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   /**
+    * Return a string representation of this MappedArraySet.
+    *
+    * @return a string representation of this MappedArraySet
+    */
+   @Override
+   public String toString() {
+      if (isEmpty()) {
+         return "[]";
+      }
+      StringBuilder result = new StringBuilder();
+      result.append("[");
+      for (T element : this) {
+         result.append(element + ", ");
+      }
+      result.delete(result.length() - 2, result.length());
+      result.append("]");
+      return result.toString();
+   }
+
+   /**
+    * Not supported; this set is read-only.
+    *
+    * @throws UnsupportedOperationException always
+    */
+   @Override
+   public boolean add(T element) {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Not supported; this set is read-only.
+    *
+    * @throws UnsupportedOperationException always
+    */
+   @Override
+   public boolean remove(T element) {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Searches for the specified element by binary search over the
+    * mapped file. Ints and longs are compared without boxing.
+    *
+    * @param   element  The element whose presence in this collection
+    *                   is to be tested.
+    * @return  true if this collection contains the specified element,
+    *               false otherwise.
+    * @throws UncheckedIOException if a string offset read is corrupt
+    */
+   @Override
+   public boolean contains(T element) {
+      if (element == null) {
+         return false;
+      }
+      int min = 0;
+      int max = size - 1;
+      while (min <= max) {
+         int mid = (min + max) >>> 1;
+         int comp = compareAt(mid, element);
+         if (comp < 0) {
+            min = mid + 1;
+         }
+         else if (comp > 0) {
+            max = mid - 1;
+         }
+         else {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Returns the fingerprint stored in the file header.
+    *
+    * @return  the fingerprint of this set
+    */
+   @Override
+   public long fingerprint() {
+      return fingerprint;
+   }
+
+   /**
+    * Tests for equality between this set and the parameter set.
+    *
+    * @return  true if this set contains exactly the same elements
+    *               as the parameter set, false otherwise
+    */
+   @Override
+   public boolean equals(Set<T> s) {
+      if (size != s.size() || fingerprint != s.fingerprint()) {
+         return false;
+      }
+      for (T element : s) {
+         if (!contains(element)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Returns a set that is the union of this set and the parameter set.
+    *
+    * @return  a set that contains all the elements of this set and
+    *            the parameter set
+    */
+   @Override
+   public Set<T> union(Set<T> s) {
+      return toArraySet().union(s);
+   }
+
+   /**
+    * Returns a set that is the intersection of this set and the
+    * parameter set. When the parameter set is the smaller one, its
+    * elements are looked up in the mapping instead of decoding this
+    * whole set.
+    *
+    * @return  a set that contains elements that are in both
+    *            this set and the parameter set
+    */
+   @Override
+   public Set<T> intersection(Set<T> s) {
+      if (s.size() >= size) {
+         return toArraySet().intersection(s);
+      }
+      ArraySet<T> result = new ArraySet<T>();
+      for (T element : s) {
+         if (contains(element)) {
+            result.add(element);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Returns a set that is the complement of this set and the
+    * parameter set.
+    *
+    * @return  a set that contains elements that are in this
+    *            set but not the parameter set
+    */
+   @Override
+   public Set<T> complement(Set<T> s) {
+      return toArraySet().complement(s);
+   }
+
+   /**
+    * Returns an iterator over the elements in this set in ascending
+    * order, decoding each one from the mapping as it is reached. next
+    * throws UncheckedIOException if the string's offsets are corrupt.
+    *
+    * @return  an iterator over the elements in this set
+    */
+   @Override
+   public Iterator<T> iterator() {
+      return
+         new Iterator<T>() {
+            private int current = 0;
+
+            @Override
+            public boolean hasNext() {
+               return current < size;
+            }
+
+            @Override
+            public T next() {
+               if (!hasNext()) {
+                  throw new NoSuchElementException();
+               }
+               T element = elementAt(current);
+               current++;
+               return element;
+            }
+
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+   }
+
+   /**
+    * Returns a new ArraySet holding the elements of this set.
+    *
+    * @return  an ArraySet copy of this set
+    */
+   public ArraySet<T> toArraySet() {
+      @SuppressWarnings("unchecked")
+      T[] items = (T[]) new Comparable[Math.max(1, size)];
+      for (int i = 0; i < size; i++) {
+         items[i] = elementAt(i);
+      }
+      return new ArraySet<T>(items, size);
+   }
+
+   /**
+   * Decodes the element at index i.
+   */
+   @SuppressWarnings("unchecked")
+   private T elementAt(int i) {
+      switch (type) {
+         case TYPE_INT:
+            return (T) Integer.valueOf(buffer.getInt(HEADER_BYTES + 4 * i));
+         case TYPE_LONG:
+            return (T) Long.valueOf(buffer.getLong(HEADER_BYTES + 8 * i));
+         default:
+            return (T) stringAt(i);
+      }
+   }
+
+   /**
+   * Compares the element at index i with element.
+   */
+   private int compareAt(int i, T element) {
+      switch (type) {
+         case TYPE_INT:
+            return Integer.compare(buffer.getInt(HEADER_BYTES + 4 * i), (Integer) element);
+         case TYPE_LONG:
+            return Long.compare(buffer.getLong(HEADER_BYTES + 8 * i), (Long) element);
+         default:
+            return compareString(i, (String) element);
+      }
+   }
+
+   /**
+   * Compares the string at index i with key in String.compareTo order,
+   * decoding its UTF-8 bytes in the mapping one char at a time rather
+   * than building a String. A sequence cut short by the end of the
+   * string reads as U+FFFD, as it does when decoded.
+   */
+   private int compareString(int i, String key) {
+      int at = blobStart + startOf(i);
+      int end = blobStart + offsetAt(i + 1);
+      int j = 0;
+      while (at < end) {
+         int lead = buffer.get(at) & 0xff;
+         int length = (lead < 0xc0) ? 1 : (lead < 0xe0) ? 2 : (lead < 0xf0) ? 3 : 4;
+         int codePoint;
+         if (length > end - at) {
+            codePoint = 0xfffd;
+            length = end - at;
+         }
+         else if (length == 1) {
+            codePoint = (lead < 0x80) ? lead : 0xfffd;
+         }
+         else {
+            codePoint = lead & (0x7f >> length);
+            for (int b = 1; b < length; b++) {
+               codePoint = (codePoint << 6) | (buffer.get(at + b) & 0x3f);
+            }
+         }
+         at += length;
+         if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            int comp = compareChar(Character.highSurrogate(codePoint), key, j);
+            if (comp != 0) {
+               return comp;
+            }
+            j++;
+            codePoint = Character.lowSurrogate(codePoint);
+         }
+         int comp = compareChar((char) codePoint, key, j);
+         if (comp != 0) {
+            return comp;
+         }
+         j++;
+      }
+      return (j < key.length()) ? -1 : 0;
+   }
+
+   /**
+   * Compares c with the char at index j of key, where a key that has
+   * ended sorts first.
+   */
+   private static int compareChar(char c, String key, int j) {
+      return (j == key.length()) ? 1 : c - key.charAt(j);
+   }
+
+   /**
+   * Returns the offset in the blob of the string at index i, after
+   * checking that it is no greater than the offset of the string that
+   * follows, so the string's bytes lie within the blob.
+   */
+   private int startOf(int i) {
+      int start = offsetAt(i);
+      if (start > offsetAt(i + 1)) {
+         throw new UncheckedIOException(new IOException("Corrupt string offset " + i));
+      }
+      return start;
+   }
+
+   /**
+   * Returns entry i of the offset table after checking that it lies
+   * within the blob.
+   */
+   private int offsetAt(int i) {
+      int offset = buffer.getInt(HEADER_BYTES + 4 * i);
+      if (offset < 0 || offset > blobLength) {
+         throw new UncheckedIOException(new IOException("Corrupt string offset " + i));
+      }
+      return offset;
+   }
+
+   /**
+   * Decodes the string at index i.
+   */
+   private String stringAt(int i) {
+      int start = startOf(i);
+      int end = offsetAt(i + 1);
+      byte[] bytes = new byte[end - start];
+      buffer.get(blobStart + start, bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+   }
+
+   /**
+   * Allocates an output buffer for a set of the given type and body
+   * size and fills in its header.
+   */
+   private static ByteBuffer header(int type, Set<?> s, long bodyBytes) {
+      long total = HEADER_BYTES + bodyBytes;
+      if (total > Integer.MAX_VALUE) {
+         throw new IllegalArgumentException();
+      }
+      ByteBuffer out = ByteBuffer.allocate((int) total);
+      out.putInt(MAGIC);
+      out.putInt(type);
+      out.putInt(s.size());
+      out.putInt(0);
+      out.putLong(s.fingerprint());
+      return out;
+   }
+
+   /**
+   * Writes the whole of out to file.
+   */
+   private static void write(ByteBuffer out, Path file) throws IOException {
+      out.flip();
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+         while (out.hasRemaining()) {
+            channel.write(out);
+         }
+      }
+   }
+
+   /**
+   * Maps file read-only and checks that its header matches type and
+   * that its length agrees with the element count. For strings it
+   * checks only that the first offset is 0 and that the last ends the
+   * file, so opening takes constant time; the offsets in between are
+   * checked by offsetAt as they are read.
+   */
+   private static ByteBuffer map(Path file, int type) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+         long length = channel.size();
+         if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+            throw new IOException("Not an ArraySet file: " + file);
+         }
+         ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+         if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != type) {
+            throw new IOException("Not an ArraySet file of the expected type: " + file);
+         }
+         long n = buffer.getInt(8);
+         if (n < 0 || buffer.getInt(12) != 0) {
+            throw new IOException("Corrupt ArraySet file header: " + file);
+         }
+         if (type == TYPE_INT || type == TYPE_LONG) {
+            long expected = HEADER_BYTES + ((type == TYPE_INT) ? 4 : 8) * n;
+            if (length != expected) {
+               throw new IOException("ArraySet file has " + length + " bytes, expected "
+                  + expected + ": " + file);
+            }
+            return buffer;
+         }
+         long blobStart = HEADER_BYTES + 4 * (n + 1);
+         if (length < blobStart) {
+            throw new IOException("ArraySet file is too short for its offsets: " + file);
+         }
+         if (buffer.getInt(HEADER_BYTES) != 0) {
+            throw new IOException("Corrupt string offset 0: " + file);
+         }
+         if (blobStart + buffer.getInt((int) (blobStart - 4)) != length) {
+            throw new IOException("ArraySet file strings do not end at end of file: " + file);
+         }
+         return buffer;
+      }
+   }
+}
@@ -0,0 +1,227 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Provides JUnit test cases for the MappedArraySet class.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class MappedArraySetTest {
+
+   @Test
+   public void testIntsRoundTrip() throws IOException {
+      ArraySet<Integer> set = new ArraySet<Integer>(
+         new Integer[] {Integer.MAX_VALUE, 0, -7, Integer.MIN_VALUE});
+      Path file = tempFile();
+      MappedArraySet.writeInts(set, file);
+      MappedArraySet<Integer> mapped = MappedArraySet.openInts(file);
+      assertEquals(set.toString(), mapped.toString());
+      assertEquals(set.fingerprint(), mapped.fingerprint());
+      assertTrue(mapped.contains(Integer.MIN_VALUE));
+      assertTrue(mapped.contains(Integer.MAX_VALUE));
+      assertFalse(mapped.contains(1));
+      assertFalse(mapped.contains(null));
+      assertTrue(mapped.equals(set));
+   }
+
+   @Test
+   public void testEmptyRoundTrip() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeInts(new ArraySet<Integer>(), file);
+      MappedArraySet<Integer> mapped = MappedArraySet.openInts(file);
+      assertTrue(mapped.isEmpty());
+      assertEquals("[]", mapped.toString());
+      assertFalse(mapped.contains(0));
+      assertTrue(mapped.toArraySet().isEmpty());
+   }
+
+   @Test
+   public void testLongsRoundTrip() throws IOException {
+      ArraySet<Long> set = new ArraySet<Long>(new Long[] {Long.MAX_VALUE, 1L, Long.MIN_VALUE});
+      Path file = tempFile();
+      MappedArraySet.writeLongs(set, file);
+      MappedArraySet<Long> mapped = MappedArraySet.openLongs(file);
+      assertEquals(set.toString(), mapped.toString());
+      assertTrue(mapped.contains(Long.MIN_VALUE));
+      assertFalse(mapped.contains(0L));
+   }
+
+   @Test
+   public void testStringsRoundTrip() throws IOException {
+      // U+FFFD sorts after the surrogate pair of U+1F600 in
+      // String.compareTo order, though not in code point order.
+      ArraySet<String> set = new ArraySet<String>(Arrays.asList(
+         "", "a", "ab", "b", "\u00e9t\u00e9", "\ud83d\ude00", "\ufffd"));
+      Path file = tempFile();
+      MappedArraySet.writeStrings(set, file);
+      MappedArraySet<String> mapped = MappedArraySet.openStrings(file);
+      assertEquals(set.toString(), mapped.toString());
+      for (String element : set) {
+         assertTrue(element, mapped.contains(element));
+      }
+      assertFalse(mapped.contains("a\u0000"));
+      assertFalse(mapped.contains("\ud83d"));
+      assertFalse(mapped.contains("c"));
+   }
+
+   @Test
+   public void testAlgebraWithArraySet() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeInts(new ArraySet<Integer>(new Integer[] {1, 2, 3, 4}), file);
+      MappedArraySet<Integer> mapped = MappedArraySet.openInts(file);
+      ArraySet<Integer> other = new ArraySet<Integer>(new Integer[] {3, 4, 5});
+      assertEquals("[1, 2, 3, 4, 5]", mapped.union(other).toString());
+      assertEquals("[3, 4]", mapped.intersection(other).toString());
+      assertEquals("[1, 2]", mapped.complement(other).toString());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testWriteUnsortedSet() throws IOException {
+      ArraySet<Integer> set = new ArraySet<Integer>(Arrays.asList(1, 2),
+         Collections.<Integer>reverseOrder());
+      MappedArraySet.writeInts(set, tempFile());
+   }
+
+   @Test(expected = UnsupportedOperationException.class)
+   public void testReadOnly() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeInts(new ArraySet<Integer>(), file);
+      MappedArraySet.openInts(file).add(1);
+   }
+
+   @Test(expected = NoSuchElementException.class)
+   public void testIteratorPastEnd() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeInts(new ArraySet<Integer>(), file);
+      Iterator<Integer> it = MappedArraySet.openInts(file).iterator();
+      it.next();
+   }
+
+   @Test(expected = IOException.class)
+   public void testOpenWrongType() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeInts(new ArraySet<Integer>(new Integer[] {1}), file);
+      MappedArraySet.openLongs(file);
+   }
+
+   @Test(expected = IOException.class)
+   public void testOpenNotASetFile() throws IOException {
+      Path file = tempFile();
+      Files.write(file, new byte[64]);
+      MappedArraySet.openInts(file);
+   }
+
+   @Test(expected = IOException.class)
+   public void testOpenTruncatedHeader() throws IOException {
+      Path file = tempFile();
+      Files.write(file, new byte[] {0x41, 0x53, 0x45, 0x54});
+      MappedArraySet.openInts(file);
+   }
+
+   @Test(expected = IOException.class)
+   public void testOpenTruncatedInts() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeInts(new ArraySet<Integer>(new Integer[] {1, 2, 3}), file);
+      byte[] bytes = Files.readAllBytes(file);
+      Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+      MappedArraySet.openInts(file);
+   }
+
+   @Test(expected = IOException.class)
+   public void testOpenCountTooLarge() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeInts(new ArraySet<Integer>(new Integer[] {1, 2, 3}), file);
+      corrupt(file, 8, 4);
+      MappedArraySet.openInts(file);
+   }
+
+   @Test(expected = IOException.class)
+   public void testOpenNegativeCount() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeLongs(new ArraySet<Long>(new Long[] {1L}), file);
+      corrupt(file, 8, -1);
+      MappedArraySet.openLongs(file);
+   }
+
+   @Test(expected = IOException.class)
+   public void testOpenStringOffsetOutOfBounds() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeStrings(new ArraySet<String>(Arrays.asList("ab", "cd")), file);
+      // Offsets start at byte 24; make the last one point past the blob.
+      corrupt(file, 32, 100);
+      MappedArraySet.openStrings(file);
+   }
+
+   @Test(expected = IOException.class)
+   public void testOpenStringFirstOffsetNotZero() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeStrings(new ArraySet<String>(Arrays.asList("ab", "cd")), file);
+      corrupt(file, 24, 1);
+      MappedArraySet.openStrings(file);
+   }
+
+   @Test(expected = UncheckedIOException.class)
+   public void testReadStringOffsetPastBlob() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeStrings(new ArraySet<String>(Arrays.asList("ab", "cd")), file);
+      // The blob is 4 bytes long; the middle offset is checked on read.
+      corrupt(file, 28, 5);
+      MappedArraySet<String> mapped = MappedArraySet.openStrings(file);
+      assertEquals(2, mapped.size());
+      mapped.contains("ab");
+   }
+
+   @Test(expected = UncheckedIOException.class)
+   public void testIterateStringOffsetsDecreasing() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeStrings(new ArraySet<String>(Arrays.asList("ab", "cd", "ef")), file);
+      // Offsets 0, 2, 4, 6 become 0, 4, 2, 6.
+      corrupt(file, 28, 4);
+      corrupt(file, 32, 2);
+      Iterator<String> it = MappedArraySet.openStrings(file).iterator();
+      assertEquals("abcd", it.next());
+      it.next();
+   }
+
+   @Test(expected = IOException.class)
+   public void testOpenStringBlobTruncated() throws IOException {
+      Path file = tempFile();
+      MappedArraySet.writeStrings(new ArraySet<String>(Arrays.asList("ab", "cd")), file);
+      byte[] bytes = Files.readAllBytes(file);
+      Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+      MappedArraySet.openStrings(file);
+   }
+
+
+   /**
+    * Returns a new empty file that is deleted when the JVM exits.
+    */
+   private static Path tempFile() throws IOException {
+      Path file = Files.createTempFile("MappedArraySetTest", ".set");
+      file.toFile().deleteOnExit();
+      return file;
+   }
+
+   /**
+    * Overwrites the big-endian int at the given byte offset of file.
+    */
+   private static void corrupt(Path file, int offset, int value) throws IOException {
+      byte[] bytes = Files.readAllBytes(file);
+      ByteBuffer.wrap(bytes).putInt(offset, value);
+      Files.write(file, bytes);
+   }
+}
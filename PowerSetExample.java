@@ -21,7 +21,8 @@ public class PowerSetExample {
       }
    
       // use the powerSetIterator to print out all
-      // 32 subsets of s
+      // 32 subsets of s; each differs from the one
+      // before it by exactly one element
       int i = 0;
       Iterator<Set<Integer>> ps = s.powerSetIterator();
       while (ps.hasNext()) {
@@ -37,36 +38,36 @@ public class PowerSetExample {
 
 Subset 0 = []
 Subset 1 = [0]
-Subset 2 = [1]
-Subset 3 = [0, 1]
-Subset 4 = [2]
-Subset 5 = [0, 2]
-Subset 6 = [1, 2]
-Subset 7 = [0, 1, 2]
-Subset 8 = [3]
-Subset 9 = [0, 3]
-Subset 10 = [1, 3]
-Subset 11 = [0, 1, 3]
-Subset 12 = [2, 3]
-Subset 13 = [0, 2, 3]
-Subset 14 = [1, 2, 3]
-Subset 15 = [0, 1, 2, 3]
-Subset 16 = [4]
-Subset 17 = [0, 4]
-Subset 18 = [1, 4]
-Subset 19 = [0, 1, 4]
-Subset 20 = [2, 4]
-Subset 21 = [0, 2, 4]
-Subset 22 = [1, 2, 4]
-Subset 23 = [0, 1, 2, 4]
-Subset 24 = [3, 4]
-Subset 25 = [0, 3, 4]
-Subset 26 = [1, 3, 4]
-Subset 27 = [0, 1, 3, 4]
-Subset 28 = [2, 3, 4]
-Subset 29 = [0, 2, 3, 4]
-Subset 30 = [1, 2, 3, 4]
-Subset 31 = [0, 1, 2, 3, 4]
+Subset 2 = [0, 1]
+Subset 3 = [1]
+Subset 4 = [1, 2]
+Subset 5 = [0, 1, 2]
+Subset 6 = [0, 2]
+Subset 7 = [2]
+Subset 8 = [2, 3]
+Subset 9 = [0, 2, 3]
+Subset 10 = [0, 1, 2, 3]
+Subset 11 = [1, 2, 3]
+Subset 12 = [1, 3]
+Subset 13 = [0, 1, 3]
+Subset 14 = [0, 3]
+Subset 15 = [3]
+Subset 16 = [3, 4]
+Subset 17 = [0, 3, 4]
+Subset 18 = [0, 1, 3, 4]
+Subset 19 = [1, 3, 4]
+Subset 20 = [1, 2, 3, 4]
+Subset 21 = [0, 1, 2, 3, 4]
+Subset 22 = [0, 2, 3, 4]
+Subset 23 = [2, 3, 4]
+Subset 24 = [2, 4]
+Subset 25 = [0, 2, 4]
+Subset 26 = [0, 1, 2, 4]
+Subset 27 = [1, 2, 4]
+Subset 28 = [1, 4]
+Subset 29 = [0, 1, 4]
+Subset 30 = [0, 4]
+Subset 31 = [4]
 
 
  */
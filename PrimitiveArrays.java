@@ -0,0 +1,479 @@
+import java.util.Arrays;
+
+/**
+* Defines the array work shared by IntArraySet and LongArraySet:
+* capacity growth, insertion and removal, deduplication, fingerprints
+* and the merge, gallop and filter kernels behind union, intersection
+* and complement. Every kernel works on sorted, duplicate-free
+* prefixes of its arrays and comes in an int[] and a long[] form,
+* kept side by side so the two sets cannot drift apart.
+*
+* @author   Avery Hyman (amh0120@auburn.edu)
+* @version  2017-10-30
+*
+*/
+final class PrimitiveArrays {
+
+   // Largest array length the JVM reliably allocates.
+   private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+   /**
+    * Can't instantiate this class.
+    */
+   private PrimitiveArrays() { }
+
+
+   /**
+    * Returns the length to grow a full array of the given length to:
+    * double it, but no more than MAX_LENGTH. This method throws
+    * OutOfMemoryError if the array cannot grow at all.
+    */
+   static int grownLength(int length) {
+      if (length >= MAX_LENGTH) {
+         throw new OutOfMemoryError();
+      }
+      return (int) Math.min(MAX_LENGTH, Math.max(1, 2L * length));
+   }
+
+
+   /**
+    * Returns the length to shrink an array of the given length to
+    * once it holds size values: half, if it is less than a quarter
+    * full, and its own length otherwise.
+    */
+   static int shrunkLength(int size, int length) {
+      return (size < length / 4) ? length / 2 : length;
+   }
+
+
+   /**
+    * Inserts value at index into the sorted prefix array[0..size),
+    * growing the array first if it is full. Returns the array that
+    * now holds the size + 1 values.
+    */
+   static int[] insertAt(int[] array, int size, int index, int value) {
+      if (size == array.length) {
+         array = Arrays.copyOf(array, grownLength(array.length));
+      }
+      System.arraycopy(array, index, array, index + 1, size - index);
+      array[index] = value;
+      return array;
+   }
+
+
+   /**
+    * Inserts value at index into the sorted prefix array[0..size),
+    * growing the array first if it is full. Returns the array that
+    * now holds the size + 1 values.
+    */
+   static long[] insertAt(long[] array, int size, int index, long value) {
+      if (size == array.length) {
+         array = Arrays.copyOf(array, grownLength(array.length));
+      }
+      System.arraycopy(array, index, array, index + 1, size - index);
+      array[index] = value;
+      return array;
+   }
+
+
+   /**
+    * Removes the value at index from the prefix array[0..size),
+    * shrinking the array afterwards if it is mostly empty. Returns
+    * the array that now holds the size - 1 values.
+    */
+   static int[] removeAt(int[] array, int size, int index) {
+      System.arraycopy(array, index + 1, array, index, size - index - 1);
+      int length = shrunkLength(size - 1, array.length);
+      if (length < array.length) {
+         array = Arrays.copyOf(array, length);
+      }
+      return array;
+   }
+
+
+   /**
+    * Removes the value at index from the prefix array[0..size),
+    * shrinking the array afterwards if it is mostly empty. Returns
+    * the array that now holds the size - 1 values.
+    */
+   static long[] removeAt(long[] array, int size, int index) {
+      System.arraycopy(array, index + 1, array, index, size - index - 1);
+      int length = shrunkLength(size - 1, array.length);
+      if (length < array.length) {
+         array = Arrays.copyOf(array, length);
+      }
+      return array;
+   }
+
+
+   /**
+    * Sorts values and moves one copy of each distinct value to its
+    * front. Returns the number of distinct values.
+    */
+   static int sortDistinct(int[] values) {
+      if (values.length == 0) {
+         return 0;
+      }
+      Arrays.sort(values);
+      int distinct = 1;
+      for (int i = 1; i < values.length; i++) {
+         if (values[i] != values[distinct - 1]) {
+            values[distinct] = values[i];
+            distinct++;
+         }
+      }
+      return distinct;
+   }
+
+
+   /**
+    * Sorts values and moves one copy of each distinct value to its
+    * front. Returns the number of distinct values.
+    */
+   static int sortDistinct(long[] values) {
+      if (values.length == 0) {
+         return 0;
+      }
+      Arrays.sort(values);
+      int distinct = 1;
+      for (int i = 1; i < values.length; i++) {
+         if (values[i] != values[distinct - 1]) {
+            values[distinct] = values[i];
+            distinct++;
+         }
+      }
+      return distinct;
+   }
+
+
+   /**
+    * Returns the sum of the fingerprints of values[0..count).
+    */
+   static long fingerprintOf(int[] values, int count) {
+      long fingerprint = 0;
+      for (int i = 0; i < count; i++) {
+         fingerprint += Set.fingerprintOf(Integer.hashCode(values[i]));
+      }
+      return fingerprint;
+   }
+
+
+   /**
+    * Returns the sum of the fingerprints of values[0..count).
+    */
+   static long fingerprintOf(long[] values, int count) {
+      long fingerprint = 0;
+      for (int i = 0; i < count; i++) {
+         fingerprint += Set.fingerprintOf(Long.hashCode(values[i]));
+      }
+      return fingerprint;
+   }
+
+
+   /**
+    * Merges the sorted prefixes a[0..aSize) and b[0..bSize) into out,
+    * keeping one copy of common values. Returns the number written.
+    */
+   static int unionInto(int[] a, int aSize, int[] b, int bSize, int[] out) {
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < aSize && j < bSize) {
+         if (a[i] < b[j]) {
+            out[k] = a[i];
+            i++;
+         }
+         else if (a[i] > b[j]) {
+            out[k] = b[j];
+            j++;
+         }
+         else {
+            out[k] = a[i];
+            i++;
+            j++;
+         }
+         k++;
+      }
+      System.arraycopy(a, i, out, k, aSize - i);
+      k += aSize - i;
+      System.arraycopy(b, j, out, k, bSize - j);
+      k += bSize - j;
+      return k;
+   }
+
+
+   /**
+    * Merges the sorted prefixes a[0..aSize) and b[0..bSize) into out,
+    * keeping one copy of common values. Returns the number written.
+    */
+   static int unionInto(long[] a, int aSize, long[] b, int bSize, long[] out) {
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < aSize && j < bSize) {
+         if (a[i] < b[j]) {
+            out[k] = a[i];
+            i++;
+         }
+         else if (a[i] > b[j]) {
+            out[k] = b[j];
+            j++;
+         }
+         else {
+            out[k] = a[i];
+            i++;
+            j++;
+         }
+         k++;
+      }
+      System.arraycopy(a, i, out, k, aSize - i);
+      k += aSize - i;
+      System.arraycopy(b, j, out, k, bSize - j);
+      k += bSize - j;
+      return k;
+   }
+
+
+   /**
+    * Writes the values common to the sorted prefixes a[0..aSize) and
+    * b[0..bSize) into out. Returns the number written.
+    */
+   static int intersectInto(int[] a, int aSize, int[] b, int bSize, int[] out) {
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < aSize && j < bSize) {
+         if (a[i] < b[j]) {
+            i++;
+         }
+         else if (a[i] > b[j]) {
+            j++;
+         }
+         else {
+            out[k] = a[i];
+            k++;
+            i++;
+            j++;
+         }
+      }
+      return k;
+   }
+
+
+   /**
+    * Writes the values common to the sorted prefixes a[0..aSize) and
+    * b[0..bSize) into out. Returns the number written.
+    */
+   static int intersectInto(long[] a, int aSize, long[] b, int bSize, long[] out) {
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < aSize && j < bSize) {
+         if (a[i] < b[j]) {
+            i++;
+         }
+         else if (a[i] > b[j]) {
+            j++;
+         }
+         else {
+            out[k] = a[i];
+            k++;
+            i++;
+            j++;
+         }
+      }
+      return k;
+   }
+
+
+   /**
+    * Writes the values of the sorted prefix a[0..aSize) that are not
+    * in the sorted prefix b[0..bSize) into out. Returns the number
+    * written.
+    */
+   static int complementInto(int[] a, int aSize, int[] b, int bSize, int[] out) {
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < aSize && j < bSize) {
+         if (a[i] < b[j]) {
+            out[k] = a[i];
+            k++;
+            i++;
+         }
+         else if (a[i] > b[j]) {
+            j++;
+         }
+         else {
+            i++;
+            j++;
+         }
+      }
+      System.arraycopy(a, i, out, k, aSize - i);
+      return k + aSize - i;
+   }
+
+
+   /**
+    * Writes the values of the sorted prefix a[0..aSize) that are not
+    * in the sorted prefix b[0..bSize) into out. Returns the number
+    * written.
+    */
+   static int complementInto(long[] a, int aSize, long[] b, int bSize, long[] out) {
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < aSize && j < bSize) {
+         if (a[i] < b[j]) {
+            out[k] = a[i];
+            k++;
+            i++;
+         }
+         else if (a[i] > b[j]) {
+            j++;
+         }
+         else {
+            i++;
+            j++;
+         }
+      }
+      System.arraycopy(a, i, out, k, aSize - i);
+      return k + aSize - i;
+   }
+
+
+   /**
+    * Writes the values common to the short sorted prefix small[0..sSize)
+    * and the long sorted prefix large[0..lSize) into out, locating each
+    * value of small by exponential search from the previous match.
+    * Returns the number written.
+    */
+   static int gallopInto(int[] small, int sSize, int[] large, int lSize, int[] out) {
+      int k = 0;
+      int lo = 0;
+      for (int i = 0; i < sSize && lo < lSize; i++) {
+         int target = small[i];
+         int step = 1;
+         int hi = lo;
+         while (hi < lSize && large[hi] < target) {
+            lo = hi + 1;
+            hi = (step > lSize - lo) ? lSize : lo + step;
+            if (step <= lSize / 2) {
+               step = step * 2;
+            }
+         }
+         hi = Math.min(hi, lSize - 1) + 1;
+         int location = Arrays.binarySearch(large, lo, hi, target);
+         if (location >= 0) {
+            out[k] = target;
+            k++;
+            lo = location + 1;
+         }
+         else {
+            lo = -(location + 1);
+         }
+      }
+      return k;
+   }
+
+
+   /**
+    * Writes the values common to the short sorted prefix small[0..sSize)
+    * and the long sorted prefix large[0..lSize) into out, locating each
+    * value of small by exponential search from the previous match.
+    * Returns the number written.
+    */
+   static int gallopInto(long[] small, int sSize, long[] large, int lSize, long[] out) {
+      int k = 0;
+      int lo = 0;
+      for (int i = 0; i < sSize && lo < lSize; i++) {
+         long target = small[i];
+         int step = 1;
+         int hi = lo;
+         while (hi < lSize && large[hi] < target) {
+            lo = hi + 1;
+            hi = (step > lSize - lo) ? lSize : lo + step;
+            if (step <= lSize / 2) {
+               step = step * 2;
+            }
+         }
+         hi = Math.min(hi, lSize - 1) + 1;
+         int location = Arrays.binarySearch(large, lo, hi, target);
+         if (location >= 0) {
+            out[k] = target;
+            k++;
+            lo = location + 1;
+         }
+         else {
+            lo = -(location + 1);
+         }
+      }
+      return k;
+   }
+
+
+   /**
+    * Writes the values common to the sorted prefixes a[0..aSize) and
+    * b[0..bSize) into out, which must hold the shorter prefix. Sizes
+    * that differ by ArraySet.GALLOP_RATIO or more gallop through the
+    * longer prefix; others are merged. Returns the number written.
+    */
+   static int intersectionInto(int[] a, int aSize, int[] b, int bSize, int[] out) {
+      if (aSize > bSize) {
+         return intersectionInto(b, bSize, a, aSize, out);
+      }
+      if ((long) aSize * ArraySet.GALLOP_RATIO <= bSize) {
+         return gallopInto(a, aSize, b, bSize, out);
+      }
+      return intersectInto(a, aSize, b, bSize, out);
+   }
+
+
+   /**
+    * Writes the values common to the sorted prefixes a[0..aSize) and
+    * b[0..bSize) into out, which must hold the shorter prefix. Sizes
+    * that differ by ArraySet.GALLOP_RATIO or more gallop through the
+    * longer prefix; others are merged. Returns the number written.
+    */
+   static int intersectionInto(long[] a, int aSize, long[] b, int bSize, long[] out) {
+      if (aSize > bSize) {
+         return intersectionInto(b, bSize, a, aSize, out);
+      }
+      if ((long) aSize * ArraySet.GALLOP_RATIO <= bSize) {
+         return gallopInto(a, aSize, b, bSize, out);
+      }
+      return intersectInto(a, aSize, b, bSize, out);
+   }
+
+
+   /**
+    * Writes the values of the prefix a[0..aSize) whose membership in s
+    * equals keep into out, in order. Returns the number written.
+    */
+   static int filterInto(int[] a, int aSize, Set<Integer> s, boolean keep, int[] out) {
+      int k = 0;
+      for (int i = 0; i < aSize; i++) {
+         if (s.contains(a[i]) == keep) {
+            out[k] = a[i];
+            k++;
+         }
+      }
+      return k;
+   }
+
+
+   /**
+    * Writes the values of the prefix a[0..aSize) whose membership in s
+    * equals keep into out, in order. Returns the number written.
+    */
+   static int filterInto(long[] a, int aSize, Set<Long> s, boolean keep, long[] out) {
+      int k = 0;
+      for (int i = 0; i < aSize; i++) {
+         if (s.contains(a[i]) == keep) {
+            out[k] = a[i];
+            k++;
+         }
+      }
+      return k;
+   }
+}
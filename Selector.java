@@ -1,4 +1,8 @@
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
 * Defines a library of selection methods
@@ -18,6 +22,31 @@ public final class Selector {
     */
    private Selector() { }
 
+   // Ranges this short are finished by insertion sort.
+   private static final int INSERTION_THRESHOLD = 16;
+
+   // Arrays this short are scanned sequentially by the parallel
+   // methods, which also split their work down to ranges this long.
+   private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+   // Number of linear probes per table slot distinctPart may spend
+   // before it sorts instead.
+   private static final long PROBE_LIMIT = 4;
+
+   // Operations of ReduceTask.
+   private static final int MIN = 0;
+   private static final int MAX = 1;
+   private static final int CEILING = 2;
+   private static final int FLOOR = 3;
+
+   // Stands for "no qualifying value"; no int is equal to it.
+   static final long NONE = Long.MAX_VALUE;
+
+   // The plain loops, and the loops every scan runs on: the vector
+   // kernel when it can be loaded, the plain ones otherwise.
+   static final SelectorKernel SCALAR = new ScalarKernel();
+   static final SelectorKernel KERNEL = loadKernel();
+
 
    /**
     * Selects the minimum value from the array a. This method
@@ -29,13 +58,7 @@ public final class Selector {
          throw new IllegalArgumentException();
       }
       else {
-         int minNumber = a[0];
-         for (int counter = 1; counter < a.length; counter++) {
-            if (minNumber > a[counter]) {
-               minNumber = a[counter];
-            }
-         }
-         return minNumber;
+         return KERNEL.min(a, 0, a.length);
       }
    }
 
@@ -50,13 +73,7 @@ public final class Selector {
          throw new IllegalArgumentException();
       }
       else {
-         int maxNumber = a[0];
-         for (int counter = 1; counter < a.length; counter++) {
-            if (maxNumber < a[counter]) {
-               maxNumber = a[counter];
-            }
-         }
-         return maxNumber;
+         return KERNEL.max(a, 0, a.length);
       }
    }
 
@@ -70,36 +87,23 @@ public final class Selector {
     * changed by this method.
     */
    public static int kmin(int[] a, int k) {
-      if (a == null || a.length == 0 || k == 0 || k > a.length + 1 || k < 1) {
+      if (a == null || a.length == 0 || k < 1 || k > a.length) {
          throw new IllegalArgumentException();
       }
-      else {
-         int[] aTest = a.clone();
-         for (int i = 0; i < aTest.length - 1; i++) {
-            int min = i;
-            for (int j = i + 1; j < aTest.length; j++) {
-               if (aTest[j] < aTest[min]) {
-                  min = j;
-               }
-            }
-            int temp = aTest[i];
-            aTest[i] = aTest[min];
-            aTest[min] = temp;
-         }
-         int location = (k - 1);
-         int value = aTest[location];
-         int counter;
-         for (counter = 0; counter > aTest.length; counter++) {
-            if (counter == location) {
-               value = aTest[counter];
-            }
-         }
-         counter = 1;
-         while (value == aTest[(location + counter)] && (location + counter) > aTest.length) {
-            value = aTest[(location + counter)];
-         }
-         return value;
+      int[] scratch = new int[a.length];
+      int median = median(a, scratch);
+      int below = distinctPart(a, median, false, scratch);
+      if (k <= below) {
+         return select(scratch, 0, below, k - 1);
       }
+      if (k == below + 1) {
+         return median;
+      }
+      int above = distinctPart(a, median, true, scratch);
+      if (k > below + 1 + above) {
+         throw new IllegalArgumentException();
+      }
+      return select(scratch, 0, above, k - below - 2);
    }
 
    
@@ -112,36 +116,71 @@ public final class Selector {
     * changed by this method.
     */
    public static int kmax(int[] a, int k) {
-      if (a == null || a.length == 0 || k == 0 || k > a.length + 1 || k < 1) {
+      if (a == null || a.length == 0 || k < 1 || k > a.length) {
          throw new IllegalArgumentException();
       }
-      else {
-         int[] aTest = a.clone();
-         for (int i = 0; i < aTest.length - 1; i++) {
-            int max = i;
-            for (int j = i + 1; j < aTest.length; j++) {
-               if (aTest[j] > aTest[max]) {
-                  max = j;
-               }
-            }
-            int temp = aTest[i];
-            aTest[i] = aTest[max];
-            aTest[max] = temp;
-         }
-         int location = (k - 1);
-         int value = aTest[location];
-         int counter;
-         for (counter = aTest.length; counter >= -1; counter--) {
-            if (counter == location) {
-               value = aTest[counter];
-            }
+      int[] scratch = new int[a.length];
+      int median = median(a, scratch);
+      int above = distinctPart(a, median, true, scratch);
+      if (k <= above) {
+         return select(scratch, 0, above, above - k);
+      }
+      if (k == above + 1) {
+         return median;
+      }
+      int below = distinctPart(a, median, false, scratch);
+      if (k > above + 1 + below) {
+         throw new IllegalArgumentException();
+      }
+      return select(scratch, 0, below, below - (k - above - 1));
+   }
+
+
+   /**
+    * Selects the kth minimum value from the array a for every k in
+    * ks, which must be in ascending order, and returns them in the
+    * same order. This gives the same answers as calling kmin(a, k)
+    * for each k, but resolves all of them in one partitioning pass
+    * over one scratch array as long as a. This method throws
+    * IllegalArgumentException if a or ks is null, if a has zero
+    * length, if ks is not in ascending order, or if there is no kth
+    * minimum value for some k in ks. The arrays a and ks are not
+    * changed by this method.
+    */
+   public static int[] kmin(int[] a, int[] ks) {
+      if (a == null || a.length == 0 || ks == null) {
+         throw new IllegalArgumentException();
+      }
+      for (int i = 0; i < ks.length; i++) {
+         if (ks[i] < 1 || ks[i] > a.length || (i > 0 && ks[i] < ks[i - 1])) {
+            throw new IllegalArgumentException();
          }
-         counter = 1;
-         while (value == aTest[(location + counter)] && (location + counter) > aTest.length) {
-            value = aTest[(location + counter)];
+      }
+      int[] result = new int[ks.length];
+      if (ks.length == 0) {
+         return result;
+      }
+      int[] scratch = new int[a.length];
+      int median = median(a, scratch);
+      int below = distinctPart(a, median, false, scratch);
+      int low = 0;
+      while (low < ks.length && ks[low] <= below) {
+         low++;
+      }
+      multiSelect(scratch, 0, below, ks, 0, low, result, 0, budget(below));
+      int high = low;
+      while (high < ks.length && ks[high] == below + 1) {
+         result[high] = median;
+         high++;
+      }
+      if (high < ks.length) {
+         int above = distinctPart(a, median, true, scratch);
+         if (ks[ks.length - 1] > below + 1 + above) {
+            throw new IllegalArgumentException();
          }
-         return value;
+         multiSelect(scratch, 0, above, ks, high, ks.length, result, below + 1, budget(above));
       }
+      return result;
    }
 
 
@@ -162,20 +201,8 @@ public final class Selector {
          throw new IllegalArgumentException();
       }
       else {
-         int length = 0;
-         int placement = 0;
-         for (int counter = 0; counter < a.length; counter++) {
-            if (a[counter] >= low && a[counter] <= high) {
-               length++;
-            }
-         }
-         int[] finalArray = new int[length];
-         for (int counter = 0; counter < a.length; counter++) {
-            if (a[counter] >= low && a[counter] <= high) {
-               finalArray[placement] = a[counter];
-               placement++;
-            }
-         }
+         int[] finalArray = new int[KERNEL.count(a, 0, a.length, low, high)];
+         KERNEL.copyRange(a, 0, a.length, low, high, finalArray, 0);
          return finalArray;
       }
    }
@@ -192,23 +219,11 @@ public final class Selector {
       if (a == null || a.length == 0) {
          throw new IllegalArgumentException();
       }
-      else { 
-         int maxValue = Integer.MAX_VALUE;
-         int returnedValue = -1;
-         for (int counter = 0; counter < a.length; counter++) {
-            if (a[counter] >= key && maxValue > (a[counter] - key)) {
-               maxValue = a[counter] - key;
-               returnedValue = a[counter];
-            }
-         }
-         if (returnedValue == -1) {
-            throw new IllegalArgumentException();
-         }
-         else {
-            return returnedValue;
-         }
+      long ceiling = KERNEL.ceiling(a, 0, a.length, key);
+      if (ceiling == NONE) {
+         throw new IllegalArgumentException();
       }
-      
+      return (int) ceiling;
    }
 
 
@@ -223,22 +238,700 @@ public final class Selector {
       if (a == null || a.length == 0) {
          throw new IllegalArgumentException();
       }
-      else { 
-         int minValue = Integer.MIN_VALUE;
-         int returnedValue = -1;
-         for (int counter = 0; counter < a.length; counter++) {
-            if (a[counter] <= key && minValue < (a[counter] + key)) {
-               minValue = a[counter] + key;
-               returnedValue = a[counter];
+      long floor = KERNEL.floor(a, 0, a.length, key);
+      if (floor == NONE) {
+         throw new IllegalArgumentException();
+      }
+      return (int) floor;
+   }
+
+
+   /**
+    * Tests whether the scans behind min, max, range, floor and
+    * ceiling, and their parallel forms, run on the Vector API. They
+    * do when vector/VectorKernel.java has been compiled onto the class
+    * path and the jdk.incubator.vector module is present, for example
+    * with java --add-modules jdk.incubator.vector, and plain loops
+    * are used otherwise.
+    *
+    * @return  true if the scans are vectorized, false otherwise
+    */
+   public static boolean isVectorized() {
+      return KERNEL != SCALAR;
+   }
+
+
+   /**
+    * Selects the minimum value from the array a, splitting the scan
+    * across the common ForkJoinPool. Arrays of at most
+    * PARALLEL_THRESHOLD values are scanned sequentially. This method
+    * throws IllegalArgumentException if a is null or has zero length.
+    * The array a is not changed by this method.
+    */
+   public static int parallelMin(int[] a) {
+      return parallelMin(ForkJoinPool.commonPool(), a);
+   }
+
+
+   /**
+    * Selects the minimum value from the array a in parallel on the
+    * given pool. See parallelMin above.
+    */
+   public static int parallelMin(ForkJoinPool pool, int[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      return (int) reduce(pool, a, MIN, 0);
+   }
+
+
+   /**
+    * Selects the maximum value from the array a, splitting the scan
+    * across the common ForkJoinPool. Arrays of at most
+    * PARALLEL_THRESHOLD values are scanned sequentially. This method
+    * throws IllegalArgumentException if a is null or has zero length.
+    * The array a is not changed by this method.
+    */
+   public static int parallelMax(int[] a) {
+      return parallelMax(ForkJoinPool.commonPool(), a);
+   }
+
+
+   /**
+    * Selects the maximum value from the array a in parallel on the
+    * given pool. See parallelMax above.
+    */
+   public static int parallelMax(ForkJoinPool pool, int[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      return (int) reduce(pool, a, MAX, 0);
+   }
+
+
+   /**
+    * Returns the same array as range(a, low, high), splitting the
+    * work across the common ForkJoinPool. Every task first counts its
+    * qualifying values; the counts then give each task the offset at
+    * which it copies its values into one presized result. Arrays of
+    * at most PARALLEL_THRESHOLD values are scanned sequentially. This
+    * method throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    */
+   public static int[] parallelRange(int[] a, int low, int high) {
+      return parallelRange(ForkJoinPool.commonPool(), a, low, high);
+   }
+
+
+   /**
+    * Returns the same array as range(a, low, high), computed in
+    * parallel on the given pool. See parallelRange above.
+    */
+   public static int[] parallelRange(ForkJoinPool pool, int[] a, int low, int high) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      if (a.length <= PARALLEL_THRESHOLD) {
+         return range(a, low, high);
+      }
+      RangeCount counts = new RangeCount(a, 0, a.length, low, high);
+      pool.invoke(counts);
+      int[] result = new int[counts.count];
+      pool.invoke(new RangeCopy(counts, result, 0));
+      return result;
+   }
+
+
+   /**
+    * Returns the same value as ceiling(a, key), splitting the scan
+    * across the common ForkJoinPool. Arrays of at most
+    * PARALLEL_THRESHOLD values are scanned sequentially. This method
+    * throws an IllegalArgumentException if a is null or has zero
+    * length, or if there is no qualifying value. The array a is not
+    * changed by this method.
+    */
+   public static int parallelCeiling(int[] a, int key) {
+      return parallelCeiling(ForkJoinPool.commonPool(), a, key);
+   }
+
+
+   /**
+    * Returns the same value as ceiling(a, key), computed in parallel
+    * on the given pool. See parallelCeiling above.
+    */
+   public static int parallelCeiling(ForkJoinPool pool, int[] a, int key) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      long ceiling = reduce(pool, a, CEILING, key);
+      if (ceiling == NONE) {
+         throw new IllegalArgumentException();
+      }
+      return (int) ceiling;
+   }
+
+
+   /**
+    * Returns the same value as floor(a, key), splitting the scan
+    * across the common ForkJoinPool. Arrays of at most
+    * PARALLEL_THRESHOLD values are scanned sequentially. This method
+    * throws an IllegalArgumentException if a is null or has zero
+    * length, or if there is no qualifying value. The array a is not
+    * changed by this method.
+    */
+   public static int parallelFloor(int[] a, int key) {
+      return parallelFloor(ForkJoinPool.commonPool(), a, key);
+   }
+
+
+   /**
+    * Returns the same value as floor(a, key), computed in parallel on
+    * the given pool. See parallelFloor above.
+    */
+   public static int parallelFloor(ForkJoinPool pool, int[] a, int key) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      long floor = reduce(pool, a, FLOOR, key);
+      if (floor == NONE) {
+         throw new IllegalArgumentException();
+      }
+      return (int) floor;
+   }
+
+
+   /**
+    * Returns the result of operation op over all of a, computed on
+    * pool unless a is short enough to scan here.
+    */
+   private static long reduce(ForkJoinPool pool, int[] a, int op, int key) {
+      if (a.length <= PARALLEL_THRESHOLD) {
+         return scan(a, 0, a.length, op, key);
+      }
+      return pool.invoke(new ReduceTask(a, 0, a.length, op, key));
+   }
+
+
+   /**
+    * Returns the result of operation op over a[lo..hi), or NONE if
+    * no value qualifies.
+    */
+   private static long scan(int[] a, int lo, int hi, int op, int key) {
+      switch (op) {
+         case MIN:
+            return KERNEL.min(a, lo, hi);
+         case MAX:
+            return KERNEL.max(a, lo, hi);
+         case CEILING:
+            return KERNEL.ceiling(a, lo, hi, key);
+         default:
+            return KERNEL.floor(a, lo, hi, key);
+      }
+   }
+
+
+   /**
+    * Joins the results of operation op over two neighbouring ranges,
+    * either of which may be NONE.
+    */
+   private static long combine(int op, long left, long right) {
+      if (left == NONE) {
+         return right;
+      }
+      if (right == NONE) {
+         return left;
+      }
+      return (op == MIN || op == CEILING) ? Math.min(left, right) : Math.max(left, right);
+   }
+
+
+   /**
+   * Reduces a[lo..hi) with one of MIN, MAX, CEILING and FLOOR,
+   * splitting the range in half until it is at most
+   * PARALLEL_THRESHOLD long.
+   */
+   private static final class ReduceTask extends RecursiveTask<Long> {
+      private static final long serialVersionUID = 1L;
+
+      private final int[] a;
+      private final int lo;
+      private final int hi;
+      private final int op;
+      private final int key;
+
+      ReduceTask(int[] a, int lo, int hi, int op, int key) {
+         this.a = a;
+         this.lo = lo;
+         this.hi = hi;
+         this.op = op;
+         this.key = key;
+      }
+
+      @Override
+      protected Long compute() {
+         if (hi - lo <= PARALLEL_THRESHOLD) {
+            return scan(a, lo, hi, op, key);
+         }
+         int mid = (lo + hi) >>> 1;
+         ReduceTask left = new ReduceTask(a, lo, mid, op, key);
+         ReduceTask right = new ReduceTask(a, mid, hi, op, key);
+         left.fork();
+         long rightResult = right.compute();
+         return combine(op, left.join(), rightResult);
+      }
+   }
+
+
+   /**
+   * Counts the values of a[lo..hi) in [low..high], splitting the
+   * range in half until it is at most PARALLEL_THRESHOLD long. The
+   * tree of tasks is kept so RangeCopy can walk it with the counts.
+   */
+   private static final class RangeCount extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+
+      private final int[] a;
+      private final int lo;
+      private final int hi;
+      private final int low;
+      private final int high;
+      private RangeCount left;
+      private RangeCount right;
+      private int count;
+
+      RangeCount(int[] a, int lo, int hi, int low, int high) {
+         this.a = a;
+         this.lo = lo;
+         this.hi = hi;
+         this.low = low;
+         this.high = high;
+      }
+
+      @Override
+      protected void compute() {
+         if (hi - lo <= PARALLEL_THRESHOLD) {
+            count = KERNEL.count(a, lo, hi, low, high);
+            return;
+         }
+         int mid = (lo + hi) >>> 1;
+         left = new RangeCount(a, lo, mid, low, high);
+         right = new RangeCount(a, mid, hi, low, high);
+         invokeAll(left, right);
+         count = left.count + right.count;
+      }
+   }
+
+
+   /**
+   * Copies the values counted by a RangeCount into result, starting
+   * at offset, with the same split as the counts.
+   */
+   private static final class RangeCopy extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+
+      private final RangeCount counts;
+      private final int[] result;
+      private final int offset;
+
+      RangeCopy(RangeCount counts, int[] result, int offset) {
+         this.counts = counts;
+         this.result = result;
+         this.offset = offset;
+      }
+
+      @Override
+      protected void compute() {
+         if (counts.left == null) {
+            KERNEL.copyRange(counts.a, counts.lo, counts.hi, counts.low, counts.high,
+               result, offset);
+            return;
+         }
+         invokeAll(new RangeCopy(counts.left, result, offset),
+            new RangeCopy(counts.right, result, offset + counts.left.count));
+      }
+   }
+
+
+   /**
+    * Returns the vector kernel if the jdk.incubator.vector module is
+    * in the boot layer and the kernel loads, and SCALAR otherwise.
+    * The kernel is looked up by name so that this class neither
+    * compiles nor links against the incubating module.
+    */
+   private static SelectorKernel loadKernel() {
+      if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+         return SCALAR;
+      }
+      try {
+         return (SelectorKernel) Class.forName("VectorKernel").getDeclaredConstructor()
+            .newInstance();
+      }
+      catch (ReflectiveOperationException | LinkageError e) {
+         return SCALAR;
+      }
+   }
+
+
+   /**
+   * The plain loops every scan falls back on.
+   */
+   private static final class ScalarKernel implements SelectorKernel {
+
+      @Override
+      public int min(int[] a, int lo, int hi) {
+         int min = a[lo];
+         for (int i = lo + 1; i < hi; i++) {
+            if (min > a[i]) {
+               min = a[i];
             }
          }
-         if (returnedValue == -1) {
-            throw new IllegalArgumentException();
+         return min;
+      }
+
+      @Override
+      public int max(int[] a, int lo, int hi) {
+         int max = a[lo];
+         for (int i = lo + 1; i < hi; i++) {
+            if (max < a[i]) {
+               max = a[i];
+            }
+         }
+         return max;
+      }
+
+      @Override
+      public int count(int[] a, int lo, int hi, int low, int high) {
+         int count = 0;
+         for (int i = lo; i < hi; i++) {
+            if (a[i] >= low && a[i] <= high) {
+               count++;
+            }
+         }
+         return count;
+      }
+
+      @Override
+      public int copyRange(int[] a, int lo, int hi, int low, int high, int[] result,
+            int offset) {
+         int k = offset;
+         for (int i = lo; i < hi; i++) {
+            if (a[i] >= low && a[i] <= high) {
+               result[k] = a[i];
+               k++;
+            }
+         }
+         return k;
+      }
+
+      @Override
+      public long ceiling(int[] a, int lo, int hi, int key) {
+         long ceiling = NONE;
+         for (int i = lo; i < hi; i++) {
+            if (a[i] >= key && a[i] < ceiling) {
+               ceiling = a[i];
+            }
+         }
+         return ceiling;
+      }
+
+      @Override
+      public long floor(int[] a, int lo, int hi, int key) {
+         long floor = Long.MIN_VALUE;
+         for (int i = lo; i < hi; i++) {
+            if (a[i] <= key && a[i] > floor) {
+               floor = a[i];
+            }
+         }
+         return (floor == Long.MIN_VALUE) ? NONE : floor;
+      }
+   }
+
+
+   /**
+    * Copies a into scratch, an array of the same length, and returns
+    * its lower median. Every value below the median then fills less
+    * than half of an array as long as a, and so does every value
+    * above it, which is what lets distinctPart hash either side into
+    * scratch.
+    */
+   private static int median(int[] a, int[] scratch) {
+      System.arraycopy(a, 0, scratch, 0, a.length);
+      return select(scratch, 0, scratch.length, (scratch.length - 1) / 2);
+   }
+
+
+   /**
+    * Copies the distinct values of a that are less than median, or
+    * greater than it if above is true, into the front of table, in no
+    * particular order, and returns how many there are. table is as
+    * long as a and no more than half of it is ever filled, because
+    * median is the lower median of a. The values are hashed into
+    * table with 0 marking an empty slot, so a 0 in a is tracked on the
+    * side, and the occupied slots are then packed to the front.
+    *
+    * The hash multiplier is drawn afresh on every call, so no fixed
+    * input can make the values collide, and the expected time is
+    * linear. Should the probes still exceed PROBE_LIMIT per slot of
+    * table, the values are sorted and deduplicated instead, so the
+    * worst case is O(n log n) rather than quadratic.
+    */
+   private static int distinctPart(int[] a, int median, boolean above, int[] table) {
+      Arrays.fill(table, 0);
+      long n = table.length;
+      long probes = PROBE_LIMIT * n;
+      int multiplier = ThreadLocalRandom.current().nextInt() | 1;
+      boolean zero = false;
+      for (int value : a) {
+         if (above ? value <= median : value >= median) {
+            continue;
+         }
+         if (value == 0) {
+            zero = true;
+            continue;
+         }
+         // Scale the hash into [0, n) with a multiply, as n need not
+         // be a power of two.
+         int slot = (int) (((value * multiplier) & 0xFFFFFFFFL) * n >>> 32);
+         while (table[slot] != 0 && table[slot] != value) {
+            slot++;
+            if (slot == n) {
+               slot = 0;
+            }
+            probes--;
+            if (probes < 0) {
+               return sortDistinctPart(a, median, above, table);
+            }
+         }
+         table[slot] = value;
+      }
+      int count = 0;
+      for (int i = 0; i < table.length; i++) {
+         if (table[i] != 0) {
+            table[count] = table[i];
+            count++;
+         }
+      }
+      if (zero) {
+         table[count] = 0;
+         count++;
+      }
+      return count;
+   }
+
+
+   /**
+    * Does the work of distinctPart by copying the qualifying values of
+    * a into table, sorting them and keeping one copy of each. The
+    * values come out in ascending order.
+    */
+   private static int sortDistinctPart(int[] a, int median, boolean above, int[] table) {
+      int count = 0;
+      for (int value : a) {
+         if (above ? value > median : value < median) {
+            table[count] = value;
+            count++;
+         }
+      }
+      Arrays.sort(table, 0, count);
+      int distinct = 0;
+      for (int i = 0; i < count; i++) {
+         if (distinct == 0 || table[i] != table[distinct - 1]) {
+            table[distinct] = table[i];
+            distinct++;
+         }
+      }
+      return distinct;
+   }
+
+
+   /**
+    * Returns the number of partitions a select over n values may
+    * spend before it switches to median-of-medians pivots.
+    */
+   private static int budget(int n) {
+      return 2 * (32 - Integer.numberOfLeadingZeros(n));
+   }
+
+
+   /**
+    * Rearranges the values x[lo..hi) so that x[index] holds the value
+    * that would be there if they were sorted, and returns it. This is
+    * introselect: quickselect with a median-of-three pivot, which
+    * switches to a median-of-medians pivot once it has partitioned
+    * more times than a balanced run would, so the expected and the
+    * worst-case time are both linear. Each pass splits the range
+    * three ways, into values below, equal to and above the pivot, so
+    * duplicate values cost no extra passes.
+    */
+   private static int select(int[] x, int lo, int hi, int index) {
+      int budget = budget(hi - lo);
+      while (hi - lo > INSERTION_THRESHOLD) {
+         int pivot;
+         if (budget > 0) {
+            budget--;
+            pivot = medianOfThree(x, lo, lo + (hi - lo) / 2, hi - 1);
+         }
+         else {
+            pivot = medianOfMedians(x, lo, hi);
+         }
+         int value = x[pivot];
+         int less = lo;
+         int greater = hi;
+         int i = lo;
+         while (i < greater) {
+            if (x[i] < value) {
+               swap(x, i, less);
+               less++;
+               i++;
+            }
+            else if (x[i] > value) {
+               greater--;
+               swap(x, i, greater);
+            }
+            else {
+               i++;
+            }
+         }
+         if (index < less) {
+            hi = less;
+         }
+         else if (index >= greater) {
+            lo = greater;
          }
          else {
-            return returnedValue;
+            return value;
          }
       }
+      insertionSort(x, lo, hi);
+      return x[index];
+   }
+
+
+   /**
+    * Resolves the ranks ks[klo..khi), counted from 1 past the first
+    * shift distinct values and all of which fall in the distinct
+    * values x[lo..hi), into result[klo..khi). Each partition sends the ranks below the
+    * pivot left and those above it right, so a range with no ranks
+    * in it is never looked at again. Like select, it switches to
+    * median-of-medians pivots once budget partitions have been spent
+    * along one path.
+    */
+   private static void multiSelect(int[] x, int lo, int hi, int[] ks, int klo, int khi,
+         int[] result, int shift, int budget) {
+      while (klo < khi) {
+         if (hi - lo <= INSERTION_THRESHOLD) {
+            insertionSort(x, lo, hi);
+            for (int i = klo; i < khi; i++) {
+               result[i] = x[ks[i] - 1 - shift];
+            }
+            return;
+         }
+         int pivot;
+         if (budget > 0) {
+            budget--;
+            pivot = medianOfThree(x, lo, lo + (hi - lo) / 2, hi - 1);
+         }
+         else {
+            pivot = medianOfMedians(x, lo, hi);
+         }
+         int p = partition(x, lo, hi, pivot);
+         int left = klo;
+         while (left < khi && ks[left] - 1 - shift < p) {
+            left++;
+         }
+         int right = left;
+         while (right < khi && ks[right] - 1 - shift == p) {
+            result[right] = x[p];
+            right++;
+         }
+         // Recurse into the side with fewer ranks and loop on the other.
+         if (left - klo < khi - right) {
+            multiSelect(x, lo, p, ks, klo, left, result, shift, budget);
+            lo = p + 1;
+            klo = right;
+         }
+         else {
+            multiSelect(x, p + 1, hi, ks, right, khi, result, shift, budget);
+            hi = p;
+            khi = left;
+         }
+      }
+   }
+
+
+   /**
+    * Partitions the distinct values x[lo..hi) around x[pivot] and
+    * returns the pivot's final position.
+    */
+   private static int partition(int[] x, int lo, int hi, int pivot) {
+      int value = x[pivot];
+      swap(x, pivot, hi - 1);
+      int store = lo;
+      for (int i = lo; i < hi - 1; i++) {
+         if (x[i] < value) {
+            swap(x, i, store);
+            store++;
+         }
+      }
+      swap(x, store, hi - 1);
+      return store;
+   }
+
+
+   /**
+    * Returns the index of the median of x[i], x[j] and x[k].
+    */
+   private static int medianOfThree(int[] x, int i, int j, int k) {
+      if (x[i] < x[j]) {
+         return (x[j] < x[k]) ? j : ((x[i] < x[k]) ? k : i);
+      }
+      return (x[i] < x[k]) ? i : ((x[j] < x[k]) ? k : j);
+   }
+
+
+   /**
+    * Returns the index of a pivot that is guaranteed to have at least
+    * three tenths of x[lo..hi) on either side: the median of the
+    * medians of groups of five. The medians are gathered at the front
+    * of the range and their median is found with select.
+    */
+   private static int medianOfMedians(int[] x, int lo, int hi) {
+      int medians = lo;
+      for (int group = lo; group < hi; group += 5) {
+         int end = Math.min(group + 5, hi);
+         insertionSort(x, group, end);
+         swap(x, medians, group + (end - group) / 2);
+         medians++;
+      }
+      int middle = lo + (medians - lo) / 2;
+      select(x, lo, medians, middle);
+      return middle;
+   }
+
+
+   /**
+    * Sorts x[lo..hi) by insertion.
+    */
+   private static void insertionSort(int[] x, int lo, int hi) {
+      for (int i = lo + 1; i < hi; i++) {
+         int value = x[i];
+         int j = i - 1;
+         while (j >= lo && x[j] > value) {
+            x[j + 1] = x[j];
+            j--;
+         }
+         x[j + 1] = value;
+      }
+   }
+
+
+   /**
+    * Swaps x[i] and x[j].
+    */
+   private static void swap(int[] x, int i, int j) {
+      int temp = x[i];
+      x[i] = x[j];
+      x[j] = temp;
    }
 
 }
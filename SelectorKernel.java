@@ -0,0 +1,54 @@
+/**
+* The scanning loops behind Selector's min, max, range, floor and
+* ceiling, over a range a[lo..hi) of an int array. Selector runs on
+* the scalar kernel unless the vector kernel can be loaded; see
+* Selector.isVectorized.
+*
+* floor and ceiling return Selector.NONE, which is not an int, when
+* no value in the range qualifies.
+*
+* @author   Avery Hyman (amh0120@auburn.edu)
+* @version  2017-10-30
+*
+*/
+interface SelectorKernel {
+
+   /**
+    * Returns the minimum of the nonempty range a[lo..hi).
+    */
+   int min(int[] a, int lo, int hi);
+
+
+   /**
+    * Returns the maximum of the nonempty range a[lo..hi).
+    */
+   int max(int[] a, int lo, int hi);
+
+
+   /**
+    * Returns how many values in a[lo..hi) are in [low..high].
+    */
+   int count(int[] a, int lo, int hi, int low, int high);
+
+
+   /**
+    * Copies the values in a[lo..hi) that are in [low..high] into
+    * result, in order, starting at offset, and returns the offset
+    * after the last one copied.
+    */
+   int copyRange(int[] a, int lo, int hi, int low, int high, int[] result, int offset);
+
+
+   /**
+    * Returns the smallest value in a[lo..hi) that is greater than or
+    * equal to key, or Selector.NONE if there is none.
+    */
+   long ceiling(int[] a, int lo, int hi, int key);
+
+
+   /**
+    * Returns the largest value in a[lo..hi) that is less than or
+    * equal to key, or Selector.NONE if there is none.
+    */
+   long floor(int[] a, int lo, int hi, int key);
+}
@@ -0,0 +1,463 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Provides JUnit test cases for the Selector class.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class SelectorTest {
+
+   // kmin and kmax over distinct values.
+
+   @Test
+   public void testKminKmax() {
+      int[] a = {5, 9, 1, 7, 3, 7, 1};
+      int[] copy = a.clone();
+      assertEquals(1, Selector.kmin(a, 1));
+      assertEquals(5, Selector.kmin(a, 3));
+      assertEquals(9, Selector.kmin(a, 5));
+      assertEquals(9, Selector.kmax(a, 1));
+      assertEquals(7, Selector.kmax(a, 2));
+      assertEquals(1, Selector.kmax(a, 5));
+      assertArrayEquals(copy, a);
+   }
+
+   @Test
+   public void testKminKmaxExtremes() {
+      int[] a = {Integer.MAX_VALUE, Integer.MIN_VALUE, 0, Integer.MIN_VALUE, Integer.MAX_VALUE};
+      assertEquals(Integer.MIN_VALUE, Selector.kmin(a, 1));
+      assertEquals(0, Selector.kmin(a, 2));
+      assertEquals(Integer.MAX_VALUE, Selector.kmin(a, 3));
+      assertEquals(Integer.MAX_VALUE, Selector.kmax(a, 1));
+      assertEquals(Integer.MIN_VALUE, Selector.kmax(a, 3));
+   }
+
+   @Test
+   public void testKminKmaxSingleValue() {
+      assertEquals(4, Selector.kmin(new int[] {4, 4, 4}, 1));
+      assertEquals(4, Selector.kmax(new int[] {4}, 1));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKminNull() {
+      Selector.kmin(null, 1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKminEmpty() {
+      Selector.kmin(new int[0], 1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKminZero() {
+      Selector.kmin(new int[] {1, 2}, 0);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKminPastLength() {
+      Selector.kmin(new int[] {1, 2}, 3);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKminPastDistinctCount() {
+      Selector.kmin(new int[] {4, 4, 4}, 2);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKmaxNull() {
+      Selector.kmax(null, 1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKmaxEmpty() {
+      Selector.kmax(new int[0], 1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKmaxNegative() {
+      Selector.kmax(new int[] {1, 2}, -1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKmaxPastDistinctCount() {
+      Selector.kmax(new int[] {3, 1, 3, 1, 2}, 4);
+   }
+
+   @Test
+   public void testKminKmaxAgreeWithSorting() {
+      Random random = new Random(21);
+      for (int trial = 0; trial < 200; trial++) {
+         int n = 1 + random.nextInt(300);
+         int[] a = randomArray(random, n, 1 + random.nextInt(2 * n));
+         int[] distinct = sortedDistinct(a);
+         for (int k = 1; k <= distinct.length; k++) {
+            assertEquals(distinct[k - 1], Selector.kmin(a, k));
+            assertEquals(distinct[distinct.length - k], Selector.kmax(a, k));
+         }
+      }
+   }
+
+   @Test
+   public void testKminKmaxOnOrderedInput() {
+      int n = 100000;
+      int[] ascending = new int[n];
+      int[] organPipe = new int[n];
+      for (int i = 0; i < n; i++) {
+         ascending[i] = i;
+         organPipe[i] = Math.min(i, n - 1 - i);
+      }
+      assertEquals(12345, Selector.kmin(ascending, 12346));
+      assertEquals(n - 12346, Selector.kmax(ascending, 12346));
+      assertEquals(n / 2 - 1, Selector.kmax(organPipe, 1));
+      assertEquals(777, Selector.kmin(organPipe, 778));
+   }
+
+
+   @Test
+   public void testKminKmaxOnValuesWithCollidingHashes() {
+      // Multiples of the inverse of the golden-ratio multiplier, which
+      // all hash near 0 under a fixed value * 0x9E3779B9 hash.
+      int inverse = 1;
+      for (int i = 0; i < 5; i++) {
+         inverse *= 2 - 0x9E3779B9 * inverse;
+      }
+      int n = 1 << 17;
+      int[] a = new int[n];
+      for (int i = 0; i < n; i++) {
+         a[i] = (i + 1) * inverse;
+      }
+      int[] distinct = sortedDistinct(a);
+      assertEquals(distinct[999], Selector.kmin(a, 1000));
+      assertEquals(distinct[n - 1000], Selector.kmax(a, 1000));
+      assertArrayEquals(new int[] {distinct[0], distinct[n / 2], distinct[n - 1]},
+         Selector.kmin(a, new int[] {1, n / 2 + 1, n}));
+   }
+
+
+   // Batch kmin for several ranks at once.
+
+   @Test
+   public void testBatchKmin() {
+      int[] a = {Integer.MAX_VALUE, 5, 9, 1, 7, 3, 7, 1, Integer.MIN_VALUE};
+      int[] copy = a.clone();
+      int[] ks = {1, 2, 2, 4, 7};
+      assertArrayEquals(new int[] {Integer.MIN_VALUE, 1, 1, 5, Integer.MAX_VALUE},
+         Selector.kmin(a, ks));
+      assertArrayEquals(copy, a);
+      assertArrayEquals(new int[] {1, 2, 2, 4, 7}, ks);
+   }
+
+   @Test
+   public void testBatchKminNoRanks() {
+      assertArrayEquals(new int[0], Selector.kmin(new int[] {1}, new int[0]));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testBatchKminNullArray() {
+      Selector.kmin(null, new int[] {1});
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testBatchKminEmptyArray() {
+      Selector.kmin(new int[0], new int[0]);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testBatchKminNullRanks() {
+      Selector.kmin(new int[] {1}, null);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testBatchKminUnsortedRanks() {
+      Selector.kmin(new int[] {1, 2, 3}, new int[] {2, 1});
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testBatchKminZeroRank() {
+      Selector.kmin(new int[] {1, 2, 3}, new int[] {0, 1});
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testBatchKminPastDistinctCount() {
+      Selector.kmin(new int[] {1, 1, 2, 2}, new int[] {1, 3});
+   }
+
+   @Test
+   public void testBatchKminAgreesWithKmin() {
+      Random random = new Random(22);
+      for (int trial = 0; trial < 200; trial++) {
+         int n = 1 + random.nextInt(2000);
+         int[] a = randomArray(random, n, 1 + random.nextInt(2 * n));
+         int distinct = sortedDistinct(a).length;
+         int[] ks = new int[random.nextInt(20)];
+         for (int i = 0; i < ks.length; i++) {
+            ks[i] = 1 + random.nextInt(distinct);
+         }
+         Arrays.sort(ks);
+         int[] result = Selector.kmin(a, ks);
+         for (int i = 0; i < ks.length; i++) {
+            assertEquals(Selector.kmin(a, ks[i]), result[i]);
+         }
+      }
+   }
+
+
+   // range, floor and ceiling, sequential and parallel.
+
+   @Test
+   public void testRange() {
+      int[] a = {Integer.MAX_VALUE, 4, 2, 8, 2, Integer.MIN_VALUE};
+      assertArrayEquals(new int[] {4, 2, 2}, Selector.range(a, 2, 4));
+      assertArrayEquals(a, Selector.range(a, Integer.MIN_VALUE, Integer.MAX_VALUE));
+      assertArrayEquals(new int[] {Integer.MAX_VALUE},
+         Selector.range(a, Integer.MAX_VALUE, Integer.MAX_VALUE));
+      assertArrayEquals(new int[0], Selector.range(a, 5, 7));
+   }
+
+   @Test
+   public void testRangeLowAboveHigh() {
+      int[] a = {1, 2, 3};
+      assertArrayEquals(new int[0], Selector.range(a, 3, 1));
+      assertArrayEquals(new int[0], Selector.range(a, Integer.MAX_VALUE, Integer.MIN_VALUE));
+      assertArrayEquals(new int[0], Selector.parallelRange(large(), 10, -10));
+   }
+
+   @Test
+   public void testFloorCeiling() {
+      int[] a = {Integer.MAX_VALUE, 4, 2, 8, 2, Integer.MIN_VALUE};
+      assertEquals(4, Selector.floor(a, 7));
+      assertEquals(8, Selector.ceiling(a, 5));
+      assertEquals(2, Selector.floor(a, 2));
+      assertEquals(Integer.MIN_VALUE, Selector.floor(a, Integer.MIN_VALUE));
+      assertEquals(Integer.MAX_VALUE, Selector.ceiling(a, Integer.MAX_VALUE));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testFloorNone() {
+      Selector.floor(new int[] {5, 6}, 4);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testCeilingNone() {
+      Selector.ceiling(new int[] {5, 6}, 7);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testRangeEmpty() {
+      Selector.range(new int[0], 0, 1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testParallelFloorNone() {
+      Selector.parallelFloor(large(), Integer.MIN_VALUE);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testParallelCeilingNone() {
+      Selector.parallelCeiling(large(), Integer.MAX_VALUE);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testParallelMinNull() {
+      Selector.parallelMin(null);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testParallelMaxEmpty() {
+      Selector.parallelMax(new int[0]);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testParallelRangeNull() {
+      Selector.parallelRange(null, 0, 1);
+   }
+
+   @Test
+   public void testParallelAgreesWithSequential() {
+      int[] a = large();
+      a[a.length - 1] = Integer.MIN_VALUE;
+      a[a.length / 3] = Integer.MAX_VALUE;
+      int[] copy = a.clone();
+      assertEquals(Selector.min(a), Selector.parallelMin(a));
+      assertEquals(Integer.MIN_VALUE, Selector.parallelMin(a));
+      assertEquals(Selector.max(a), Selector.parallelMax(a));
+      assertEquals(Integer.MAX_VALUE, Selector.parallelMax(a));
+      assertArrayEquals(Selector.range(a, -1000, 1000), Selector.parallelRange(a, -1000, 1000));
+      assertArrayEquals(a, Selector.parallelRange(a, Integer.MIN_VALUE, Integer.MAX_VALUE));
+      int[] keys = {Integer.MIN_VALUE, -123457, 0, 99999, Integer.MAX_VALUE};
+      for (int key : keys) {
+         assertEquals(Selector.floor(a, key), Selector.parallelFloor(a, key));
+         assertEquals(Selector.ceiling(a, key), Selector.parallelCeiling(a, key));
+      }
+      assertArrayEquals(copy, a);
+   }
+
+   @Test
+   public void testParallelOnGivenPool() {
+      int[] a = large();
+      ForkJoinPool pool = new ForkJoinPool(3);
+      try {
+         assertEquals(Selector.min(a), Selector.parallelMin(pool, a));
+         assertEquals(Selector.max(a), Selector.parallelMax(pool, a));
+         assertArrayEquals(Selector.range(a, 0, 5000), Selector.parallelRange(pool, a, 0, 5000));
+         assertEquals(Selector.floor(a, 17), Selector.parallelFloor(pool, a, 17));
+         assertEquals(Selector.ceiling(a, 17), Selector.parallelCeiling(pool, a, 17));
+      }
+      finally {
+         pool.shutdown();
+      }
+   }
+
+   @Test
+   public void testParallelOnShortArray() {
+      int[] a = {3, Integer.MIN_VALUE, 3};
+      assertEquals(Integer.MIN_VALUE, Selector.parallelMin(a));
+      assertEquals(3, Selector.parallelMax(a));
+      assertArrayEquals(new int[] {3, 3}, Selector.parallelRange(a, 0, 3));
+      assertEquals(3, Selector.parallelCeiling(a, 0));
+   }
+
+
+   // Scalar and vector kernels.
+
+   @Test
+   public void testKernelMatchesIsVectorized() {
+      assertEquals(Selector.KERNEL != Selector.SCALAR, Selector.isVectorized());
+   }
+
+   @Test
+   public void testKernelsAgreeWithReference() {
+      Random random = new Random(24);
+      SelectorKernel[] kernels = {Selector.SCALAR, Selector.KERNEL};
+      for (int trial = 0; trial < 500; trial++) {
+         int[] a = new int[random.nextInt(150)];
+         for (int i = 0; i < a.length; i++) {
+            int pick = random.nextInt(10);
+            a[i] = (pick == 0) ? Integer.MIN_VALUE : (pick == 1) ? Integer.MAX_VALUE
+               : random.nextInt(100) - 50;
+         }
+         int lo = random.nextInt(a.length + 1);
+         int hi = lo + random.nextInt(a.length - lo + 1);
+         int low = random.nextInt(120) - 60;
+         int high = random.nextInt(120) - 60;
+         int key = (random.nextInt(10) == 0) ? Integer.MIN_VALUE : random.nextInt(120) - 60;
+         int[] expected = referenceRange(a, lo, hi, low, high);
+         for (SelectorKernel kernel : kernels) {
+            if (lo < hi) {
+               int[] sorted = Arrays.copyOfRange(a, lo, hi);
+               Arrays.sort(sorted);
+               assertEquals(sorted[0], kernel.min(a, lo, hi));
+               assertEquals(sorted[sorted.length - 1], kernel.max(a, lo, hi));
+            }
+            assertEquals(expected.length, kernel.count(a, lo, hi, low, high));
+            int[] result = new int[expected.length + 2];
+            assertEquals(expected.length + 1, kernel.copyRange(a, lo, hi, low, high, result, 1));
+            assertArrayEquals(expected, Arrays.copyOfRange(result, 1, expected.length + 1));
+            assertEquals(referenceCeiling(a, lo, hi, key), kernel.ceiling(a, lo, hi, key));
+            assertEquals(referenceFloor(a, lo, hi, key), kernel.floor(a, lo, hi, key));
+         }
+      }
+   }
+
+   @Test
+   public void testKernelsReportNone() {
+      int[] a = {5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21};
+      SelectorKernel[] kernels = {Selector.SCALAR, Selector.KERNEL};
+      for (SelectorKernel kernel : kernels) {
+         assertEquals(Selector.NONE, kernel.floor(a, 0, a.length, 4));
+         assertEquals(Selector.NONE, kernel.ceiling(a, 0, a.length, 22));
+         assertEquals(Selector.NONE, kernel.floor(a, 3, 3, 100));
+         assertEquals(Selector.NONE, kernel.ceiling(a, 0, 0, Integer.MIN_VALUE));
+         assertEquals(0, kernel.count(a, 0, a.length, 10, 9));
+         assertEquals(0, kernel.count(a, 2, 2, Integer.MIN_VALUE, Integer.MAX_VALUE));
+      }
+   }
+
+
+   /**
+    * Returns an array long enough for the parallel methods to split,
+    * holding random values with duplicates.
+    */
+   private static int[] large() {
+      return randomArray(new Random(23), 300000, 1000000);
+   }
+
+   /**
+    * Returns the values of a[lo..hi) in [low..high], in order.
+    */
+   private static int[] referenceRange(int[] a, int lo, int hi, int low, int high) {
+      int[] result = new int[hi - lo];
+      int count = 0;
+      for (int i = lo; i < hi; i++) {
+         if (a[i] >= low && a[i] <= high) {
+            result[count] = a[i];
+            count++;
+         }
+      }
+      return Arrays.copyOf(result, count);
+   }
+
+   /**
+    * Returns the smallest value of a[lo..hi) at least key, or
+    * Selector.NONE.
+    */
+   private static long referenceCeiling(int[] a, int lo, int hi, int key) {
+      long best = Selector.NONE;
+      for (int i = lo; i < hi; i++) {
+         if (a[i] >= key && (best == Selector.NONE || a[i] < best)) {
+            best = a[i];
+         }
+      }
+      return best;
+   }
+
+   /**
+    * Returns the largest value of a[lo..hi) at most key, or
+    * Selector.NONE.
+    */
+   private static long referenceFloor(int[] a, int lo, int hi, int key) {
+      long best = Selector.NONE;
+      for (int i = lo; i < hi; i++) {
+         if (a[i] <= key && (best == Selector.NONE || a[i] > best)) {
+            best = a[i];
+         }
+      }
+      return best;
+   }
+
+   /**
+    * Returns n random values in [-bound / 2, bound - bound / 2), with
+    * duplicates when bound is small.
+    */
+   private static int[] randomArray(Random random, int n, int bound) {
+      int[] a = new int[n];
+      for (int i = 0; i < n; i++) {
+         a[i] = random.nextInt(bound) - bound / 2;
+      }
+      return a;
+   }
+
+   /**
+    * Returns the distinct values of a in ascending order.
+    */
+   private static int[] sortedDistinct(int[] a) {
+      int[] sorted = a.clone();
+      Arrays.sort(sorted);
+      int count = 0;
+      for (int i = 0; i < sorted.length; i++) {
+         if (i == 0 || sorted[i] != sorted[i - 1]) {
+            sorted[count] = sorted[i];
+            count++;
+         }
+      }
+      return Arrays.copyOf(sorted, count);
+   }
+}
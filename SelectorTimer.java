@@ -0,0 +1,333 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+*  A timing client for Selector.kmin, kmax, batch kmin and the
+*  parallel scans. The selection experiments grow the problem size
+*  tenfold on every run, from 1,000 to 100,000,000 ints, and report
+*  the elapsed time along with the ratio to the previous run, the same
+*  way ArraySetTimer does. The parallel scans are timed on pools of
+*  growing size, and the scan kernels on arrays resident in L1, in L3
+*  and in DRAM. Compile vector/VectorKernel.java and run with
+*  --add-modules jdk.incubator.vector to time the vector kernel; see
+*  that file for the commands. Finally, building a SortedIndex is timed against
+*  the queries it speeds up.
+*
+*  The arrays hold latency-like values with many duplicates. The
+*  selection sort that kmin and kmax used to run is kept below as the
+*  baseline; being quadratic, it is only timed up to QUADRATIC_LIMIT.
+*
+*  Usage: java SelectorTimer [maxSize]
+*
+*  The largest size needs a heap of about 2 GB, for example -Xmx2g.
+*
+*  @author Avery Hyman (amh0120@auburn.edu)
+*  @version 2017-10-30
+*/
+public class SelectorTimer {
+//   to convert from nanoseconds to   seconds
+   private static final double SECONDS =  1_000_000_000d;
+   private static final int DEFAULT_MAX_SIZE = 100_000_000;
+   private static final int QUADRATIC_LIMIT = 100_000;
+   private static final int WARMUP = 3;
+   private static final Random RANDOM = new Random(2210);
+
+   // Array lengths that fit in L1, fit in L3, and only fit in DRAM.
+   private static final int[] KERNEL_SIZES = {1 << 12, 1 << 18, 1 << 25};
+   private static final String[] KERNEL_LEVELS = {"L1", "L3", "DRAM"};
+   private static final String[] KERNEL_OPS = {"min", "max", "count", "copyRange",
+      "floor", "ceiling"};
+
+   // Number of ints each kernel measurement scans in total.
+   private static final long KERNEL_WORK = 1L << 29;
+
+   // Keeps the results of the timed calls reachable.
+   private static long sink;
+
+/** Drives execution. */
+   public static void main(String[] args) {
+      int maxSize = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_MAX_SIZE;
+      timeKthSelection(1_000, maxSize);
+      timePercentiles(1_000, maxSize);
+      timeParallelScans(Math.min(maxSize, 50_000_000));
+      timeKernels();
+      timeSortedIndex(Math.min(maxSize, 10_000_000), 100, 1_000_000);
+      System.out.println(sink);
+   }
+
+   /**
+    * Compares kmin and kmax against the old selection sort, asking
+    * for a rank a quarter of the way in from each end.
+    */
+   private static void timeKthSelection(int start, int maxSize) {
+      System.out.println("kth distinct value: selection sort vs introselect");
+      double previousSort = 0;
+      double previousSelect = 0;
+      for (int n = start; n <= maxSize; n = n * 10) {
+         int[] a = latencies(n);
+         int k = n / 4;
+         for (int i = 0; i < WARMUP; i++) {
+            sink += Selector.kmin(a, k) + Selector.kmax(a, k);
+         }
+
+         if (n <= QUADRATIC_LIMIT) {
+            long startTime = System.nanoTime();
+            sink += selectionSortKmin(a, k) + selectionSortKmax(a, k);
+            double sortTime = (System.nanoTime() - startTime) / SECONDS;
+            report(n, "selection sort", sortTime, previousSort);
+            previousSort = sortTime;
+         }
+
+         long startTime = System.nanoTime();
+         sink += Selector.kmin(a, k) + Selector.kmax(a, k);
+         double selectTime = (System.nanoTime() - startTime) / SECONDS;
+         report(n, "introselect", selectTime, previousSelect);
+         previousSelect = selectTime;
+      }
+   }
+
+   /**
+    * Compares resolving p50, p90, p99 and p99.9 with one kmin call
+    * each against resolving them together with one batch call.
+    */
+   private static void timePercentiles(int start, int maxSize) {
+      System.out.println("Percentiles: kmin per rank vs one batch kmin");
+      double previousSingle = 0;
+      double previousBatch = 0;
+      for (int n = start; n <= maxSize; n = n * 10) {
+         int[] a = latencies(n);
+         // Ranks among the distinct values, which number at least n / 2.
+         int distinct = n / 2;
+         int[] ks = {distinct / 2, (int) (distinct * 9L / 10), (int) (distinct * 99L / 100),
+            (int) (distinct * 999L / 1000)};
+         for (int i = 0; i < WARMUP; i++) {
+            sink += Selector.kmin(a, ks)[0] + Selector.kmin(a, ks[0]);
+         }
+
+         long startTime = System.nanoTime();
+         for (int k : ks) {
+            sink += Selector.kmin(a, k);
+         }
+         double singleTime = (System.nanoTime() - startTime) / SECONDS;
+
+         startTime = System.nanoTime();
+         sink += Selector.kmin(a, ks)[ks.length - 1];
+         double batchTime = (System.nanoTime() - startTime) / SECONDS;
+
+         report(n, "kmin per rank", singleTime, previousSingle);
+         report(n, "batch kmin", batchTime, previousBatch);
+         previousSingle = singleTime;
+         previousBatch = batchTime;
+      }
+   }
+
+   /**
+    * Times the sequential scans against the parallel ones on pools of
+    * 1, 2, 4, ... up to the number of available processors.
+    */
+   private static void timeParallelScans(int n) {
+      System.out.println("Sequential vs parallel scans over " + n + " ints");
+      int[] a = latencies(n);
+      int key = n / 3;
+      for (int i = 0; i < WARMUP; i++) {
+         sink += Selector.min(a) + Selector.parallelMin(a) + Selector.parallelRange(a, 0, key).length;
+      }
+
+      long startTime = System.nanoTime();
+      sink += Selector.min(a) + Selector.max(a) + Selector.floor(a, key)
+         + Selector.ceiling(a, key) + Selector.range(a, 0, key).length;
+      double sequential = (System.nanoTime() - startTime) / SECONDS;
+      System.out.println("Sequential  Elapsed time = " + sequential);
+
+      int processors = Runtime.getRuntime().availableProcessors();
+      for (int threads = 1; threads <= processors; threads = threads * 2) {
+         ForkJoinPool pool = new ForkJoinPool(threads);
+         startTime = System.nanoTime();
+         sink += Selector.parallelMin(pool, a) + Selector.parallelMax(pool, a)
+            + Selector.parallelFloor(pool, a, key) + Selector.parallelCeiling(pool, a, key)
+            + Selector.parallelRange(pool, a, 0, key).length;
+         double elapsedTime = (System.nanoTime() - startTime) / SECONDS;
+         pool.shutdown();
+         System.out.println("Threads = " + threads + "  Elapsed time = " + elapsedTime
+            + "  speedup = " + (sequential / elapsedTime));
+      }
+   }
+
+   /**
+    * Compares the throughput, in ints scanned per nanosecond, of the
+    * scalar loops and of the loops Selector runs on, on arrays that
+    * stay in L1, in L3, and in DRAM. The two differ only when
+    * vector/VectorKernel.java is compiled and the program is run with
+    * java --add-modules jdk.incubator.vector.
+    */
+   private static void timeKernels() {
+      System.out.println("Scalar vs " + (Selector.isVectorized() ? "vector" : "scalar")
+         + " kernel, ints per ns");
+      for (int s = 0; s < KERNEL_SIZES.length; s++) {
+         int n = KERNEL_SIZES[s];
+         int[] a = latencies(n);
+         int[] result = new int[n];
+         int passes = (int) Math.max(1, KERNEL_WORK / n);
+         for (int op = 0; op < KERNEL_OPS.length; op++) {
+            for (int i = 0; i < WARMUP; i++) {
+               sink += scanAll(Selector.SCALAR, op, a, result, passes / 10 + 1);
+               sink += scanAll(Selector.KERNEL, op, a, result, passes / 10 + 1);
+            }
+            long startTime = System.nanoTime();
+            sink += scanAll(Selector.SCALAR, op, a, result, passes);
+            double scalar = (double) n * passes / (System.nanoTime() - startTime);
+            startTime = System.nanoTime();
+            sink += scanAll(Selector.KERNEL, op, a, result, passes);
+            double kernel = (double) n * passes / (System.nanoTime() - startTime);
+            System.out.println(KERNEL_LEVELS[s] + "  n = " + n + "  " + KERNEL_OPS[op]
+               + "  scalar = " + scalar + "  kernel = " + kernel
+               + "  speedup = " + (kernel / scalar));
+         }
+      }
+   }
+
+   /** Runs operation op of kernel over all of a, passes times. */
+   private static long scanAll(SelectorKernel kernel, int op, int[] a, int[] result,
+         int passes) {
+      long total = 0;
+      int key = a.length / 2;
+      for (int i = 0; i < passes; i++) {
+         switch (op) {
+            case 0:
+               total += kernel.min(a, 0, a.length);
+               break;
+            case 1:
+               total += kernel.max(a, 0, a.length);
+               break;
+            case 2:
+               total += kernel.count(a, 0, a.length, key / 2, key);
+               break;
+            case 3:
+               total += kernel.copyRange(a, 0, a.length, key / 2, key, result, 0);
+               break;
+            case 4:
+               total += kernel.floor(a, 0, a.length, key);
+               break;
+            default:
+               total += kernel.ceiling(a, 0, a.length, key);
+               break;
+         }
+      }
+      return total;
+   }
+
+   /**
+    * Times building a SortedIndex over n ints, and compares the time
+    * per query of floor, ceiling, range and kmin on the index with
+    * the static Selector methods. The static methods scan the whole
+    * array on every call, so they are given fewer queries.
+    */
+   private static void timeSortedIndex(int n, int scans, int lookups) {
+      System.out.println("SortedIndex vs Selector over " + n + " ints, ns per query");
+      int[] a = latencies(n);
+      int[] keys = new int[lookups];
+      for (int i = 0; i < lookups; i++) {
+         keys[i] = RANDOM.nextInt(n);
+      }
+      // kmin is only asked for ranks that exist among the distinct values.
+      int ranks = n / 2;
+
+      long startTime = System.nanoTime();
+      SortedIndex index = new SortedIndex(a);
+      double build = (System.nanoTime() - startTime) / SECONDS;
+      System.out.println("Build  Elapsed time = " + build);
+
+      String[] ops = {"floor", "ceiling", "range", "kmin"};
+      for (int op = 0; op < ops.length; op++) {
+         startTime = System.nanoTime();
+         for (int i = 0; i < scans; i++) {
+            int key = keys[i];
+            switch (op) {
+               case 0:
+                  sink += Selector.floor(a, key);
+                  break;
+               case 1:
+                  sink += Selector.ceiling(a, key);
+                  break;
+               case 2:
+                  sink += Selector.range(a, key, key + 100).length;
+                  break;
+               default:
+                  sink += Selector.kmin(a, 1 + key % ranks);
+                  break;
+            }
+         }
+         double scan = (double) (System.nanoTime() - startTime) / scans;
+
+         startTime = System.nanoTime();
+         for (int key : keys) {
+            switch (op) {
+               case 0:
+                  sink += index.floor(key);
+                  break;
+               case 1:
+                  sink += index.ceiling(key);
+                  break;
+               case 2:
+                  sink += index.range(key, key + 100).remaining();
+                  break;
+               default:
+                  sink += index.kmin(1 + key % ranks);
+                  break;
+            }
+         }
+         double indexed = (double) (System.nanoTime() - startTime) / lookups;
+         System.out.println(ops[op] + "  Selector = " + scan + "  SortedIndex = " + indexed
+            + "  break-even queries = " + (long) Math.ceil(build * SECONDS / (scan - indexed)));
+      }
+   }
+
+   /** Returns n values in [0, n), so that about a third are repeats. */
+   private static int[] latencies(int n) {
+      int[] values = new int[n];
+      for (int i = 0; i < n; i++) {
+         values[i] = RANDOM.nextInt(n);
+      }
+      return values;
+   }
+
+   /** The selection sort kmin used to run, kept as a baseline. */
+   private static int selectionSortKmin(int[] a, int k) {
+      int[] aTest = a.clone();
+      for (int i = 0; i < aTest.length - 1; i++) {
+         int min = i;
+         for (int j = i + 1; j < aTest.length; j++) {
+            if (aTest[j] < aTest[min]) {
+               min = j;
+            }
+         }
+         int temp = aTest[i];
+         aTest[i] = aTest[min];
+         aTest[min] = temp;
+      }
+      return aTest[k - 1];
+   }
+
+   /** The selection sort kmax used to run, kept as a baseline. */
+   private static int selectionSortKmax(int[] a, int k) {
+      int[] aTest = a.clone();
+      for (int i = 0; i < aTest.length - 1; i++) {
+         int max = i;
+         for (int j = i + 1; j < aTest.length; j++) {
+            if (aTest[j] > aTest[max]) {
+               max = j;
+            }
+         }
+         int temp = aTest[i];
+         aTest[i] = aTest[max];
+         aTest[max] = temp;
+      }
+      return aTest[k - 1];
+   }
+
+   /** Prints one line of timing output. */
+   private static void report(int n, String label, double elapsedTime, double previous) {
+      String ratio = (previous == 0) ? " --" : " R value = " + (elapsedTime / previous);
+      System.out.println("Problem size =  " + n + "  " + label + "  Elapsed time = " + elapsedTime + ratio);
+   }
+}
@@ -1,4 +1,8 @@
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A collection that implements set behavior.
@@ -91,6 +95,82 @@ public interface Set<T> extends Iterable<T> {
    Set<T> complement(Set<T> s);
 
 
+   /**
+    * Returns an order-independent 64-bit fingerprint of the elements
+    * in this set: the sum of fingerprintOf(e.hashCode()) over every
+    * element e. Implementations keep the sum up to date as elements
+    * are added and removed; this default recomputes it by iteration.
+    * Two sets holding elements that are equal under equals have equal
+    * fingerprints. Sets whose order is not consistent with equals,
+    * such as a case-insensitive set of strings, can be equal under
+    * equals(Set) and still have different fingerprints, so a
+    * fingerprint only rules out equality where the order is known to
+    * be consistent with equals.
+    *
+    * @return  the fingerprint of this set
+    */
+   default long fingerprint() {
+      long fingerprint = 0;
+      for (T element : this) {
+         fingerprint += fingerprintOf(element.hashCode());
+      }
+      return fingerprint;
+   }
+
+
+   /**
+    * Spreads the bits of an element's hash code over 64 bits. Because
+    * set fingerprints are plain sums of these values, an element's
+    * contribution can be subtracted again when it is removed.
+    *
+    * @param   hash  the hash code of an element
+    * @return  the element's contribution to a set fingerprint
+    */
+   static long fingerprintOf(int hash) {
+      long h = hash * 0x9E3779B97F4A7C15L;
+      h ^= h >>> 32;
+      h *= 0xD6E8FEB86659FD93L;
+      h ^= h >>> 32;
+      return h;
+   }
+
+
+   /**
+    * Returns a spliterator over the elements in this collection.
+    * This default wraps iterator() and reports the exact size; sets
+    * backed by an array override it to split by index range.
+    *
+    * @return  a spliterator over the elements in this collection
+    */
+   @Override
+   default Spliterator<T> spliterator() {
+      return Spliterators.spliterator(iterator(), size(),
+         Spliterator.DISTINCT | Spliterator.NONNULL);
+   }
+
+
+   /**
+    * Returns a sequential stream over the elements in this collection.
+    *
+    * @return  a sequential stream over the elements in this collection
+    */
+   default Stream<T> stream() {
+      return StreamSupport.stream(spliterator(), false);
+   }
+
+
+   /**
+    * Returns a parallel stream over the elements in this collection.
+    * Its work is split across the common fork-join pool according to
+    * spliterator().
+    *
+    * @return  a parallel stream over the elements in this collection
+    */
+   default Stream<T> parallelStream() {
+      return StreamSupport.stream(spliterator(), true);
+   }
+
+
    /**
     * Returns an iterator over the elements in this collection.
     * No specific order can be assumed.
@@ -0,0 +1,183 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+* Defines union and intersection over any number of sets at once.
+* Each operation writes straight into one presized result array, so
+* no intermediate set is built the way chained pairwise calls would.
+* ArraySets and their range views are read in place; any other Set,
+* or any set ordered differently from the first, is copied into an
+* array sorted in the order of the first set. The result is kept in
+* that order too.
+*
+* @author   Avery Hyman (amh0120@auburn.edu)
+* @version  2017-10-30
+*
+*/
+public final class SetAlgebra {
+
+   /**
+    * Can't instantiate this class.
+    */
+   private SetAlgebra() { }
+
+
+   /**
+    * Returns the union of all the given sets. The sets are merged in
+    * one pass with a heap holding the smallest unread element of each,
+    * so the cost is O(N log k) for N elements in k sets. This method
+    * throws IllegalArgumentException if sets or any set in it is null.
+    */
+   public static <T extends Comparable<? super T>> ArraySet<T> unionAll(
+         Collection<? extends Set<T>> sets) {
+      ArraySet.Slice<T>[] slices = slicesOf(sets);
+      long total = 0;
+      for (ArraySet.Slice<T> slice : slices) {
+         total += slice.size();
+      }
+      if (total > Integer.MAX_VALUE) {
+         throw new IllegalArgumentException();
+      }
+      T[] result = ArraySet.newArray((int) total);
+      Comparator<? super T> order = (slices.length == 0) ? null : slices[0].comparator;
+
+      // heap[0..count) holds the indexes of the slices with unread
+      // elements, ordered by their next element, at position[i].
+      int[] position = new int[slices.length];
+      int[] heap = new int[slices.length];
+      int count = 0;
+      for (int i = 0; i < slices.length; i++) {
+         position[i] = slices[i].lo;
+         if (slices[i].size() > 0) {
+            heap[count] = i;
+            count++;
+         }
+      }
+      for (int i = count / 2 - 1; i >= 0; i--) {
+         siftDown(heap, count, i, slices, position);
+      }
+
+      int k = 0;
+      while (count > 0) {
+         int top = heap[0];
+         T element = slices[top].items[position[top]];
+         if (k == 0 || ArraySet.compare(order, result[k - 1], element) != 0) {
+            result[k] = element;
+            k++;
+         }
+         position[top]++;
+         if (position[top] == slices[top].hi) {
+            count--;
+            heap[0] = heap[count];
+         }
+         siftDown(heap, count, 0, slices, position);
+      }
+      if (k < result.length / 2) {
+         result = Arrays.copyOf(result, Math.max(1, k));
+      }
+      return new ArraySet<T>(result, k, order);
+   }
+
+
+   /**
+    * Returns the intersection of all the given sets. The candidates
+    * start as the smallest set and are narrowed against the others in
+    * increasing order of size, in place, galloping through any set
+    * GALLOP_RATIO or more times larger than the remaining candidates.
+    * This method throws IllegalArgumentException if sets is null or
+    * empty or if any set in it is null.
+    */
+   public static <T extends Comparable<? super T>> ArraySet<T> intersectAll(
+         Collection<? extends Set<T>> sets) {
+      ArraySet.Slice<T>[] slices = slicesOf(sets);
+      if (slices.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      Comparator<? super T> order = slices[0].comparator;
+      Arrays.sort(slices,
+         new Comparator<ArraySet.Slice<T>>() {
+            public int compare(ArraySet.Slice<T> a, ArraySet.Slice<T> b) {
+               return Integer.compare(a.size(), b.size());
+            }
+         });
+
+      ArraySet.Slice<T> smallest = slices[0];
+      T[] result = ArraySet.newArray(smallest.size());
+      System.arraycopy(smallest.items, smallest.lo, result, 0, smallest.size());
+      int k = smallest.size();
+      for (int i = 1; i < slices.length && k > 0; i++) {
+         ArraySet.Slice<T> b = slices[i];
+         if ((long) k * ArraySet.GALLOP_RATIO <= b.size()) {
+            k = ArraySet.gallopInto(result, 0, k, b.items, b.lo, b.hi, result, order);
+         }
+         else {
+            k = ArraySet.intersectInto(result, 0, k, b.items, b.lo, b.hi, result, order);
+         }
+      }
+      return new ArraySet<T>(result, k, order);
+   }
+
+
+   /**
+    * Returns every set as a slice of a duplicate-free array sorted in
+    * the order of the first set.
+    */
+   private static <T extends Comparable<? super T>> ArraySet.Slice<T>[] slicesOf(
+         Collection<? extends Set<T>> sets) {
+      if (sets == null) {
+         throw new IllegalArgumentException();
+      }
+      // Java cannot create an array of Slice<T>; the cast is safe
+      // because only Slice<T> values are ever stored in it.
+      @SuppressWarnings("unchecked")
+      ArraySet.Slice<T>[] slices = (ArraySet.Slice<T>[]) new ArraySet.Slice<?>[sets.size()];
+      int i = 0;
+      for (Set<T> s : sets) {
+         if (s == null) {
+            throw new IllegalArgumentException();
+         }
+         ArraySet.Slice<T> slice = ArraySet.sliceOf(s);
+         Comparator<? super T> order = (i == 0) ? null : slices[0].comparator;
+         if (slice == null || (i > 0 && !ArraySet.sameOrder(order, slice.comparator))) {
+            slice = ArraySet.sliceOf(new ArraySet<T>(s, order));
+         }
+         slices[i] = slice;
+         i++;
+      }
+      return slices;
+   }
+
+
+   /**
+    * Restores the heap order below heap[i], comparing slices by the
+    * element at their current position.
+    */
+   private static <T extends Comparable<? super T>> void siftDown(int[] heap, int count,
+         int i, ArraySet.Slice<T>[] slices, int[] position) {
+      int item = heap[i];
+      T key = (count > 0) ? slices[item].items[position[item]] : null;
+      Comparator<? super T> order = slices[item].comparator;
+      while (2 * i + 1 < count) {
+         int child = 2 * i + 1;
+         if (child + 1 < count && ArraySet.compare(order, head(heap[child + 1], slices, position),
+               head(heap[child], slices, position)) < 0) {
+            child++;
+         }
+         if (ArraySet.compare(order, head(heap[child], slices, position), key) >= 0) {
+            break;
+         }
+         heap[i] = heap[child];
+         i = child;
+      }
+      heap[i] = item;
+   }
+
+
+   /**
+    * Returns the next unread element of slice i.
+    */
+   private static <T> T head(int i, ArraySet.Slice<T>[] slices, int[] position) {
+      return slices[i].items[position[i]];
+   }
+}
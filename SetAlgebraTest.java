@@ -0,0 +1,199 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Provides JUnit test cases for the SetAlgebra class.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class SetAlgebraTest {
+
+   @Test
+   public void testUnionAll() {
+      ArraySet<Integer> result = SetAlgebra.unionAll(Arrays.asList(
+         setOf(Integer.MAX_VALUE, 3, 1), setOf(2, 3), setOf(Integer.MIN_VALUE, 1)));
+      assertEquals(sorted(Integer.MIN_VALUE, 1, 2, 3, Integer.MAX_VALUE), list(result));
+   }
+
+   @Test
+   public void testUnionAllOfNoSets() {
+      List<ArraySet<Integer>> none = Collections.emptyList();
+      assertTrue(SetAlgebra.unionAll(none).isEmpty());
+   }
+
+   @Test
+   public void testUnionAllOfEmptySets() {
+      ArraySet<Integer> result = SetAlgebra.unionAll(Arrays.asList(
+         new ArraySet<Integer>(), setOf(5), new ArraySet<Integer>()));
+      assertEquals(sorted(5), list(result));
+   }
+
+   @Test
+   public void testUnionAllOfOneSetCopies() {
+      ArraySet<Integer> only = setOf(1, 2);
+      ArraySet<Integer> result = SetAlgebra.unionAll(Collections.singletonList(only));
+      result.add(3);
+      assertEquals(2, only.size());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testUnionAllOfNull() {
+      SetAlgebra.unionAll((List<ArraySet<Integer>>) null);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testUnionAllWithNullSet() {
+      SetAlgebra.unionAll(Arrays.asList(setOf(1), null));
+   }
+
+   @Test
+   public void testIntersectAll() {
+      ArraySet<Integer> result = SetAlgebra.intersectAll(Arrays.asList(
+         setOf(Integer.MIN_VALUE, 1, 2, 3, Integer.MAX_VALUE),
+         setOf(Integer.MAX_VALUE, 2, 3, Integer.MIN_VALUE),
+         setOf(3, Integer.MIN_VALUE, Integer.MAX_VALUE, 9)));
+      assertEquals(sorted(Integer.MIN_VALUE, 3, Integer.MAX_VALUE), list(result));
+   }
+
+   @Test
+   public void testIntersectAllWithEmptySet() {
+      ArraySet<Integer> result = SetAlgebra.intersectAll(Arrays.asList(
+         setOf(1, 2), new ArraySet<Integer>(), setOf(1)));
+      assertTrue(result.isEmpty());
+   }
+
+   @Test
+   public void testIntersectAllGallops() {
+      ArraySet<Integer> large = range(-100000, 100000);
+      large.add(Integer.MIN_VALUE);
+      large.add(Integer.MAX_VALUE);
+      ArraySet<Integer> small = setOf(Integer.MIN_VALUE, -100001, 0, 99999, Integer.MAX_VALUE);
+      ArraySet<Integer> result = SetAlgebra.intersectAll(Arrays.asList(large, small));
+      assertEquals(sorted(Integer.MIN_VALUE, 0, 99999, Integer.MAX_VALUE), list(result));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testIntersectAllOfNoSets() {
+      SetAlgebra.intersectAll(Collections.<ArraySet<Integer>>emptyList());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testIntersectAllOfNull() {
+      SetAlgebra.intersectAll((List<ArraySet<Integer>>) null);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testIntersectAllWithNullSet() {
+      SetAlgebra.intersectAll(Arrays.asList(null, setOf(1)));
+   }
+
+   @Test
+   public void testMixedComparatorsFollowFirstSet() {
+      ArraySet<Integer> reversed = new ArraySet<Integer>(Collections.<Integer>reverseOrder());
+      reversed.add(1);
+      reversed.add(5);
+      reversed.add(Integer.MAX_VALUE);
+      ArraySet<Integer> union = SetAlgebra.unionAll(Arrays.asList(reversed, setOf(2, 5)));
+      assertEquals(Arrays.asList(Integer.MAX_VALUE, 5, 2, 1), list(union));
+      assertSame(reversed.comparator(), union.comparator());
+      ArraySet<Integer> both = SetAlgebra.intersectAll(Arrays.asList(reversed, setOf(2, 5, 1)));
+      assertEquals(Arrays.asList(5, 1), list(both));
+   }
+
+   @Test
+   public void testOtherSetsAndViews() {
+      BlockArraySet<Integer> block = new BlockArraySet<Integer>();
+      for (int i = 0; i < 1000; i += 3) {
+         block.add(i);
+      }
+      Set<Integer> view = range(0, 1000).subSet(100, 200);
+      ArraySet<Integer> union = SetAlgebra.unionAll(Arrays.asList(block, view));
+      ArraySet<Integer> both = SetAlgebra.intersectAll(Arrays.asList(block, view));
+      assertEquals(334 + 100 - 33, union.size());
+      assertEquals(33, both.size());
+      assertTrue(both.contains(102));
+      assertFalse(both.contains(200));
+   }
+
+   @Test
+   public void testAgreesWithTreeSet() {
+      Random random = new Random(17);
+      for (int trial = 0; trial < 50; trial++) {
+         List<ArraySet<Integer>> sets = new ArrayList<ArraySet<Integer>>();
+         TreeSet<Integer> union = new TreeSet<Integer>();
+         TreeSet<Integer> both = null;
+         int count = 1 + random.nextInt(8);
+         for (int i = 0; i < count; i++) {
+            ArraySet<Integer> set = new ArraySet<Integer>();
+            TreeSet<Integer> expected = new TreeSet<Integer>();
+            int size = random.nextInt(200);
+            for (int j = 0; j < size; j++) {
+               int value = random.nextInt(300) - 150;
+               set.add(value);
+               expected.add(value);
+            }
+            sets.add(set);
+            union.addAll(expected);
+            if (both == null) {
+               both = expected;
+            }
+            else {
+               both.retainAll(expected);
+            }
+         }
+         assertEquals(new ArrayList<Integer>(union), list(SetAlgebra.unionAll(sets)));
+         assertEquals(new ArrayList<Integer>(both), list(SetAlgebra.intersectAll(sets)));
+      }
+   }
+
+
+   /**
+    * Returns the elements of set in iteration order.
+    */
+   private static List<Integer> list(Set<Integer> set) {
+      List<Integer> result = new ArrayList<Integer>();
+      for (Integer element : set) {
+         result.add(element);
+      }
+      return result;
+   }
+
+   /**
+    * Returns values in ascending order.
+    */
+   private static List<Integer> sorted(Integer... values) {
+      List<Integer> result = new ArrayList<Integer>(Arrays.asList(values));
+      Collections.sort(result);
+      return result;
+   }
+
+   /**
+    * Returns an ArraySet holding lo, lo + 1, ..., hi - 1.
+    */
+   private static ArraySet<Integer> range(int lo, int hi) {
+      ArraySet<Integer> set = new ArraySet<Integer>();
+      for (int i = lo; i < hi; i++) {
+         set.add(i);
+      }
+      return set;
+   }
+
+   /**
+    * Returns an ArraySet holding values.
+    */
+   private static ArraySet<Integer> setOf(Integer... values) {
+      return new ArraySet<Integer>(values);
+   }
+}
@@ -0,0 +1,487 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+*  A benchmark of every Set operation on ArraySet against
+*  java.util.TreeSet and java.util.HashSet, at sizes from 10 to
+*  10,000,000 and with values visited in random and in sorted order.
+*
+*  Each measurement is run for WARMUP untimed rounds and then for
+*  the given number of timed rounds, and reports the mean time and the
+*  mean number of bytes allocated per operation. Allocation is read
+*  from the thread's allocation counter, so it is reported only on
+*  JVMs whose ThreadMXBean supports it.
+*
+*  Usage: java SetBenchmark [maxSize [rounds]]
+*
+*  The largest sizes need a large heap, for example -Xmx8g.
+*
+*  @author Avery Hyman (amh0120@auburn.edu)
+*  @version 2017-10-30
+*/
+public class SetBenchmark {
+   private static final int WARMUP = 3;
+   private static final int DEFAULT_ROUNDS = 5;
+   private static final int DEFAULT_MAX_SIZE = 10_000_000;
+
+   // Number of adds, removes or lookups timed on a set of size n.
+   private static final int OPERATIONS = 10_000;
+
+   // Largest set built one add at a time in random order, since each
+   // such add into an ArraySet shifts half the array.
+   private static final int QUADRATIC_LIMIT = 1 << 17;
+
+   private static final Random RANDOM = new Random(2210);
+
+   // Keeps the results of Trial.run reachable.
+   private static long sink;
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      int maxSize = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_MAX_SIZE;
+      int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+      Candidate<?>[] candidates = {new ArraySetCandidate(), new TreeSetCandidate(),
+         new HashSetCandidate()};
+      System.out.printf("%-9s %-12s %-7s %9s %14s %14s%n",
+         "set", "operation", "order", "n", "ns/op", "bytes/op");
+      for (int n = 10; n <= maxSize; n = n * 10) {
+         try {
+            for (boolean sorted : new boolean[] {false, true}) {
+               int[] values = values(n, sorted);
+               int[] others = overlapping(values, sorted);
+               int[] fresh = values(Math.min(n, OPERATIONS), sorted);
+               if (sorted) {
+                  // Values above every member, so adds go at the end.
+                  for (int i = 0; i < fresh.length; i++) {
+                     fresh[i] = Integer.MAX_VALUE - fresh.length + i;
+                  }
+               }
+               for (Candidate<?> candidate : candidates) {
+                  run(candidate, n, sorted, values, others, fresh, rounds);
+               }
+            }
+         }
+         catch (OutOfMemoryError e) {
+            System.out.println("Out of memory at n = " + n + "; rerun with a larger -Xmx.");
+            return;
+         }
+      }
+   }
+
+   /** Runs every operation for one candidate at one size and order. */
+   private static <S> void run(final Candidate<S> c, final int n, boolean sorted,
+         final int[] values, final int[] others, final int[] fresh, int rounds) {
+      String order = sorted ? "sorted" : "random";
+      final int k = fresh.length;
+
+      if (sorted || n <= QUADRATIC_LIMIT || !c.shiftsOnAdd()) {
+         report(c, "build", order, n, measure(rounds, n,
+            new Trial() {
+               long run() {
+                  S s = c.empty();
+                  for (int value : values) {
+                     c.add(s, value);
+                  }
+                  return c.size(s);
+               }
+            }));
+      }
+      else {
+         System.out.printf("%-9s %-12s %-7s %9d %14s%n", c.name(), "build", order, n,
+            "skipped");
+      }
+
+      report(c, "add", order, n, measure(rounds, k,
+         new Trial() {
+            private S s;
+
+            void setup() {
+               s = c.load(values);
+            }
+
+            long run() {
+               long changed = 0;
+               for (int value : fresh) {
+                  changed += c.add(s, value) ? 1 : 0;
+               }
+               return changed;
+            }
+         }));
+
+      report(c, "remove", order, n, measure(rounds, k,
+         new Trial() {
+            private S s;
+
+            void setup() {
+               s = c.load(values);
+            }
+
+            long run() {
+               long changed = 0;
+               for (int i = 0; i < k; i++) {
+                  changed += c.remove(s, values[i]) ? 1 : 0;
+               }
+               return changed;
+            }
+         }));
+
+      final S a = c.load(values);
+      final S b = c.load(others);
+      final S same = c.load(values);
+      final int[] probes = new int[k];
+      for (int i = 0; i < k; i++) {
+         probes[i] = (i % 2 == 0) ? values[RANDOM.nextInt(n)] : RANDOM.nextInt();
+      }
+
+      report(c, "contains", order, n, measure(rounds, k,
+         new Trial() {
+            long run() {
+               long hits = 0;
+               for (int probe : probes) {
+                  hits += c.contains(a, probe) ? 1 : 0;
+               }
+               return hits;
+            }
+         }));
+
+      report(c, "union", order, n, measure(rounds, 1,
+         new Trial() {
+            long run() {
+               return c.size(c.union(a, b));
+            }
+         }));
+
+      report(c, "intersection", order, n, measure(rounds, 1,
+         new Trial() {
+            long run() {
+               return c.size(c.intersection(a, b));
+            }
+         }));
+
+      report(c, "complement", order, n, measure(rounds, 1,
+         new Trial() {
+            long run() {
+               return c.size(c.complement(a, b));
+            }
+         }));
+
+      report(c, "equals", order, n, measure(rounds, 1,
+         new Trial() {
+            long run() {
+               return c.same(a, same) ? 1 : 0;
+            }
+         }));
+
+      report(c, "iterate", order, n, measure(rounds, n,
+         new Trial() {
+            long run() {
+               return c.sum(a);
+            }
+         }));
+   }
+
+   /**
+   * One timed operation. setup runs before every round and is not
+   * timed; run returns a value derived from its work so that the
+   * work cannot be optimized away.
+   */
+   private abstract static class Trial {
+      void setup() {
+      }
+
+      abstract long run();
+   }
+
+   /**
+   * Returns the mean nanoseconds and allocated bytes per operation,
+   * in that order, over rounds timed runs of trial.
+   */
+   private static double[] measure(int rounds, int operations, Trial trial) {
+      for (int i = 0; i < WARMUP; i++) {
+         trial.setup();
+         sink += trial.run();
+      }
+      long nanos = 0;
+      long bytes = 0;
+      for (int i = 0; i < rounds; i++) {
+         trial.setup();
+         long startBytes = allocatedBytes();
+         long startTime = System.nanoTime();
+         sink += trial.run();
+         nanos += System.nanoTime() - startTime;
+         bytes += allocatedBytes() - startBytes;
+      }
+      double count = (double) rounds * operations;
+      return new double[] {nanos / count, (bytes < 0) ? -1 : bytes / count};
+   }
+
+   /** Returns the bytes allocated so far by this thread, or a negative number. */
+   private static long allocatedBytes() {
+      java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+         return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(
+            Thread.currentThread().getId());
+      }
+      return Long.MIN_VALUE / 2;
+   }
+
+   /** Prints one line of the results table. */
+   private static void report(Candidate<?> c, String operation, String order, int n,
+         double[] result) {
+      String bytes = (result[1] < 0) ? "n/a" : String.format("%.1f", result[1]);
+      System.out.printf("%-9s %-12s %-7s %9d %14.1f %14s%n", c.name(), operation, order, n,
+         result[0], bytes);
+   }
+
+   /** Returns n random ints, sorted if requested. */
+   private static int[] values(int n, boolean sorted) {
+      int[] values = new int[n];
+      for (int i = 0; i < n; i++) {
+         values[i] = RANDOM.nextInt(Integer.MAX_VALUE - OPERATIONS);
+      }
+      if (sorted) {
+         Arrays.sort(values);
+      }
+      return values;
+   }
+
+   /** Returns n values of which about half are also in values. */
+   private static int[] overlapping(int[] values, boolean sorted) {
+      int[] others = values(values.length, false);
+      for (int i = 0; i < others.length; i += 2) {
+         others[i] = values[RANDOM.nextInt(values.length)];
+      }
+      if (sorted) {
+         Arrays.sort(others);
+      }
+      return others;
+   }
+
+   /**
+   * The operations under test for one kind of set S.
+   */
+   private abstract static class Candidate<S> {
+      abstract String name();
+
+      abstract S empty();
+
+      /** Returns a set of values, built as quickly as S allows. */
+      abstract S load(int[] values);
+
+      abstract boolean add(S s, int value);
+
+      abstract boolean remove(S s, int value);
+
+      abstract boolean contains(S s, int value);
+
+      abstract int size(S s);
+
+      abstract S union(S a, S b);
+
+      abstract S intersection(S a, S b);
+
+      abstract S complement(S a, S b);
+
+      abstract boolean same(S a, S b);
+
+      abstract long sum(S s);
+
+      /** Tests whether add shifts existing elements, making builds O(n^2). */
+      boolean shiftsOnAdd() {
+         return false;
+      }
+   }
+
+   private static final class ArraySetCandidate extends Candidate<ArraySet<Integer>> {
+      String name() {
+         return "ArraySet";
+      }
+
+      ArraySet<Integer> empty() {
+         return new ArraySet<Integer>();
+      }
+
+      ArraySet<Integer> load(int[] values) {
+         Integer[] boxed = new Integer[values.length];
+         for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+         }
+         return new ArraySet<Integer>(boxed);
+      }
+
+      boolean add(ArraySet<Integer> s, int value) {
+         return s.add(value);
+      }
+
+      boolean remove(ArraySet<Integer> s, int value) {
+         return s.remove(value);
+      }
+
+      boolean contains(ArraySet<Integer> s, int value) {
+         return s.contains(value);
+      }
+
+      int size(ArraySet<Integer> s) {
+         return s.size();
+      }
+
+      ArraySet<Integer> union(ArraySet<Integer> a, ArraySet<Integer> b) {
+         return (ArraySet<Integer>) a.union(b);
+      }
+
+      ArraySet<Integer> intersection(ArraySet<Integer> a, ArraySet<Integer> b) {
+         return (ArraySet<Integer>) a.intersection(b);
+      }
+
+      ArraySet<Integer> complement(ArraySet<Integer> a, ArraySet<Integer> b) {
+         return (ArraySet<Integer>) a.complement(b);
+      }
+
+      boolean same(ArraySet<Integer> a, ArraySet<Integer> b) {
+         return a.equals(b);
+      }
+
+      long sum(ArraySet<Integer> s) {
+         long sum = 0;
+         for (Integer element : s) {
+            sum += element;
+         }
+         return sum;
+      }
+
+      boolean shiftsOnAdd() {
+         return true;
+      }
+   }
+
+   private static final class TreeSetCandidate extends Candidate<TreeSet<Integer>> {
+      String name() {
+         return "TreeSet";
+      }
+
+      TreeSet<Integer> empty() {
+         return new TreeSet<Integer>();
+      }
+
+      TreeSet<Integer> load(int[] values) {
+         TreeSet<Integer> s = new TreeSet<Integer>();
+         for (int value : values) {
+            s.add(value);
+         }
+         return s;
+      }
+
+      boolean add(TreeSet<Integer> s, int value) {
+         return s.add(value);
+      }
+
+      boolean remove(TreeSet<Integer> s, int value) {
+         return s.remove(value);
+      }
+
+      boolean contains(TreeSet<Integer> s, int value) {
+         return s.contains(value);
+      }
+
+      int size(TreeSet<Integer> s) {
+         return s.size();
+      }
+
+      TreeSet<Integer> union(TreeSet<Integer> a, TreeSet<Integer> b) {
+         TreeSet<Integer> result = new TreeSet<Integer>(a);
+         result.addAll(b);
+         return result;
+      }
+
+      TreeSet<Integer> intersection(TreeSet<Integer> a, TreeSet<Integer> b) {
+         TreeSet<Integer> result = new TreeSet<Integer>(a);
+         result.retainAll(b);
+         return result;
+      }
+
+      TreeSet<Integer> complement(TreeSet<Integer> a, TreeSet<Integer> b) {
+         TreeSet<Integer> result = new TreeSet<Integer>(a);
+         result.removeAll(b);
+         return result;
+      }
+
+      boolean same(TreeSet<Integer> a, TreeSet<Integer> b) {
+         return a.equals(b);
+      }
+
+      long sum(TreeSet<Integer> s) {
+         long sum = 0;
+         for (Integer element : s) {
+            sum += element;
+         }
+         return sum;
+      }
+   }
+
+   private static final class HashSetCandidate extends Candidate<HashSet<Integer>> {
+      String name() {
+         return "HashSet";
+      }
+
+      HashSet<Integer> empty() {
+         return new HashSet<Integer>();
+      }
+
+      HashSet<Integer> load(int[] values) {
+         HashSet<Integer> s = new HashSet<Integer>(values.length * 2);
+         for (int value : values) {
+            s.add(value);
+         }
+         return s;
+      }
+
+      boolean add(HashSet<Integer> s, int value) {
+         return s.add(value);
+      }
+
+      boolean remove(HashSet<Integer> s, int value) {
+         return s.remove(value);
+      }
+
+      boolean contains(HashSet<Integer> s, int value) {
+         return s.contains(value);
+      }
+
+      int size(HashSet<Integer> s) {
+         return s.size();
+      }
+
+      HashSet<Integer> union(HashSet<Integer> a, HashSet<Integer> b) {
+         HashSet<Integer> result = new HashSet<Integer>(a);
+         result.addAll(b);
+         return result;
+      }
+
+      HashSet<Integer> intersection(HashSet<Integer> a, HashSet<Integer> b) {
+         HashSet<Integer> result = new HashSet<Integer>(a);
+         result.retainAll(b);
+         return result;
+      }
+
+      HashSet<Integer> complement(HashSet<Integer> a, HashSet<Integer> b) {
+         HashSet<Integer> result = new HashSet<Integer>(a);
+         result.removeAll(b);
+         return result;
+      }
+
+      boolean same(HashSet<Integer> a, HashSet<Integer> b) {
+         return a.equals(b);
+      }
+
+      long sum(HashSet<Integer> s) {
+         long sum = 0;
+         for (Integer element : s) {
+            sum += element;
+         }
+         return sum;
+      }
+   }
+}
@@ -0,0 +1,77 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provides JUnit smoke tests for the SetBenchmark class. The sizes are
+ * kept small so that the tests check the shape of the report rather
+ * than time anything.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class SetBenchmarkTest {
+
+   private static final List<String> SETS = Arrays.asList("ArraySet", "TreeSet", "HashSet");
+
+   private static final List<String> OPERATIONS = Arrays.asList("build", "add", "remove",
+      "contains", "union", "intersection", "complement", "equals", "iterate");
+
+   @Test
+   public void testReportCoversEveryOperation() {
+      String[] lines = run("100", "1");
+      assertTrue(lines[0].startsWith("set"));
+      assertEquals(1 + 2 * 2 * SETS.size() * OPERATIONS.size(), lines.length);
+      Map<String, Integer> rows = new HashMap<String, Integer>();
+      for (int i = 1; i < lines.length; i++) {
+         String[] fields = lines[i].trim().split("\\s+");
+         assertEquals(lines[i], 6, fields.length);
+         assertTrue(lines[i], SETS.contains(fields[0]));
+         assertTrue(lines[i], OPERATIONS.contains(fields[1]));
+         assertTrue(lines[i], fields[2].equals("random") || fields[2].equals("sorted"));
+         assertTrue(lines[i], fields[3].equals("10") || fields[3].equals("100"));
+         assertTrue(lines[i], Double.parseDouble(fields[4]) >= 0);
+         String key = fields[0] + " " + fields[1];
+         rows.put(key, rows.containsKey(key) ? rows.get(key) + 1 : 1);
+      }
+      assertEquals(SETS.size() * OPERATIONS.size(), rows.size());
+      for (int count : rows.values()) {
+         assertEquals(4, count);
+      }
+   }
+
+   @Test
+   public void testMaxSizeBelowSmallestSize() {
+      assertEquals(1, run("9", "1").length);
+   }
+
+   @Test(expected = NumberFormatException.class)
+   public void testMalformedMaxSize() {
+      run("ten");
+   }
+
+
+   /**
+    * Runs SetBenchmark.main with args and returns the lines it printed.
+    */
+   private static String[] run(String... args) {
+      PrintStream out = System.out;
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      System.setOut(new PrintStream(buffer, true));
+      try {
+         SetBenchmark.main(args);
+      }
+      finally {
+         System.setOut(out);
+      }
+      return buffer.toString().split("\\R");
+   }
+}
@@ -0,0 +1,201 @@
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+* An index over one int array for answering many Selector queries on
+* it. Building it costs one sort, O(n log n); after that floor and
+* ceiling take O(log n), range takes O(log n) and copies nothing, and
+* min, max, kmin and kmax take O(1).
+*
+* The index keeps a sorted copy of the array and a table of its
+* distinct values in ascending order, so later changes to the array
+* are not seen. Its answers, and the IllegalArgumentExceptions it
+* throws, are the same as those of the static Selector methods.
+*
+* @author   Avery Hyman (amh0120@auburn.edu)
+* @version  2017-10-30
+*
+*/
+public final class SortedIndex {
+
+   // The values of the array, in ascending order.
+   private final int[] sorted;
+
+   // The distinct values of the array, in ascending order.
+   private final int[] distinct;
+
+
+   /**
+    * Builds an index over the values of the array a. This
+    * constructor throws IllegalArgumentException if a is null or has
+    * zero length. The array a is not changed.
+    *
+    * @param  a  the array to index
+    */
+   public SortedIndex(int[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      sorted = a.clone();
+      Arrays.sort(sorted);
+      int count = 1;
+      for (int i = 1; i < sorted.length; i++) {
+         if (sorted[i] != sorted[i - 1]) {
+            count++;
+         }
+      }
+      distinct = new int[count];
+      distinct[0] = sorted[0];
+      count = 1;
+      for (int i = 1; i < sorted.length; i++) {
+         if (sorted[i] != sorted[i - 1]) {
+            distinct[count] = sorted[i];
+            count++;
+         }
+      }
+   }
+
+
+   /**
+    * Returns the number of values in the indexed array.
+    *
+    * @return  the length of the indexed array
+    */
+   public int size() {
+      return sorted.length;
+   }
+
+
+   /**
+    * Returns the number of distinct values in the indexed array.
+    *
+    * @return  the number of distinct values
+    */
+   public int distinctCount() {
+      return distinct.length;
+   }
+
+
+   /**
+    * Returns the minimum value in the indexed array.
+    *
+    * @return  the minimum value
+    */
+   public int min() {
+      return distinct[0];
+   }
+
+
+   /**
+    * Returns the maximum value in the indexed array.
+    *
+    * @return  the maximum value
+    */
+   public int max() {
+      return distinct[distinct.length - 1];
+   }
+
+
+   /**
+    * Returns the kth minimum distinct value in the indexed array.
+    * This method throws IllegalArgumentException if k < 1 or k is
+    * larger than the number of distinct values.
+    *
+    * @param   k  the rank of the value, counting from 1
+    * @return  the kth minimum value
+    */
+   public int kmin(int k) {
+      if (k < 1 || k > distinct.length) {
+         throw new IllegalArgumentException();
+      }
+      return distinct[k - 1];
+   }
+
+
+   /**
+    * Returns the kth maximum distinct value in the indexed array.
+    * This method throws IllegalArgumentException if k < 1 or k is
+    * larger than the number of distinct values.
+    *
+    * @param   k  the rank of the value, counting from 1
+    * @return  the kth maximum value
+    */
+   public int kmax(int k) {
+      if (k < 1 || k > distinct.length) {
+         throw new IllegalArgumentException();
+      }
+      return distinct[distinct.length - k];
+   }
+
+
+   /**
+    * Returns a read-only view of the values in the range
+    * [low..high], including duplicate values, in ascending order.
+    * The view shares the index's sorted copy, so nothing is copied.
+    * Its remaining() is the number of qualifying values, and it is
+    * empty if there are none.
+    *
+    * @param   low   the smallest value to include
+    * @param   high  the largest value to include
+    * @return  a read-only buffer over the qualifying values
+    */
+   public IntBuffer range(int low, int high) {
+      int from = firstAtLeast(sorted, low);
+      int to = (high == Integer.MAX_VALUE) ? sorted.length : firstAtLeast(sorted, high + 1);
+      return IntBuffer.wrap(sorted, from, Math.max(0, to - from)).slice().asReadOnlyBuffer();
+   }
+
+
+   /**
+    * Returns the smallest value in the indexed array that is greater
+    * than or equal to key. This method throws IllegalArgumentException
+    * if there is no qualifying value.
+    *
+    * @param   key  the value to search from
+    * @return  the ceiling of key
+    */
+   public int ceiling(int key) {
+      int i = firstAtLeast(distinct, key);
+      if (i == distinct.length) {
+         throw new IllegalArgumentException();
+      }
+      return distinct[i];
+   }
+
+
+   /**
+    * Returns the largest value in the indexed array that is less than
+    * or equal to key. This method throws IllegalArgumentException if
+    * there is no qualifying value.
+    *
+    * @param   key  the value to search from
+    * @return  the floor of key
+    */
+   public int floor(int key) {
+      int i = (key == Integer.MAX_VALUE) ? distinct.length : firstAtLeast(distinct, key + 1);
+      if (i == 0) {
+         throw new IllegalArgumentException();
+      }
+      return distinct[i - 1];
+   }
+
+
+   /**
+    * Returns the index of the first value in the sorted array x that
+    * is greater than or equal to key, or x.length if there is none.
+    */
+   private static int firstAtLeast(int[] x, int key) {
+      int lo = 0;
+      int hi = x.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (x[mid] < key) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+}
@@ -0,0 +1,164 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.nio.IntBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Provides JUnit test cases for the SortedIndex class.
+ *
+ * @author Avery Hyman (amh0120@auburn.edu)
+ * @version 2017-10-30
+ */
+public class SortedIndexTest {
+
+   @Test
+   public void testSizes() {
+      SortedIndex index = new SortedIndex(new int[] {3, 1, 3, 2, 1});
+      assertEquals(5, index.size());
+      assertEquals(3, index.distinctCount());
+      assertEquals(1, index.min());
+      assertEquals(3, index.max());
+   }
+
+   @Test
+   public void testExtremes() {
+      SortedIndex index = new SortedIndex(
+         new int[] {Integer.MAX_VALUE, 0, Integer.MIN_VALUE, Integer.MAX_VALUE});
+      assertEquals(Integer.MIN_VALUE, index.min());
+      assertEquals(Integer.MAX_VALUE, index.max());
+      assertEquals(Integer.MAX_VALUE, index.kmin(3));
+      assertEquals(Integer.MIN_VALUE, index.kmax(3));
+      assertEquals(Integer.MAX_VALUE, index.floor(Integer.MAX_VALUE));
+      assertEquals(Integer.MIN_VALUE, index.ceiling(Integer.MIN_VALUE));
+      assertEquals(Integer.MIN_VALUE, index.floor(-1));
+      assertEquals(Integer.MAX_VALUE, index.ceiling(1));
+   }
+
+   @Test
+   public void testLaterChangesNotSeen() {
+      int[] a = {2, 1};
+      SortedIndex index = new SortedIndex(a);
+      a[0] = 9;
+      assertEquals(2, index.max());
+      assertEquals(9, a[0]);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testNull() {
+      new SortedIndex(null);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testEmpty() {
+      new SortedIndex(new int[0]);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKminZero() {
+      new SortedIndex(new int[] {1}).kmin(0);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKminPastDistinctCount() {
+      new SortedIndex(new int[] {1, 1, 2}).kmin(3);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKmaxNegative() {
+      new SortedIndex(new int[] {1}).kmax(-1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testKmaxPastDistinctCount() {
+      new SortedIndex(new int[] {4, 4}).kmax(2);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testFloorNone() {
+      new SortedIndex(new int[] {5, 6}).floor(4);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testFloorNoneAtMinValue() {
+      new SortedIndex(new int[] {5}).floor(Integer.MIN_VALUE);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testCeilingNone() {
+      new SortedIndex(new int[] {5, 6}).ceiling(7);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testCeilingNoneAtMaxValue() {
+      new SortedIndex(new int[] {5}).ceiling(Integer.MAX_VALUE);
+   }
+
+   @Test
+   public void testRange() {
+      SortedIndex index = new SortedIndex(new int[] {4, 2, 8, 2, Integer.MAX_VALUE, 6});
+      assertArrayContents(new int[] {2, 2, 4}, index.range(2, 5));
+      assertArrayContents(new int[] {8, Integer.MAX_VALUE}, index.range(7, Integer.MAX_VALUE));
+      assertArrayContents(new int[] {2, 2, 4, 6, 8, Integer.MAX_VALUE},
+         index.range(Integer.MIN_VALUE, Integer.MAX_VALUE));
+      assertArrayContents(new int[0], index.range(9, 100));
+   }
+
+   @Test
+   public void testRangeLowAboveHigh() {
+      SortedIndex index = new SortedIndex(new int[] {1, 2, 3});
+      assertEquals(0, index.range(3, 1).remaining());
+      assertEquals(0, index.range(Integer.MAX_VALUE, Integer.MIN_VALUE).remaining());
+   }
+
+   @Test(expected = ReadOnlyBufferException.class)
+   public void testRangeIsReadOnly() {
+      IntBuffer range = new SortedIndex(new int[] {1, 2, 3}).range(1, 3);
+      assertTrue(range.isReadOnly());
+      range.put(0, 7);
+   }
+
+   @Test
+   public void testAgreesWithSelector() {
+      Random random = new Random(25);
+      for (int trial = 0; trial < 200; trial++) {
+         int n = 1 + random.nextInt(200);
+         int[] a = new int[n];
+         for (int i = 0; i < n; i++) {
+            a[i] = random.nextInt(2 * n) - n;
+         }
+         SortedIndex index = new SortedIndex(a);
+         int distinct = index.distinctCount();
+         for (int k = 1; k <= distinct; k++) {
+            assertEquals(Selector.kmin(a, k), index.kmin(k));
+            assertEquals(Selector.kmax(a, k), index.kmax(k));
+         }
+         int low = random.nextInt(2 * n) - n;
+         int high = random.nextInt(2 * n) - n;
+         int[] expected = Selector.range(a, low, high);
+         Arrays.sort(expected);
+         assertArrayContents(expected, index.range(low, high));
+         int key = random.nextInt(2 * n) - n;
+         if (key >= index.min()) {
+            assertEquals(Selector.floor(a, key), index.floor(key));
+         }
+         if (key <= index.max()) {
+            assertEquals(Selector.ceiling(a, key), index.ceiling(key));
+         }
+      }
+   }
+
+
+   /**
+    * Asserts that the remaining values of buffer are expected.
+    */
+   private static void assertArrayContents(int[] expected, IntBuffer buffer) {
+      int[] actual = new int[buffer.remaining()];
+      buffer.duplicate().get(actual);
+      assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+   }
+}
@@ -0,0 +1,158 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+* A SelectorKernel on the incubating Vector API. Each loop reads a[]
+* a whole vector of the platform's preferred width at a time and
+* finishes the tail that does not fill a vector with scalar code.
+*
+* This is the only source that needs the incubating module, so it
+* lives in vector/ and a plain "javac *.java" in the top directory
+* leaves it out; Selector then runs on its scalar kernel. Nothing
+* refers to this class by name: Selector loads it reflectively, and
+* only when the jdk.incubator.vector module is in the boot layer.
+* To use it, build the top directory first and then, from there,
+*
+*     javac --add-modules jdk.incubator.vector -cp . -d . vector/VectorKernel.java
+*     java --add-modules jdk.incubator.vector ...
+*
+* @author   Avery Hyman (amh0120@auburn.edu)
+* @version  2017-10-30
+*
+*/
+final class VectorKernel implements SelectorKernel {
+   private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+   @Override
+   public int min(int[] a, int lo, int hi) {
+      int i = lo;
+      int min = Integer.MAX_VALUE;
+      if (hi - lo >= SPECIES.length()) {
+         IntVector acc = IntVector.broadcast(SPECIES, Integer.MAX_VALUE);
+         for (int end = lo + SPECIES.loopBound(hi - lo); i < end; i += SPECIES.length()) {
+            acc = acc.min(IntVector.fromArray(SPECIES, a, i));
+         }
+         min = acc.reduceLanes(VectorOperators.MIN);
+      }
+      for (; i < hi; i++) {
+         min = Math.min(min, a[i]);
+      }
+      return min;
+   }
+
+   @Override
+   public int max(int[] a, int lo, int hi) {
+      int i = lo;
+      int max = Integer.MIN_VALUE;
+      if (hi - lo >= SPECIES.length()) {
+         IntVector acc = IntVector.broadcast(SPECIES, Integer.MIN_VALUE);
+         for (int end = lo + SPECIES.loopBound(hi - lo); i < end; i += SPECIES.length()) {
+            acc = acc.max(IntVector.fromArray(SPECIES, a, i));
+         }
+         max = acc.reduceLanes(VectorOperators.MAX);
+      }
+      for (; i < hi; i++) {
+         max = Math.max(max, a[i]);
+      }
+      return max;
+   }
+
+   @Override
+   public int count(int[] a, int lo, int hi, int low, int high) {
+      int i = lo;
+      int count = 0;
+      for (int end = lo + SPECIES.loopBound(hi - lo); i < end; i += SPECIES.length()) {
+         count += inRange(IntVector.fromArray(SPECIES, a, i), low, high).trueCount();
+      }
+      for (; i < hi; i++) {
+         if (a[i] >= low && a[i] <= high) {
+            count++;
+         }
+      }
+      return count;
+   }
+
+   @Override
+   public int copyRange(int[] a, int lo, int hi, int low, int high, int[] result, int offset) {
+      int i = lo;
+      int k = offset;
+      for (int end = lo + SPECIES.loopBound(hi - lo); i < end; i += SPECIES.length()) {
+         // There is no lane compress in this release of the API, so
+         // copy the lanes that matched one by one from the mask bits.
+         long lanes = inRange(IntVector.fromArray(SPECIES, a, i), low, high).toLong();
+         while (lanes != 0) {
+            result[k] = a[i + Long.numberOfTrailingZeros(lanes)];
+            k++;
+            lanes &= lanes - 1;
+         }
+      }
+      for (; i < hi; i++) {
+         if (a[i] >= low && a[i] <= high) {
+            result[k] = a[i];
+            k++;
+         }
+      }
+      return k;
+   }
+
+   @Override
+   public long ceiling(int[] a, int lo, int hi, int key) {
+      int i = lo;
+      boolean found = false;
+      int ceiling = Integer.MAX_VALUE;
+      if (hi - lo >= SPECIES.length()) {
+         IntVector acc = IntVector.broadcast(SPECIES, Integer.MAX_VALUE);
+         VectorMask<Integer> any = SPECIES.maskAll(false);
+         for (int end = lo + SPECIES.loopBound(hi - lo); i < end; i += SPECIES.length()) {
+            IntVector v = IntVector.fromArray(SPECIES, a, i);
+            VectorMask<Integer> qualifies = v.compare(VectorOperators.GE, key);
+            acc = acc.min(v.blend(Integer.MAX_VALUE, qualifies.not()));
+            any = any.or(qualifies);
+         }
+         found = any.anyTrue();
+         ceiling = acc.reduceLanes(VectorOperators.MIN);
+      }
+      for (; i < hi; i++) {
+         if (a[i] >= key && a[i] <= ceiling) {
+            ceiling = a[i];
+            found = true;
+         }
+      }
+      return found ? ceiling : Selector.NONE;
+   }
+
+   @Override
+   public long floor(int[] a, int lo, int hi, int key) {
+      int i = lo;
+      boolean found = false;
+      int floor = Integer.MIN_VALUE;
+      if (hi - lo >= SPECIES.length()) {
+         IntVector acc = IntVector.broadcast(SPECIES, Integer.MIN_VALUE);
+         VectorMask<Integer> any = SPECIES.maskAll(false);
+         for (int end = lo + SPECIES.loopBound(hi - lo); i < end; i += SPECIES.length()) {
+            IntVector v = IntVector.fromArray(SPECIES, a, i);
+            VectorMask<Integer> qualifies = v.compare(VectorOperators.LE, key);
+            acc = acc.max(v.blend(Integer.MIN_VALUE, qualifies.not()));
+            any = any.or(qualifies);
+         }
+         found = any.anyTrue();
+         floor = acc.reduceLanes(VectorOperators.MAX);
+      }
+      for (; i < hi; i++) {
+         if (a[i] <= key && a[i] >= floor) {
+            floor = a[i];
+            found = true;
+         }
+      }
+      return found ? floor : Selector.NONE;
+   }
+
+   /**
+    * Returns the lanes of v that are in [low..high].
+    */
+   private static VectorMask<Integer> inRange(IntVector v, int low, int high) {
+      return v.compare(VectorOperators.GE, low).and(v.compare(VectorOperators.LE, high));
+   }
+}